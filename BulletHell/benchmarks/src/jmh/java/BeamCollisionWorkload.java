@@ -0,0 +1,35 @@
+// Beam.checkCollision against a spread of player positions, with the beam mid-flash
+public class BeamCollisionWorkload implements bench.Workload {
+    public static final int POINTS = 1024;
+
+    private Beam beam;
+    private final int[] xs = new int[POINTS];
+    private final int[] ys = new int[POINTS];
+
+    @Override
+    public void setUp(int unused, long seed) {
+        beam = new Beam(500, 350, 1000, 700, 0.6);
+        while (beam.getState() != 1) {
+            beam.update();
+        }
+        fillPoints(xs, ys, seed);
+    }
+
+    @Override
+    public long run() {
+        long hits = 0;
+        for (int i = 0; i < POINTS; i++) {
+            if (beam.checkCollision(xs[i], ys[i])) hits++;
+        }
+        return hits;
+    }
+
+    // Points across the whole screen, so hits and misses both get exercised
+    static void fillPoints(int[] xs, int[] ys, long seed) {
+        RandomStream random = new RandomStream(seed);
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = (int) (random.nextDouble() * 1000);
+            ys[i] = (int) (random.nextDouble() * 700);
+        }
+    }
+}
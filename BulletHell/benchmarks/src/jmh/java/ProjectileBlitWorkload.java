@@ -0,0 +1,8 @@
+// The same bullets as ProjectileDrawImageWorkload, stamped into the frame's pixels by ProjectileBlitter
+public class ProjectileBlitWorkload extends ProjectileDrawImageWorkload {
+    @Override
+    public long run() {
+        ProjectileBlitter.draw(image, projectiles, 1.0);
+        return image.getRGB(WIDTH / 2, HEIGHT / 2);
+    }
+}
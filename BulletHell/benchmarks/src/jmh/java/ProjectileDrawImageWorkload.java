@@ -0,0 +1,37 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+
+// Enemy bullets scattered over a 1000x700 TYPE_INT_RGB frame in every style and
+// the sizes the game uses, painted with WorldRenderer's drawImage-per-bullet loop.
+// Reads the sprites from the folder in the bullethell.sprites property, which the
+// jmh task sets, or from the working directory.
+public class ProjectileDrawImageWorkload implements bench.Workload {
+    protected static final int WIDTH = 1000;
+    protected static final int HEIGHT = 700;
+    private static final int MIN_SIZE = 2;
+    private static final int MAX_SIZE = 8;
+
+    protected final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+    protected final Graphics2D g2d = image.createGraphics();
+    protected final EnemyProjectiles projectiles = new EnemyProjectiles();
+
+    @Override
+    public void setUp(int count, long seed) {
+        SpriteLoader.loadSprites(new File(System.getProperty("bullethell.sprites", "sprites")));
+        RandomStream random = new RandomStream(seed);
+        for (int i = 0; i < count; i++) {
+            int x = (int) (random.nextDouble() * WIDTH);
+            int y = (int) (random.nextDouble() * HEIGHT);
+            int size = MIN_SIZE + (int) (random.nextDouble() * (MAX_SIZE - MIN_SIZE + 1));
+            byte style = (byte) (random.nextDouble() * EnemyProjectiles.COLORS.length);
+            projectiles.spawn(x, y, random.nextDouble() * Math.PI * 2, size, style);
+        }
+    }
+
+    @Override
+    public long run() {
+        WorldRenderer.drawEnemyProjectiles(g2d, projectiles, 1.0);
+        return image.getRGB(WIDTH / 2, HEIGHT / 2);
+    }
+}
@@ -0,0 +1,18 @@
+// EnemyProjectiles.update over a full pool of bullets fanned out from the middle of the screen
+public class ProjectileIntegrationWorkload implements bench.Workload {
+    private final EnemyProjectiles projectiles = new EnemyProjectiles();
+
+    @Override
+    public void setUp(int count, long seed) {
+        RandomStream random = new RandomStream(seed);
+        for (int i = 0; i < count; i++) {
+            projectiles.spawn(500, 350, random.nextDouble() * Math.PI * 2);
+        }
+    }
+
+    @Override
+    public long run() {
+        projectiles.update();
+        return projectiles.getX(0);
+    }
+}
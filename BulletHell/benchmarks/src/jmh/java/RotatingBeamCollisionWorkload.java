@@ -0,0 +1,22 @@
+// RotatingBeam.checkCollision against the same spread of points as BeamCollisionWorkload
+public class RotatingBeamCollisionWorkload implements bench.Workload {
+    private RotatingBeam beam;
+    private final int[] xs = new int[BeamCollisionWorkload.POINTS];
+    private final int[] ys = new int[BeamCollisionWorkload.POINTS];
+
+    @Override
+    public void setUp(int unused, long seed) {
+        beam = new RotatingBeam(500, 150, 0, 1000, 700);
+        beam.update(500, 150, 1.1);
+        BeamCollisionWorkload.fillPoints(xs, ys, seed);
+    }
+
+    @Override
+    public long run() {
+        long hits = 0;
+        for (int i = 0; i < xs.length; i++) {
+            if (beam.checkCollision(xs[i], ys[i])) hits++;
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,11 @@
+// The same sprites as SpriteImagesWorkload, each drawn as its AtlasRegion, so
+// every draw has the one SpriteAtlas image as its source
+public class SpriteAtlasWorkload extends SpriteImagesWorkload {
+    @Override
+    public long run() {
+        for (int i = 0; i < regions.length; i++) {
+            regions[i].draw(g2d, xs[i], ys[i]);
+        }
+        return finish();
+    }
+}
@@ -0,0 +1,83 @@
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Toolkit;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.io.File;
+
+// A frame's worth of mixed sprites, enemies, bosses, pickups and bullets of
+// every style, in random order so consecutive draws keep changing sprite, each
+// drawn from its own image as the renderers did before the SpriteAtlas. The
+// frame is a VolatileImage when there's a screen, so the accelerated pipeline
+// and its texture binds are what's timed, and a 1000x700 TYPE_INT_RGB image
+// when headless. Reads the sprites as ProjectileDrawImageWorkload does.
+public class SpriteImagesWorkload implements bench.Workload {
+    protected static final int WIDTH = 1000;
+    protected static final int HEIGHT = 700;
+    private static final String[] NAMES = {"enemy", "triangle_enemy", "boss", "healing_item", "player_projectile"};
+    private static final int[] SIZES = {40, 40, 120, 24, 12};
+    private static final int MIN_BULLET = 2;
+    private static final int MAX_BULLET = 8;
+
+    protected final Image frame;
+    protected final Graphics2D g2d;
+    protected BufferedImage[] images;
+    protected AtlasRegion[] regions;
+    protected int[] xs, ys;
+
+    public SpriteImagesWorkload() {
+        if (GraphicsEnvironment.isHeadless()) {
+            frame = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+            g2d = ((BufferedImage) frame).createGraphics();
+        } else {
+            VolatileImage volatileFrame = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration().createCompatibleVolatileImage(WIDTH, HEIGHT);
+            frame = volatileFrame;
+            g2d = volatileFrame.createGraphics();
+        }
+    }
+
+    @Override
+    public void setUp(int count, long seed) {
+        SpriteLoader.loadSprites(new File(System.getProperty("bullethell.sprites", "sprites")));
+        RandomStream random = new RandomStream(seed);
+        images = new BufferedImage[count];
+        regions = new AtlasRegion[count];
+        xs = new int[count];
+        ys = new int[count];
+        for (int i = 0; i < count; i++) {
+            // Half bullets, half the other sprites, as in a busy wave
+            if (random.nextDouble() < 0.5) {
+                int size = MIN_BULLET + (int) (random.nextDouble() * (MAX_BULLET - MIN_BULLET + 1));
+                byte style = (byte) (random.nextDouble() * EnemyProjectiles.COLORS.length);
+                images[i] = SpriteLoader.getProjectileSprite(size, style);
+                regions[i] = SpriteLoader.getProjectileRegion(size, style);
+            } else {
+                int n = (int) (random.nextDouble() * NAMES.length);
+                images[i] = SpriteLoader.getSprite(NAMES[n], SIZES[n], SIZES[n]);
+                regions[i] = SpriteLoader.getRegion(NAMES[n], SIZES[n], SIZES[n]);
+            }
+            xs[i] = (int) (random.nextDouble() * WIDTH) - images[i].getWidth() / 2;
+            ys[i] = (int) (random.nextDouble() * HEIGHT) - images[i].getHeight() / 2;
+        }
+    }
+
+    @Override
+    public long run() {
+        for (int i = 0; i < images.length; i++) {
+            g2d.drawImage(images[i], xs[i], ys[i], null);
+        }
+        return finish();
+    }
+
+    // Waits for queued draws to reach the frame, then reads a pixel back where
+    // that's cheap; reading a VolatileImage would copy the whole of it
+    protected long finish() {
+        if (frame instanceof VolatileImage) {
+            Toolkit.getDefaultToolkit().sync();
+            return images.length;
+        }
+        return ((BufferedImage) frame).getRGB(WIDTH / 2, HEIGHT / 2);
+    }
+}
@@ -0,0 +1,41 @@
+import java.nio.ByteBuffer;
+
+// GameWorld.startWave, restarting the same wave from a saved state each time.
+// Green circles and red triangles survive a wave change, so without the reset
+// every run would pile more of them into the store. startWave takes only
+// microseconds, so each run() starts it on BATCH copies of the world, restored
+// together by reset(), to keep JMH's per-invocation overhead out of the score.
+public class StartWaveWorkload implements bench.Workload {
+    public static final int BATCH = 100;
+
+    private final GameWorld[] worlds = new GameWorld[BATCH];
+    private ByteBuffer snapshot;
+
+    @Override
+    public void setUp(int wave, long seed) {
+        GameWorld world = new GameWorld(null, wave, 1000, 700, seed);
+        ByteBuffer saved = new StateIO().save(world);
+        snapshot = ByteBuffer.allocate(saved.remaining()).put(saved).flip();
+        for (int i = 0; i < BATCH; i++) {
+            worlds[i] = new GameWorld(null, wave, 1000, 700, seed);
+        }
+        reset();
+    }
+
+    @Override
+    public void reset() {
+        for (GameWorld world : worlds) {
+            world.readState(snapshot.rewind());
+        }
+    }
+
+    @Override
+    public long run() {
+        long size = 0;
+        for (GameWorld world : worlds) {
+            world.startWave();
+            size += world.getEntities().size();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,53 @@
+import java.nio.ByteBuffer;
+
+// A full update tick, as GamePanel runs it: world.update with the headless bot's input.
+// setUp plays the wave for a couple of seconds so bullets and beams are flying, then
+// keeps a snapshot; every run() replays the same stretch from that snapshot.
+public class WorldTickWorkload implements bench.Workload {
+    public static final int WARMUP_TICKS = 120;
+    public static final int SEGMENT_TICKS = 600; // ticks per run(), ten seconds of game time
+
+    private GameWorld world;
+    private final InputState input = new InputState();
+    private ByteBuffer snapshot;
+
+    @Override
+    public void setUp(int wave, long seed) {
+        world = new GameWorld(null, wave, 1000, 700, seed);
+        for (int tick = 0; tick < WARMUP_TICKS; tick++) {
+            step(tick);
+        }
+        ByteBuffer saved = new StateIO().save(world);
+        snapshot = ByteBuffer.allocate(saved.remaining()).put(saved).flip();
+
+        // A death sends the run back to wave 1 and the numbers would describe the wrong wave
+        run();
+        if (world.getDeaths() > 0) {
+            throw new IllegalStateException("Bot dies during the wave " + wave + " segment with seed " + seed
+                    + ", pick another seed");
+        }
+        reset();
+    }
+
+    @Override
+    public void reset() {
+        world.readState(snapshot.rewind());
+    }
+
+    @Override
+    public long run() {
+        for (int tick = WARMUP_TICKS; tick < WARMUP_TICKS + SEGMENT_TICKS; tick++) {
+            step(tick);
+        }
+        return world.getTotalKills() + world.getEnemyProjectiles().size();
+    }
+
+    private void step(int tick) {
+        if (world.isAwaitingUpgrade()) {
+            world.chooseUpgrade(world.getOfferedUpgrades()[0]);
+        }
+        HeadlessRunner.scriptInput(world, input, tick);
+        world.update(input);
+        input.clearEvents();
+    }
+}
@@ -0,0 +1,32 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Beam and RotatingBeam hit tests, scored per checkCollision call
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class BeamCollisionBenchmark {
+    private Workload beam;
+    private Workload rotatingBeam;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        beam = Workload.load("BeamCollisionWorkload", 0, 7);
+        rotatingBeam = Workload.load("RotatingBeamCollisionWorkload", 0, 7);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024) // BeamCollisionWorkload.POINTS
+    public long beam() {
+        return beam.run();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public long rotatingBeam() {
+        return rotatingBeam.run();
+    }
+}
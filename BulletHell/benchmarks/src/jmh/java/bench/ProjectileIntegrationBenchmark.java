@@ -0,0 +1,26 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// One EnemyProjectiles.update over the whole pool
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ProjectileIntegrationBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int count;
+
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workload.load("ProjectileIntegrationWorkload", count, 7);
+    }
+
+    @Benchmark
+    public long update() {
+        return workload.run();
+    }
+}
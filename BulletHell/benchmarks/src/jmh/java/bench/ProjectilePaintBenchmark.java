@@ -0,0 +1,33 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Painting enemy bullets one drawImage at a time against ProjectileBlitter, scored per frame
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ProjectilePaintBenchmark {
+    @Param({"1000", "10000", "50000"})
+    public int count;
+
+    private Workload drawImage;
+    private Workload blitter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        drawImage = Workload.load("ProjectileDrawImageWorkload", count, 7);
+        blitter = Workload.load("ProjectileBlitWorkload", count, 7);
+    }
+
+    @Benchmark
+    public long drawImage() {
+        return drawImage.run();
+    }
+
+    @Benchmark
+    public long blitter() {
+        return blitter.run();
+    }
+}
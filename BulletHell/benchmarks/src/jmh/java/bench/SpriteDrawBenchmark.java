@@ -0,0 +1,33 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Drawing a mix of sprites each from its own image against all from the SpriteAtlas, scored per frame
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class SpriteDrawBenchmark {
+    @Param({"1000", "10000", "50000"})
+    public int count;
+
+    private Workload separateImages;
+    private Workload atlas;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        separateImages = Workload.load("SpriteImagesWorkload", count, 7);
+        atlas = Workload.load("SpriteAtlasWorkload", count, 7);
+    }
+
+    @Benchmark
+    public long separateImages() {
+        return separateImages.run();
+    }
+
+    @Benchmark
+    public long atlas() {
+        return atlas.run();
+    }
+}
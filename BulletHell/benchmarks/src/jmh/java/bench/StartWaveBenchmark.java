@@ -0,0 +1,35 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// GameWorld.startWave for a mid, late and very late wave
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class StartWaveBenchmark {
+    @Param({"5", "15", "25"})
+    public int wave;
+
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workload.load("StartWaveWorkload", wave, 7);
+    }
+
+    // The restore is much slower than startWave itself, so it has to stay out of the timing.
+    // Each invocation starts the wave in StartWaveWorkload.BATCH worlds, long enough for
+    // per-invocation setup to be safe.
+    @Setup(Level.Invocation)
+    public void reset() {
+        workload.reset();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100) // StartWaveWorkload.BATCH, so the score is per startWave
+    public long startWave() {
+        return workload.run();
+    }
+}
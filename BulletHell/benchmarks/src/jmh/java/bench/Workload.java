@@ -0,0 +1,25 @@
+package bench;
+
+// One piece of the simulation to time. The game classes live in the default
+// package, which JMH benchmark classes can't be in or import, so each workload
+// is a default-package class behind this interface that the benchmarks load by name.
+public interface Workload {
+    // Builds the scenario. What param means is up to the workload (wave number, projectile count...)
+    void setUp(int param, long seed);
+
+    // Puts the scenario back to where setUp left it, for workloads that use it up
+    default void reset() {}
+
+    // The timed work. Returns something computed from it so the JIT can't drop it.
+    long run();
+
+    static Workload load(String className, int param, long seed) {
+        try {
+            Workload workload = (Workload) Class.forName(className).getDeclaredConstructor().newInstance();
+            workload.setUp(param, seed);
+            return workload;
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Could not load workload " + className, ex);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// One full update tick at a few points in the game: early waves, the first boss,
+// the purple boss and the late waves with red triangles and green circles.
+// The seed is fixed so every run plays the same stretch of the same wave; the bot
+// survives every wave's segment with it, which WorldTickWorkload checks at setup.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class WorldTickBenchmark {
+    @Param({"1", "10", "20", "25"})
+    public int wave;
+
+    @Param({"18"})
+    public long seed;
+
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workload.load("WorldTickWorkload", wave, seed);
+    }
+
+    // Each invocation runs ten seconds of game time, long enough for per-invocation setup to be safe
+    @Setup(Level.Invocation)
+    public void reset() {
+        workload.reset();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(600) // WorldTickWorkload.SEGMENT_TICKS, so the score is per tick
+    public long tick() {
+        return workload.run();
+    }
+}
@@ -0,0 +1,272 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// Achievements on disk, written on a background thread so an unlock in the
+// middle of a tick never waits for the disk. There are two files: a snapshot
+// of every unlocked achievement, and a journal of the unlocks since, one small
+// record per unlock. Every COMPACT_AFTER unlocks (and once per launch) the
+// state is written out as a new snapshot and the journal starts over. Both are
+// only ever replaced whole, with AtomicFile, and journal records carry a CRC,
+// so a crash leaves at worst a torn last record, which loading drops. Each
+// snapshot has a generation one higher than the last, and a journal belongs
+// to the snapshot of its generation; one left from before a crash between
+// writing the snapshot and starting the new journal is ignored, since its
+// unlocks are in the snapshot already or were reset.
+//
+// Snapshot: magic, version, generation, count, then count names, then a CRC of all of it.
+// Journal: magic, version, generation, then records of name and the name's CRC.
+// Names are a short byte length and UTF-8. Version 1 files had no generation
+// and are read as generation 0.
+public class AchievementJournal {
+    private static final int SNAPSHOT_MAGIC = 0x42484153; // "BHAS"
+    private static final int JOURNAL_MAGIC = 0x4248414A; // "BHAJ"
+    private static final short VERSION = 2;
+    private static final int HEADER_BYTES = 14;
+    private static final int V1_HEADER_BYTES = 6;
+    private static final int COMPACT_AFTER = 32; // journal records before the snapshot is rewritten
+
+    private final Path snapshot, journal, legacy;
+    private final ExecutorService writer;
+    private int records = 0; // appended since the last compaction, caller side
+
+    private final Object diskLock = new Object(); // held while writing; see submit
+    private FileChannel journalChannel; // guarded by diskLock
+    private long generation; // of the current snapshot; guarded by diskLock after load
+    private final ByteBuffer recordBuffer = ByteBuffer.allocate(256); // writer thread only
+
+    // Files are name.bin and name.journal; name.dat is the old serialized map,
+    // read if there's no snapshot yet
+    public AchievementJournal(String name) {
+        snapshot = Paths.get(name + ".bin");
+        journal = Paths.get(name + ".journal");
+        legacy = Paths.get(name + ".dat");
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "Achievements writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Finish pending writes when the game exits
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "Achievements flush"));
+    }
+
+    // The unlocked achievements as saved, on the calling thread. Call compact
+    // with the result once the caller has it, so the next launch starts clean.
+    public Set<String> load() {
+        Set<String> unlocked = new HashSet<>();
+        generation = 0;
+        if (Files.exists(snapshot)) {
+            readSnapshot(unlocked);
+        } else if (Files.exists(legacy)) {
+            readLegacy(unlocked);
+        }
+        readJournal(unlocked);
+        return unlocked;
+    }
+
+    // Records an unlock. unlocked is everything unlocked now, this one included,
+    // and must not change afterwards; it's written if this unlock compacts.
+    public synchronized void append(String achievement, Set<String> unlocked) {
+        if (++records >= COMPACT_AFTER) {
+            compact(unlocked);
+            return;
+        }
+        submit(() -> writeRecord(achievement));
+    }
+
+    // Replaces the snapshot with unlocked and empties the journal. unlocked must
+    // not change afterwards.
+    public synchronized void compact(Set<String> unlocked) {
+        records = 0;
+        submit(() -> writeSnapshot(unlocked));
+    }
+
+    // Queues a write for the background thread, or once closed, when nothing
+    // runs the queue any more, does it on the calling thread. Called holding this.
+    private void submit(Runnable write) {
+        if (writer.isShutdown()) {
+            synchronized (diskLock) {
+                write.run();
+            }
+            return;
+        }
+        writer.execute(() -> {
+            synchronized (diskLock) {
+                write.run();
+            }
+        });
+    }
+
+    // Waits for everything queued so far to reach the disk. Unlocks after
+    // this are written straight away.
+    public void close() {
+        synchronized (this) {
+            writer.shutdown();
+        }
+        try {
+            writer.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeRecord(String achievement) {
+        try {
+            if (journalChannel == null) {
+                // No compaction has run; start a journal unless there's a good one
+                if (!isCurrentJournal()) {
+                    AtomicFile.replace(journal, ByteBuffer.wrap(header(JOURNAL_MAGIC, generation)));
+                }
+                journalChannel = FileChannel.open(journal, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            recordBuffer.clear();
+            putName(recordBuffer, achievement);
+            recordBuffer.putInt(crc(recordBuffer.array(), 0, recordBuffer.position()));
+            recordBuffer.flip();
+            while (recordBuffer.hasRemaining()) {
+                journalChannel.write(recordBuffer);
+            }
+            journalChannel.force(false);
+        } catch (IOException ex) {
+            System.err.println("AchievementJournal: could not append to " + journal + ": " + ex.getMessage());
+        }
+    }
+
+    // Whether the journal on disk is one records can be appended to
+    private boolean isCurrentJournal() throws IOException {
+        if (!Files.exists(journal) || Files.size(journal) < HEADER_BYTES) return false;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.READ)) {
+            while (header.hasRemaining() && channel.read(header) >= 0) {}
+        }
+        return header.getInt(0) == JOURNAL_MAGIC && header.getShort(4) == VERSION && header.getLong(6) == generation;
+    }
+
+    private void writeSnapshot(Set<String> unlocked) {
+        try {
+            long next = generation + 1;
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(next);
+            out.writeInt(unlocked.size());
+            for (String achievement : unlocked) {
+                byte[] name = achievement.getBytes(StandardCharsets.UTF_8);
+                out.writeShort(name.length);
+                out.write(name);
+            }
+            out.writeInt(crc(bytes.toByteArray(), 0, bytes.size()));
+            AtomicFile.replace(snapshot, ByteBuffer.wrap(bytes.toByteArray()));
+            generation = next;
+
+            // The old journal is now a generation behind, so a crash before
+            // this line leaves one that loading ignores
+            if (journalChannel != null) {
+                journalChannel.close();
+                journalChannel = null;
+            }
+            AtomicFile.replace(journal, ByteBuffer.wrap(header(JOURNAL_MAGIC, generation)));
+        } catch (IOException ex) {
+            System.err.println("AchievementJournal: could not write " + snapshot + ": " + ex.getMessage());
+        }
+    }
+
+    private void readSnapshot(Set<String> unlocked) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(snapshot));
+            long fileGeneration = readHeader(in, SNAPSHOT_MAGIC, snapshot);
+            if (fileGeneration < 0) return;
+            int end = in.limit() - 4;
+            if (end < in.position() || in.getInt(end) != crc(in.array(), 0, end)) {
+                System.err.println("AchievementJournal: " + snapshot + " is damaged, ignoring it");
+                return;
+            }
+            generation = fileGeneration;
+            int count = in.getInt();
+            for (int i = 0; i < count; i++) {
+                unlocked.add(getName(in));
+            }
+        } catch (IOException | RuntimeException ex) {
+            System.err.println("AchievementJournal: could not read " + snapshot + ": " + ex.getMessage());
+        }
+    }
+
+    private void readJournal(Set<String> unlocked) {
+        if (!Files.exists(journal)) return;
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(journal));
+            if (in.remaining() < V1_HEADER_BYTES) return;
+            long fileGeneration = readHeader(in, JOURNAL_MAGIC, journal);
+            if (fileGeneration < 0) return;
+            if (fileGeneration != generation) {
+                System.out.println("AchievementJournal: " + journal + " is from before the snapshot, skipping it");
+                return;
+            }
+            while (in.remaining() >= 2) {
+                int start = in.position();
+                int length = in.getShort(start) & 0xFFFF;
+                if (in.remaining() < 2 + length + 4) break; // torn last record
+                in.position(start + 2 + length);
+                if (in.getInt() != crc(in.array(), start, 2 + length)) break;
+                in.position(start);
+                unlocked.add(getName(in));
+                in.getInt();
+            }
+        } catch (IOException | RuntimeException ex) {
+            System.err.println("AchievementJournal: could not read " + journal + ": " + ex.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readLegacy(Set<String> unlocked) {
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(legacy.toFile()))) {
+            Map<String, Boolean> loaded = (Map<String, Boolean>) ois.readObject();
+            for (Map.Entry<String, Boolean> entry : loaded.entrySet()) {
+                if (entry.getValue()) unlocked.add(entry.getKey());
+            }
+        } catch (IOException | ClassNotFoundException | ClassCastException ex) {
+            System.err.println("AchievementJournal: could not read " + legacy + ": " + ex.getMessage());
+        }
+    }
+
+    private static byte[] header(int magic, long generation) {
+        return ByteBuffer.allocate(HEADER_BYTES).putInt(magic).putShort(VERSION).putLong(generation).array();
+    }
+
+    // The file's generation, or -1 if it isn't one of ours
+    private static long readHeader(ByteBuffer in, int magic, Path file) {
+        int fileMagic = in.getInt();
+        short version = in.getShort();
+        if (fileMagic != magic || (version != VERSION && version != 1)) {
+            System.err.println("AchievementJournal: " + file + " is not a version " + VERSION + " file, ignoring it");
+            return -1;
+        }
+        return version == 1 ? 0 : in.getLong();
+    }
+
+    private static void putName(ByteBuffer out, String achievement) {
+        byte[] name = achievement.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) name.length);
+        out.put(name);
+    }
+
+    private static String getName(ByteBuffer in) {
+        byte[] name = new byte[in.getShort() & 0xFFFF];
+        in.get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private static int crc(byte[] data, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(data, offset, length);
+        return (int) crc.getValue();
+    }
+}
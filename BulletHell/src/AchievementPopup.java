@@ -1,4 +1,5 @@
 import java.awt.*;
+import java.awt.image.BufferedImage;
 
 public class AchievementPopup {
     private String achievement;
@@ -7,11 +8,18 @@ public class AchievementPopup {
     private int timer = 0;
     private static final int WIDTH = 250;
     private static final int HEIGHT = 60;
+    private static final String TITLE = "Achievement Unlocked!";
+    private static final Color BACKGROUND = new Color(50, 150, 100);
+    private static final Color BORDER = new Color(100, 255, 150);
+    private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 12);
+    private static final Font NAME_FONT = new Font("Arial", Font.PLAIN, 11);
+    private final BufferedImage image; // the whole popup, drawn once and faded as one
 
     public AchievementPopup(String achievement, int screenWidth) {
         this.achievement = achievement;
         this.x = screenWidth - WIDTH - 20;
         this.y = 20;
+        this.image = render();
     }
 
     public void update() {
@@ -29,34 +37,41 @@ public class AchievementPopup {
             alpha = (lifetime - timer) / 60.0f;
         }
 
+        g.setComposite(Palette.composite(alpha));
+        g.drawImage(image, x - 1, y - 1, null);
+
+        // Reset composite
+        g.setComposite(AlphaComposite.SrcOver);
+    }
+
+    // The box and text, with a pixel to spare around the border. Made up front
+    // rather than every frame, since switching fonts and measuring text both
+    // allocate inside Java2D.
+    private BufferedImage render() {
+        BufferedImage popup = SpriteLoader.createCompatible(WIDTH + 3, HEIGHT + 3);
+        Graphics2D g = popup.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.translate(1, 1);
+
         // Draw semi-transparent background
-        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha * 0.9f));
-        g.setColor(new Color(50, 150, 100));
-        g.fillRoundRect(x, y, WIDTH, HEIGHT, 10, 10);
+        g.setComposite(Palette.composite(0.9f));
+        g.setColor(BACKGROUND);
+        g.fillRoundRect(0, 0, WIDTH, HEIGHT, 10, 10);
 
         // Draw border
-        g.setColor(new Color(100, 255, 150));
-        g.setStroke(new BasicStroke(2));
-        g.drawRoundRect(x, y, WIDTH, HEIGHT, 10, 10);
+        g.setColor(BORDER);
+        g.setStroke(Palette.STROKE_2);
+        g.drawRoundRect(0, 0, WIDTH, HEIGHT, 10, 10);
 
         // Draw text
-        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+        g.setComposite(AlphaComposite.SrcOver);
         g.setColor(Color.WHITE);
-        g.setFont(new Font("Arial", Font.BOLD, 12));
-        FontMetrics fm = g.getFontMetrics();
+        g.setFont(TITLE_FONT);
+        g.drawString(TITLE, (WIDTH - g.getFontMetrics().stringWidth(TITLE)) / 2, 20);
 
-        String text1 = "Achievement Unlocked!";
-        String text2 = achievement;
-
-        int x1 = x + (WIDTH - fm.stringWidth(text1)) / 2;
-        g.drawString(text1, x1, y + 20);
-
-        g.setFont(new Font("Arial", Font.PLAIN, 11));
-        fm = g.getFontMetrics();
-        int x2 = x + (WIDTH - fm.stringWidth(text2)) / 2;
-        g.drawString(text2, x2, y + 40);
-
-        // Reset composite
-        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
+        g.setFont(NAME_FONT);
+        g.drawString(achievement, (WIDTH - g.getFontMetrics().stringWidth(achievement)) / 2, 40);
+        g.dispose();
+        return popup;
     }
 }
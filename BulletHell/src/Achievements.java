@@ -1,10 +1,14 @@
-import java.io.*;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
+// Unlocked by the simulation thread and read by the menus on the EDT, so every
+// method holds the lock. Saving is AchievementJournal's, off both threads.
 public class Achievements {
     private Map<String, Boolean> achievements;
-    private static final String SAVE_FILE = "achievements.dat";
+    private static final String SAVE_NAME = "achievements"; // achievements.bin and .journal
+    private final AchievementJournal journal = new AchievementJournal(SAVE_NAME);
 
     public Achievements() {
         achievements = new HashMap<>();
@@ -26,53 +30,54 @@ public class Achievements {
         achievements.put("Second Boss", false);           // Defeat second boss
     }
 
-    public boolean unlock(String achievement) {
+    public synchronized boolean unlock(String achievement) {
         if (achievements.containsKey(achievement) && !achievements.get(achievement)) {
             achievements.put(achievement, true);
-            saveAchievements();
+            journal.append(achievement, getUnlocked());
             return true;
         }
         return false;
     }
 
-    public boolean isUnlocked(String achievement) {
+    public synchronized boolean isUnlocked(String achievement) {
         return achievements.getOrDefault(achievement, false);
     }
 
-    public Map<String, Boolean> getAllAchievements() {
+    public synchronized Map<String, Boolean> getAllAchievements() {
         return new HashMap<>(achievements);
     }
 
-    public int getUnlockedCount() {
+    public synchronized int getUnlockedCount() {
         return (int) achievements.values().stream().filter(v -> v).count();
     }
 
-    public int getTotalCount() {
+    public synchronized int getTotalCount() {
         return achievements.size();
     }
 
-    private void saveAchievements() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(SAVE_FILE))) {
-            oos.writeObject(achievements);
-        } catch (IOException e) {
-            // Silently fail if save doesn't work
+    // A new set of the unlocked names, for the journal to write later
+    private Set<String> getUnlocked() {
+        Set<String> unlocked = new HashSet<>();
+        for (Map.Entry<String, Boolean> entry : achievements.entrySet()) {
+            if (entry.getValue()) unlocked.add(entry.getKey());
         }
+        return unlocked;
     }
 
-    @SuppressWarnings("unchecked")
     private void loadAchievements() {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(SAVE_FILE))) {
-            Map<String, Boolean> loaded = (Map<String, Boolean>) ois.readObject();
-            achievements.putAll(loaded);
-        } catch (IOException | ClassNotFoundException e) {
-            // Use defaults if no save file exists
+        for (String achievement : journal.load()) {
+            // Names no longer in the game are dropped
+            if (achievements.containsKey(achievement)) {
+                achievements.put(achievement, true);
+            }
         }
+        journal.compact(getUnlocked());
     }
 
-    public void resetAchievements() {
+    public synchronized void resetAchievements() {
         for (String key : achievements.keySet()) {
             achievements.put(key, false);
         }
-        saveAchievements();
+        journal.compact(getUnlocked());
     }
 }
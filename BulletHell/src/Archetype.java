@@ -0,0 +1,64 @@
+// Per-type rules for the enemies kept in the EntityStore. GameWorld runs one
+// shared loop over every entity and looks up the differences here instead of
+// keeping a copy-pasted loop per enemy class.
+public enum Archetype {
+    //             hitbox  drop   contact kills  eatsPierce blocksWave clearedOnWave idleInBoss revivable
+    ENEMY(            18, 0.25,  1,      true,  false,     true,      true,         true,      true) {
+        public Entity create(int x, int y, int width, int height, RandomStream random) { return new Enemy(x, y, random); }
+    },
+    TRIANGLE(         15, 0.3,   1,      false, false,     true,      true,         false,     true) {
+        public Entity create(int x, int y, int width, int height, RandomStream random) { return new TriangleEnemy(x, y, random); }
+    },
+    GREEN_TRIANGLE(   18, 0.4,   1,      false, false,     true,      true,         false,     true) {
+        public Entity create(int x, int y, int width, int height, RandomStream random) { return new GreenTriangleEnemy(x, y, random); }
+    },
+    PURPLE_TRIANGLE(  20, 0.4,   1,      false, false,     true,      true,         false,     true) {
+        public Entity create(int x, int y, int width, int height, RandomStream random) { return new PurpleTriangleEnemy(x, y, random); }
+    },
+    RED_TRIANGLE(     18, 0.0,   2,      false, false,     false,     false,        false,     true) {
+        public Entity create(int x, int y, int width, int height, RandomStream random) { return new RedTriangleEnemy(x, y, random); }
+    },
+    PURPLE_CIRCLE(    25, 0.5,   1,      true,  true,      false,     true,         false,     true) {
+        public Entity create(int x, int y, int width, int height, RandomStream random) { return new PurpleCircleEnemy(x, y, width, height, random); }
+    },
+    GREEN_CIRCLE(     28, 0.6,   1,      false, true,      false,     false,        false,     false) {
+        public Entity create(int x, int y, int width, int height, RandomStream random) { return new GreenCircleEnemy(x, y, width, height, random); }
+    };
+
+    private final int hitboxSize; // half-width of the square hitbox
+    private final double dropChance; // chance of leaving a healing item on death
+    private final int contactDamage;
+    private final boolean countsKill; // counts toward totalKills and kill achievements
+    private final boolean consumesPiercingShots; // piercing shots stop on this type too
+    private final boolean blocksWaveEnd; // wave can't end while one of these is alive
+    private final boolean clearedOnWaveStart;
+    private final boolean idleDuringBossFight; // neither updated nor hit during boss waves
+    private final boolean revivable; // green circles can bring it back
+
+    Archetype(int hitboxSize, double dropChance, int contactDamage, boolean countsKill,
+              boolean consumesPiercingShots, boolean blocksWaveEnd, boolean clearedOnWaveStart,
+              boolean idleDuringBossFight, boolean revivable) {
+        this.hitboxSize = hitboxSize;
+        this.dropChance = dropChance;
+        this.contactDamage = contactDamage;
+        this.countsKill = countsKill;
+        this.consumesPiercingShots = consumesPiercingShots;
+        this.blocksWaveEnd = blocksWaveEnd;
+        this.clearedOnWaveStart = clearedOnWaveStart;
+        this.idleDuringBossFight = idleDuringBossFight;
+        this.revivable = revivable;
+    }
+
+    // Fresh instance of this type at (x, y), used for revives
+    public abstract Entity create(int x, int y, int width, int height, RandomStream random);
+
+    public int getHitboxSize() { return hitboxSize; }
+    public double getDropChance() { return dropChance; }
+    public int getContactDamage() { return contactDamage; }
+    public boolean countsKill() { return countsKill; }
+    public boolean consumesPiercingShots() { return consumesPiercingShots; }
+    public boolean blocksWaveEnd() { return blocksWaveEnd; }
+    public boolean isClearedOnWaveStart() { return clearedOnWaveStart; }
+    public boolean isIdleDuringBossFight() { return idleDuringBossFight; }
+    public boolean isRevivable() { return revivable; }
+}
@@ -0,0 +1,42 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+// A sprite inside the SpriteAtlas, or, for the few too big to share it, an
+// image of its own. Drawing it is a 1:1 copy of that rectangle.
+public class AtlasRegion {
+    private final BufferedImage own; // null when the sprite is in the atlas
+    private final int x, y, width, height;
+
+    AtlasRegion(int x, int y, int width, int height) {
+        this.own = null;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    private AtlasRegion(BufferedImage own) {
+        this.own = own;
+        this.x = 0;
+        this.y = 0;
+        this.width = own.getWidth();
+        this.height = own.getHeight();
+    }
+
+    // A whole image drawn through the same calls, but kept out of the atlas
+    public static AtlasRegion standalone(BufferedImage image) {
+        return new AtlasRegion(image);
+    }
+
+    // What g.drawImage(sprite, dx, dy, null) would draw
+    public void draw(Graphics2D g, int dx, int dy) {
+        if (own != null) {
+            g.drawImage(own, dx, dy, null);
+        } else {
+            g.drawImage(SpriteAtlas.getImage(), dx, dy, dx + width, dy + height, x, y, x + width, y + height, null);
+        }
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+}
@@ -1,6 +1,6 @@
-import java.awt.*;
+import java.nio.ByteBuffer;
 
-public class Beam {
+public class Beam implements BeamHazard {
     private int x, y;
     private int state = 0; // 0 = warning, 1 = flashing beam, 2 = shrinking, 3 = fading out
     private int stateTimer = 0;
@@ -11,13 +11,28 @@ public class Beam {
     private static final int FLASH_DURATION = 15;
     private static final int SHRINK_DURATION = 20; // Shrink duration
     private static final int FADE_DURATION = 30; // Extra fade duration for complete visual fade
+    private static final int MIN_HIT_RADIUS = 20; // no hits this close to the origin
+
+    // Oriented hitbox, cached so checkCollision does no trig. The angle and
+    // length are fixed for a beam's life; only the half-height follows the state.
+    private double cos, sin;
+    private int length;
+    private int halfHeight = 0; // 0 while the beam is harmless
+    private boolean retired = false;
 
     public Beam(int x, int y, int screenWidth, int screenHeight, double angle) {
         this.x = x;
         this.y = y;
         this.screenWidth = screenWidth;
         this.screenHeight = screenHeight;
+        setAngle(angle);
+    }
+
+    private void setAngle(double angle) {
         this.angle = angle;
+        this.cos = Math.cos(angle);
+        this.sin = Math.sin(angle);
+        this.length = (int) Math.sqrt(screenWidth * screenWidth + screenHeight * screenHeight) * 2;
     }
 
     public void update() {
@@ -33,74 +48,20 @@ public class Beam {
             state = 3;
             stateTimer = 0;
         }
+        updateHitbox();
     }
 
-    public void draw(Graphics2D g) {
-        if (state == 0) {
-            // Warning state - yellow circle at beam origin with rectangle showing beam direction
-            g.setColor(new Color(255, 255, 0, 200));
-            g.fillOval(x - warningSize / 2, y - warningSize / 2, warningSize, warningSize);
-            g.setColor(Color.YELLOW);
-            g.setStroke(new BasicStroke(2));
-            g.drawOval(x - warningSize / 2, y - warningSize / 2, warningSize, warningSize);
-            
-            // Draw transparent rectangle showing where beam will go
-            java.awt.geom.AffineTransform originalTransform = g.getTransform();
-            g.translate(x, y);
-            g.rotate(angle);
-            
-            int beamLength = (int) Math.sqrt(screenWidth * screenWidth + screenHeight * screenHeight) * 2;
-            g.setColor(new Color(255, 255, 100, 100)); // Semi-transparent yellow rectangle
-            g.fillRect(-beamLength / 2, -30, beamLength, 60);
-            g.setColor(new Color(255, 255, 0, 150)); // Yellow border
-            g.setStroke(new BasicStroke(1));
-            g.drawRect(-beamLength / 2, -30, beamLength, 60);
-            
-            g.setTransform(originalTransform);
-        } else if (state == 1) {
-            // Flashing white beam spanning screen
-            float flash = (stateTimer % 3 < 1) ? 1f : 0.7f;
-            g.setColor(new Color(1f, 1f, 1f, flash * 0.8f));
-            
-            // Draw rectangular beam rotated around origin point
-            java.awt.geom.AffineTransform originalTransform = g.getTransform();
-            g.translate(x, y);
-            g.rotate(angle);
-            
-            // Beam is 60px tall and spans the screen width
-            int beamLength = (int) Math.sqrt(screenWidth * screenWidth + screenHeight * screenHeight) * 2;
-            g.fillRect(-beamLength / 2, -30, beamLength, 60);
-            
-            g.setTransform(originalTransform);
+    // Only active/flashing/shrinking beams damage (state 1 or 2)
+    private void updateHitbox() {
+        if (state == 1) {
+            halfHeight = 30; // visual half-height during flash
         } else if (state == 2) {
-            // Shrinking 
+            // shrinking height depends on progress
             float progress = (float) stateTimer / SHRINK_DURATION;
-            float alpha = 1f - (progress * 0.5f); // Fade to 50% during shrink
-            g.setColor(new Color(1f, 1f, 1f, alpha * 0.6f));
-            
-            java.awt.geom.AffineTransform originalTransform = g.getTransform();
-            g.translate(x, y);
-            g.rotate(angle);
-            
-            int beamLength = (int) Math.sqrt(screenWidth * screenWidth + screenHeight * screenHeight) * 2;
-            int shrinkHeight = (int) (60 * (1 - progress));
-            g.fillRect(-beamLength / 2, -shrinkHeight / 2, beamLength, shrinkHeight);
-            
-            g.setTransform(originalTransform);
-        } else if (state == 3) {
-            // Fading out completely
-            float progress = (float) stateTimer / FADE_DURATION;
-            float alpha = (1f - progress) * 0.9f; // Fade from 30% to 0%
-            g.setColor(new Color(1f, 1f, 1f, alpha));
-            
-            java.awt.geom.AffineTransform originalTransform = g.getTransform();
-            g.translate(x, y);
-            g.rotate(angle);
-            
-            int beamLength = (int) Math.sqrt(screenWidth * screenWidth + screenHeight * screenHeight) * 2;
-            g.fillRect(-beamLength / 2, -15, beamLength, 30);
-            
-            g.setTransform(originalTransform);
+            int shrinkH = (int) (60 * (1 - progress));
+            halfHeight = Math.max(4, shrinkH / 2);
+        } else {
+            halfHeight = 0;
         }
     }
 
@@ -109,44 +70,70 @@ public class Beam {
     }
 
     public boolean checkCollision(int px, int py) {
-        // Use rotated-rectangle collision matching the visual beam rect.
-        // Transform point into beam-local coordinates by translating to (x,y)
-        double dx = px - x;
-        double dy = py - y;
-        double c = Math.cos(angle);
-        double s = Math.sin(angle);
-        // rotate point by -angle: x' = c*dx + s*dy; y' = -s*dx + c*dy
-        double localX = c * dx + s * dy;
-        double localY = -s * dx + c * dy;
-
-        int beamLength = (int) Math.sqrt(screenWidth * screenWidth + screenHeight * screenHeight) * 2;
-
-        // Only active/flashing/shrinking beams should damage (state 1 or 2)
-        if (state == 1) {
-            int halfH = 30; // visual half-height during flash
-            if (localX >= -beamLength / 2 && localX <= beamLength / 2 && localY >= -halfH && localY <= halfH) {
-                // avoid near-origin hits
-                if (Math.hypot(localX, localY) > 20) return true;
-            }
-        } else if (state == 2) {
-            // shrinking height depends on progress
-            float progress = (float) stateTimer / SHRINK_DURATION;
-            int shrinkH = (int) (60 * (1 - progress));
-            int halfH = Math.max(4, shrinkH / 2);
-            if (localX >= -beamLength / 2 && localX <= beamLength / 2 && localY >= -halfH && localY <= halfH) {
-                if (Math.hypot(localX, localY) > 20) return true;
-            }
-        }
-        return false;
+        // Rotated-rectangle test matching the visual beam rect
+        if (halfHeight == 0) return false;
+        return Collision.pointInOrientedBox(px, py, x, y, cos, sin,
+                -length / 2, length / 2, halfHeight, MIN_HIT_RADIUS);
+    }
+
+    // Stop hazard checks early, for beams dropped before they finish
+    public void retire() {
+        retired = true;
+    }
+
+    public boolean isRetired() {
+        return retired || isFinished();
     }
 
     public void setRemoveAfterFade(boolean remove) {
         // Ensures beam will be removed after fade completes (already default behavior)
     }
 
+    // Beams span twice the screen diagonal so they always cross the whole view
+    public int getLength() {
+        return length;
+    }
+
+    // 0..1 progress through the shrinking or fading state
+    public float getStateProgress() {
+        if (state == 2) return (float) stateTimer / SHRINK_DURATION;
+        if (state == 3) return (float) stateTimer / FADE_DURATION;
+        return 0f;
+    }
+
+    public void writeState(ByteBuffer out) {
+        out.putInt(x);
+        out.putInt(y);
+        out.putInt(screenWidth);
+        out.putInt(screenHeight);
+        out.putDouble(angle);
+        out.putInt(state);
+        out.putInt(stateTimer);
+        StateIO.putBoolean(out, retired);
+    }
+
+    public void readState(ByteBuffer in) {
+        x = in.getInt();
+        y = in.getInt();
+        screenWidth = in.getInt();
+        screenHeight = in.getInt();
+        setAngle(in.getDouble());
+        state = in.getInt();
+        stateTimer = in.getInt();
+        retired = StateIO.getBoolean(in);
+        updateHitbox();
+    }
+
+    // A beam for readState to fill in
+    public static Beam blank() {
+        return new Beam(0, 0, 0, 0, 0);
+    }
+
     public int getX() { return x; }
     public int getY() { return y; }
     public int getState() { return state; }
     public int getStateTimer() { return stateTimer; }
+    public double getAngle() { return angle; }
+    public int getWarningSize() { return warningSize; }
 }
 
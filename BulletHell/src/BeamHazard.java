@@ -0,0 +1,8 @@
+// A beam the player can run into. Implementations keep their hitbox cached so
+// BeamHazards can test every live beam each tick without recomputing it.
+public interface BeamHazard {
+    boolean checkCollision(int px, int py);
+
+    // Retired beams are dropped from BeamHazards on its next pass
+    boolean isRetired();
+}
@@ -0,0 +1,49 @@
+import java.util.Arrays;
+
+// Every live beam in the world, registered once by whoever spawns it. Owners
+// keep their own lists for drawing and attack logic; this is only the player
+// hit test, run as one pass over all beams each tick.
+public class BeamHazards {
+    private BeamHazard[] hazards = new BeamHazard[32];
+    private int size = 0;
+
+    public void register(BeamHazard hazard) {
+        if (size == hazards.length) {
+            hazards = Arrays.copyOf(hazards, size * 2);
+        }
+        hazards[size++] = hazard;
+    }
+
+    // Tests the point against every live beam, dropping retired ones as it goes
+    public boolean collidesWith(int px, int py) {
+        boolean hit = false;
+        int i = 0;
+        while (i < size) {
+            BeamHazard hazard = hazards[i];
+            if (hazard.isRetired()) {
+                // Swap-remove; order doesn't matter for a yes/no test
+                hazards[i] = hazards[--size];
+                hazards[size] = null;
+                continue;
+            }
+            if (!hit && hazard.checkCollision(px, py)) {
+                hit = true;
+            }
+            i++;
+        }
+        return hit;
+    }
+
+    public BeamHazard get(int index) {
+        return hazards[index];
+    }
+
+    public void clear() {
+        Arrays.fill(hazards, 0, size, null);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,67 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// One font and colour pre-drawn a character at a time, for HUD text drawn
+// every frame. drawString looks the font up again (and allocates) whenever the
+// colour's opacity or the composite changed since the last string, which the
+// world drawing does all the time; blitting glyphs doesn't. Covers printable ASCII.
+public class BitmapText {
+    private static final int PAD = 2; // room for glyphs that overhang their advance
+
+    private final BufferedImage[] glyphs = new BufferedImage[128];
+    private final int[] advances = new int[128];
+    private final int ascent;
+
+    public BitmapText(Font font, Color color) {
+        BufferedImage scratch = SpriteLoader.createCompatible(1, 1);
+        Graphics2D measure = scratch.createGraphics();
+        FontMetrics metrics = measure.getFontMetrics(font);
+        measure.dispose();
+        ascent = metrics.getAscent();
+        int height = ascent + metrics.getDescent() + PAD * 2;
+
+        for (char c = ' '; c < 127; c++) {
+            advances[c] = metrics.charWidth(c);
+            BufferedImage glyph = SpriteLoader.createCompatible(advances[c] + PAD * 2, height);
+            Graphics2D g = glyph.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setFont(font);
+            g.setColor(color);
+            g.drawString(String.valueOf(c), PAD, PAD + ascent);
+            g.dispose();
+            glyphs[c] = glyph;
+        }
+    }
+
+    // Like g.drawString(text, x, y); returns the x just past the text
+    public int draw(Graphics2D g, String text, int x, int y) {
+        for (int i = 0; i < text.length(); i++) {
+            x = draw(g, text.charAt(i), x, y);
+        }
+        return x;
+    }
+
+    // A number in decimal, without building a String for it
+    public int draw(Graphics2D g, int value, int x, int y) {
+        if (value < 0) {
+            x = draw(g, '-', x, y);
+            value = -value;
+        }
+        int digits = 1;
+        while (digits < 1_000_000_000 && value / digits >= 10) {
+            digits *= 10;
+        }
+        for (; digits > 0; digits /= 10) {
+            x = draw(g, (char) ('0' + value / digits % 10), x, y);
+        }
+        return x;
+    }
+
+    private int draw(Graphics2D g, char c, int x, int y) {
+        if (c >= glyphs.length || glyphs[c] == null) c = '?';
+        if (c != ' ') {
+            g.drawImage(glyphs[c], x - PAD, y - ascent - PAD, null);
+        }
+        return x + advances[c];
+    }
+}
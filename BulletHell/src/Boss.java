@@ -1,8 +1,9 @@
-import java.awt.*;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 
 public class Boss {
     private int x, y;
+    private int prevX, prevY; // position at the start of the tick, for render interpolation
     private int maxHP;
     private int hp;
     private int shootCooldown = 0;
@@ -10,26 +11,33 @@ public class Boss {
     private int patternTimer = 0;
     private static final int PATTERN_DURATION = 120;
     private ArrayList<Beam> beams;
+    private final ArrayList<Beam> spareBeams = new ArrayList<>(); // for readState
     private int beamSpawnTimer = 0;
+    private BeamHazards hazards; // world beam registry, for the player hit test
+    private RandomStream random; // this boss's own stream, split from GameRandom
 
-    public Boss(int x, int y, int wave) {
+    public Boss(int x, int y, int wave, BeamHazards hazards, RandomStream random) {
         this.x = x;
         this.y = y;
+        this.prevX = x;
+        this.prevY = y;
         this.maxHP = 50 + (wave / 10) * 30;
         this.hp = maxHP;
         this.beams = new ArrayList<>();
+        this.hazards = hazards;
+        this.random = random;
     }
 
     public void update(int width, int height, int wave) {
         // Boss moves slowly
-        x += (Math.random() - 0.5) * 2;
+        x += (random.nextDouble() - 0.5) * 2;
         x = Math.max(50, Math.min(width - 50, x));
 
         patternTimer++;
         if (patternTimer >= PATTERN_DURATION) {
             patternTimer = 0;
             // Beam attacks are much more common (3 out of 5)
-            int choice = (int)(Math.random() * 5);
+            int choice = (int)(random.nextDouble() * 5);
             if (choice < 3) {
                 attackPattern = 3; // Beam attack
             } else {
@@ -49,19 +57,19 @@ public class Boss {
         }
     }
 
-    public void spawnProjectiles(ArrayList<EnemyProjectile> projectiles, int playerX, int playerY, int width, int height) {
+    public void spawnProjectiles(EnemyProjectiles projectiles, int playerX, int playerY, int width, int height) {
         // Handle beam spawning separately from cooldown - can happen during any pattern
         if (attackPattern == 3) {
             beamSpawnTimer++;
             if (beamSpawnTimer == 1) {
-                int numBeams = 2 + (int)(Math.random() * 5); // 2-6 beams
+                int numBeams = 2 + (int)(random.nextDouble() * 5); // 2-6 beams
                 if (hp < maxHP / 2) numBeams += 3;
                 if (hp < maxHP / 3) numBeams += 4;
                 for (int i = 0; i < numBeams; i++) {
-                    int beamX = 100 + (int)(Math.random() * (width - 200));
-                    int beamY = 100 + (int)(Math.random() * (height - 200));
-                    double randomAngle = Math.random() * Math.PI * 2;
-                    beams.add(new Beam(beamX, beamY, width, height, randomAngle));
+                    int beamX = 100 + (int)(random.nextDouble() * (width - 200));
+                    int beamY = 100 + (int)(random.nextDouble() * (height - 200));
+                    double randomAngle = random.nextDouble() * Math.PI * 2;
+                    addBeam(new Beam(beamX, beamY, width, height, randomAngle));
                 }
             }
 
@@ -70,7 +78,7 @@ public class Boss {
                 int columns = 5;
                 for (int c = 0; c < columns; c++) {
                     int bx = 50 + c * (width - 100) / (columns - 1);
-                    beams.add(new Beam(bx, -10, width, height, Math.PI / 2)); // downward beam from top
+                    addBeam(new Beam(bx, -10, width, height, Math.PI / 2)); // downward beam from top
                 }
             }
             
@@ -78,7 +86,7 @@ public class Boss {
             for (Beam beam : beams) {
                 if (beam.getState() == 2 && beam.getStateTimer() == 1) {
                     // Fire projectile at this location
-                    projectiles.add(new EnemyProjectile(beam.getX(), beam.getY(), 0, 8, new Color(255, 100, 100), 3));
+                    projectiles.spawn(beam.getX(), beam.getY(), 0, 8, EnemyProjectiles.LIGHT_RED, 3);
                 }
             }
             
@@ -93,31 +101,43 @@ public class Boss {
                 // Spiral attack
                 for (int i = 0; i < 8; i++) {
                     double angle = (i / 8.0) * Math.PI * 2 + (patternTimer / 30.0);
-                    projectiles.add(new EnemyProjectile(x, y, angle, 5, Color.RED));
+                    projectiles.spawn(x, y, angle, 5, EnemyProjectiles.RED);
                 }
             } else if (attackPattern == 1) {
                 // Aimed burst
                 double angle = Math.atan2(playerY - y, playerX - x);
                 for (int i = -2; i <= 2; i++) {
-                    projectiles.add(new EnemyProjectile(x, y, angle + (i * 0.2), 5, Color.RED));
+                    projectiles.spawn(x, y, angle + (i * 0.2), 5, EnemyProjectiles.RED);
                 }
             } else if (attackPattern == 2) {
                 // Random spread
                 for (int i = 0; i < 6; i++) {
-                    double angle = Math.random() * Math.PI * 2;
-                    projectiles.add(new EnemyProjectile(x, y, angle, 5, Color.RED));
+                    double angle = random.nextDouble() * Math.PI * 2;
+                    projectiles.spawn(x, y, angle, 5, EnemyProjectiles.RED);
                 }
             } else if (attackPattern == 3) {
                 // Beam attack - also fire regular projectiles for variety
                 for (int i = 0; i < 4; i++) {
                     double angle = (i / 4.0) * Math.PI * 2;
-                    projectiles.add(new EnemyProjectile(x, y, angle, 3, Color.RED));
+                    projectiles.spawn(x, y, angle, 3, EnemyProjectiles.RED);
                 }
             }
             shootCooldown = 20;
         }
     }
 
+    private void addBeam(Beam beam) {
+        beams.add(beam);
+        hazards.register(beam);
+    }
+
+    // Takes every beam out of the hazard checks, e.g. once the fight is over
+    public void retireBeams() {
+        for (Beam beam : beams) {
+            beam.retire();
+        }
+    }
+
     public void takeDamage(int damage) {
         hp -= damage;
     }
@@ -134,22 +154,59 @@ public class Boss {
         return (double) hp / maxHP;
     }
 
-    public void draw(Graphics2D g) {
-        var sprite = SpriteLoader.getSprite("boss");
-        if (sprite != null) {
-            g.drawImage(sprite, x - 60, y - 60, 120, 120, null);
+    public ArrayList<Beam> getBeams() {
+        return beams;
+    }
+
+    // Re-adds the live beams after a keyframe load rebuilt the registry
+    public void registerBeams() {
+        for (int i = 0; i < beams.size(); i++) {
+            Beam b = beams.get(i);
+            if (!b.isRetired()) hazards.register(b);
         }
+    }
 
-        // Draw beams
-        for (Beam beam : beams) {
-            beam.draw(g);
+    // Binary state for replay keyframes
+    public void writeState(ByteBuffer out) {
+        out.putInt(x);
+        out.putInt(y);
+        out.putInt(prevX);
+        out.putInt(prevY);
+        out.putInt(maxHP);
+        out.putInt(hp);
+        out.putInt(shootCooldown);
+        out.putInt(attackPattern);
+        out.putInt(patternTimer);
+        out.putInt(beams.size());
+        for (Beam b : beams) {
+            b.writeState(out);
         }
+        out.putInt(beamSpawnTimer);
+        random.writeState(out);
     }
 
-    public ArrayList<Beam> getBeams() {
-        return beams;
+    public void readState(ByteBuffer in) {
+        x = in.getInt();
+        y = in.getInt();
+        prevX = in.getInt();
+        prevY = in.getInt();
+        maxHP = in.getInt();
+        hp = in.getInt();
+        shootCooldown = in.getInt();
+        attackPattern = in.getInt();
+        patternTimer = in.getInt();
+        StateIO.getList(in, beams, spareBeams, Beam::blank, Beam::readState);
+        beamSpawnTimer = in.getInt();
+        random.readState(in);
+    }
+
+    public void storePreviousPosition() {
+        prevX = x;
+        prevY = y;
     }
 
     public int getX() { return x; }
     public int getY() { return y; }
+    public int getPrevX() { return prevX; }
+    public int getPrevY() { return prevY; }
 }
@@ -0,0 +1,66 @@
+// Swept hit tests for things that can move further in one tick than their
+// hitboxes are wide. Boxes are open, matching the |x - px| < half checks used
+// by the collidesWith methods.
+public class Collision {
+
+    // A point and a box both move from their previous to their current position
+    // during the tick. Small relative motion falls back to the plain end-of-tick
+    // point test; anything moving more than half a hitbox is swept as a segment.
+    public static boolean sweptPointInBox(int px0, int py0, int px1, int py1,
+                                          int bx0, int by0, int bx1, int by1,
+                                          int halfWidth, int halfHeight) {
+        // Work in the box's frame so only the point moves
+        int rx0 = px0 - bx0;
+        int ry0 = py0 - by0;
+        int rx1 = px1 - bx1;
+        int ry1 = py1 - by1;
+        if (Math.abs(rx1 - rx0) <= halfWidth && Math.abs(ry1 - ry0) <= halfHeight) {
+            return Math.abs(rx1) < halfWidth && Math.abs(ry1) < halfHeight;
+        }
+        return segmentHitsBox(rx0, ry0, rx1, ry1, halfWidth, halfHeight);
+    }
+
+    // Does the segment (x0, y0)-(x1, y1) pass through the open box centred on the origin?
+    public static boolean segmentHitsBox(double x0, double y0, double x1, double y1,
+                                         double halfWidth, double halfHeight) {
+        double tEnter = Double.NEGATIVE_INFINITY;
+        double tExit = Double.POSITIVE_INFINITY;
+
+        // Slab test, one axis at a time
+        double dx = x1 - x0;
+        if (dx == 0) {
+            if (Math.abs(x0) >= halfWidth) return false;
+        } else {
+            double t1 = (-halfWidth - x0) / dx;
+            double t2 = (halfWidth - x0) / dx;
+            tEnter = Math.max(tEnter, Math.min(t1, t2));
+            tExit = Math.min(tExit, Math.max(t1, t2));
+        }
+
+        double dy = y1 - y0;
+        if (dy == 0) {
+            if (Math.abs(y0) >= halfHeight) return false;
+        } else {
+            double t1 = (-halfHeight - y0) / dy;
+            double t2 = (halfHeight - y0) / dy;
+            tEnter = Math.max(tEnter, Math.min(t1, t2));
+            tExit = Math.min(tExit, Math.max(t1, t2));
+        }
+
+        // The open interval (tEnter, tExit) has to overlap the segment's [0, 1]
+        return tEnter < tExit && tEnter < 1 && tExit > 0;
+    }
+
+    // Closed box in a rotated frame at (ox, oy): the point is rotated by -angle
+    // (given as its cos/sin) and must land in [minX, maxX] x [-halfHeight, halfHeight]
+    // while staying further than minRadius from the origin.
+    public static boolean pointInOrientedBox(int px, int py, int ox, int oy, double cos, double sin,
+                                             int minX, int maxX, int halfHeight, int minRadius) {
+        double dx = px - ox;
+        double dy = py - oy;
+        double localX = cos * dx + sin * dy;
+        double localY = -sin * dx + cos * dy;
+        if (localX < minX || localX > maxX || localY < -halfHeight || localY > halfHeight) return false;
+        return localX * localX + localY * localY > (double) minRadius * minRadius;
+    }
+}
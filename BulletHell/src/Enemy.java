@@ -1,38 +1,43 @@
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
 
-public class Enemy {
-    protected int x, y;
-    protected int hp = 1;
+public class Enemy extends Entity {
     protected int shootCooldown;
     protected int verticalDirection;
     protected static final int MOVE_SPEED = 1;
 
-    public Enemy(int x, int y) {
-        this.x = x;
-        this.y = y;
-        this.shootCooldown = 20 + (int)(Math.random() * 30);
-        this.verticalDirection = Math.random() < 0.5 ? -1 : 1;
+    public Enemy(int x, int y, RandomStream random) {
+        super(Archetype.ENEMY, x, y, 1, random);
+        this.shootCooldown = 20 + (int)(random.nextDouble() * 30);
+        this.verticalDirection = random.nextDouble() < 0.5 ? -1 : 1;
     }
 
-    public static Enemy spawnRandom(int width, int height, int wave) {
+    public static Enemy spawnRandom(int width, int height, int wave, GameRandom rng) {
+        RandomStream spawn = rng.spawn();
         int[] edges = {0, 1, 2, 3};
-        int edge = edges[(int)(Math.random() * 4)];
+        int edge = edges[(int)(spawn.nextDouble() * 4)];
         int x, y;
 
         switch (edge) {
-            case 0: x = (int)(Math.random() * width); y = -20; break;
-            case 1: x = (int)(Math.random() * width); y = height + 20; break;
-            case 2: x = 50 + (int)(Math.random() * 100); y = (int)(Math.random() * height); break;
-            default: x = width - 50 - (int)(Math.random() * 100); y = (int)(Math.random() * height); break;
+            case 0: x = (int)(spawn.nextDouble() * width); y = -20; break;
+            case 1: x = (int)(spawn.nextDouble() * width); y = height + 20; break;
+            case 2: x = 50 + (int)(spawn.nextDouble() * 100); y = (int)(spawn.nextDouble() * height); break;
+            default: x = width - 50 - (int)(spawn.nextDouble() * 100); y = (int)(spawn.nextDouble() * height); break;
         }
 
-        Enemy enemy = new Enemy(x, y);
-        if (wave > 2 && Math.random() < 0.3) {
+        Enemy enemy = new Enemy(x, y, rng.splitAi());
+        if (wave > 2 && spawn.nextDouble() < 0.3) {
             enemy.hp = 2;
         }
         return enemy;
     }
 
+    @Override
+    public void update(GameWorld world, EnemyProjectiles projectiles, BeamHazards hazards) {
+        Player player = world.getPlayer();
+        update(world.getWidth(), world.getHeight(), world.getWaveNumber(), player.hasSlowField());
+        spawnProjectiles(projectiles, player.getX(), player.getY(), world.getWaveNumber());
+    }
+
     public void update(int width, int height, int wave, boolean isSlowed) {
         // Move up and down (slower if affected by slow field)
         int moveAmount = isSlowed ? 0 : MOVE_SPEED;
@@ -49,26 +54,23 @@ public class Enemy {
         update(width, height, wave, false);
     }
 
-    public void spawnProjectiles(ArrayList<EnemyProjectile> projectiles, int playerX, int playerY, int wave) {
+    public void spawnProjectiles(EnemyProjectiles projectiles, int playerX, int playerY, int wave) {
         if (shootCooldown <= 0) {
             double angle = Math.atan2(playerY - y, playerX - x);
-            projectiles.add(new EnemyProjectile(x, y, angle));
-            shootCooldown = 20 + (int)(Math.random() * 30);
+            projectiles.spawn(x, y, angle);
+            shootCooldown = 20 + (int)(random.nextDouble() * 30);
         }
     }
 
-    public void takeDamage(int damage) {
-        hp -= damage;
+    @Override
+    protected void writeFields(ByteBuffer out) {
+        out.putInt(shootCooldown);
+        out.putInt(verticalDirection);
     }
 
-    public boolean isDead() {
-        return hp <= 0;
+    @Override
+    protected void readFields(ByteBuffer in) {
+        shootCooldown = in.getInt();
+        verticalDirection = in.getInt();
     }
-
-    public boolean collidesWith(int px, int py) {
-        return Math.abs(x - px) < 18 && Math.abs(y - py) < 18;
-    }
-
-    public int getX() { return x; }
-    public int getY() { return y; }
 }
@@ -0,0 +1,193 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Every enemy bullet in the world, stored as parallel arrays instead of one
+// object per bullet. Spawning reuses slots, removal swaps the last bullet into
+// the hole, and the arrays only grow when a new high-water mark is reached.
+public class EnemyProjectiles {
+    // Style indices; COLORS holds the 0xRRGGBB tint for each one
+    public static final byte YELLOW = 0;
+    public static final byte RED = 1;
+    public static final byte LIGHT_RED = 2;
+    public static final byte MAGENTA = 3;
+    public static final byte PURPLE = 4;
+    public static final byte CYAN = 5;
+    public static final byte GREEN = 6;
+    public static final byte DARK_GREEN = 7;
+    public static final int[] COLORS = {
+        0xFFFF00, 0xFF0000, 0xFF6464, 0xFF00FF, 0xC832C8, 0x00FFFF, 0x00DC00, 0x00C800
+    };
+
+    private static final int SPEED = 4;
+    private static final int INITIAL_CAPACITY = 512;
+
+    private float[] x, y;
+    private float[] prevX, prevY; // position at the start of the tick, for render interpolation
+    private float[] vx, vy;
+    private byte[] size;
+    private byte[] style;
+    private short[] damage;
+    private int count = 0;
+
+    public EnemyProjectiles() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        prevX = new float[capacity];
+        prevY = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        size = new byte[capacity];
+        style = new byte[capacity];
+        damage = new short[capacity];
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        size = Arrays.copyOf(size, capacity);
+        style = Arrays.copyOf(style, capacity);
+        damage = Arrays.copyOf(damage, capacity);
+    }
+
+    public void spawn(int x, int y, double angle) {
+        spawn(x, y, angle, 4, YELLOW, 1);
+    }
+
+    public void spawn(int x, int y, double angle, int size, byte style) {
+        spawn(x, y, angle, size, style, 1);
+    }
+
+    public void spawn(int x, int y, double angle, int size, byte style, int damage) {
+        if (count == this.x.length) {
+            grow();
+        }
+        int i = count++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.prevX[i] = x;
+        this.prevY[i] = y;
+        this.vx[i] = (float) (Math.cos(angle) * SPEED);
+        this.vy[i] = (float) (Math.sin(angle) * SPEED);
+        this.size[i] = (byte) size;
+        this.style[i] = style;
+        this.damage[i] = (short) damage;
+    }
+
+    public void update() {
+        // Positions stay on whole pixels, as they did when each bullet kept int coordinates
+        for (int i = 0; i < count; i++) {
+            x[i] = (int) (x[i] + vx[i]);
+            y[i] = (int) (y[i] + vy[i]);
+        }
+    }
+
+    public boolean isOutOfBounds(int i, int width, int height) {
+        return x[i] < -10 || x[i] > width + 10 || y[i] < -10 || y[i] > height + 10;
+    }
+
+    // Swap-remove: the last bullet takes slot i, so iterate from the end when removing
+    public void remove(int i) {
+        int last = --count;
+        x[i] = x[last];
+        y[i] = y[last];
+        prevX[i] = prevX[last];
+        prevY[i] = prevY[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        size[i] = size[last];
+        style[i] = style[last];
+        damage[i] = damage[last];
+    }
+
+    // Appends a copy of bullet i of another pool, exactly as it is there
+    public void add(EnemyProjectiles from, int i) {
+        if (count == x.length) {
+            grow();
+        }
+        int j = count++;
+        x[j] = from.x[i];
+        y[j] = from.y[i];
+        prevX[j] = from.prevX[i];
+        prevY[j] = from.prevY[i];
+        vx[j] = from.vx[i];
+        vy[j] = from.vy[i];
+        size[j] = from.size[i];
+        style[j] = from.style[i];
+        damage[j] = from.damage[i];
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public void storePreviousPositions() {
+        System.arraycopy(x, 0, prevX, 0, count);
+        System.arraycopy(y, 0, prevY, 0, count);
+    }
+
+    // Binary state for replay keyframes, written as bulk array copies
+    public void writeState(ByteBuffer out) {
+        out.putInt(count);
+        putFloats(out, x);
+        putFloats(out, y);
+        putFloats(out, prevX);
+        putFloats(out, prevY);
+        putFloats(out, vx);
+        putFloats(out, vy);
+        out.put(size, 0, count);
+        out.put(style, 0, count);
+        for (int i = 0; i < count; i++) {
+            out.putShort(damage[i]);
+        }
+    }
+
+    public void readState(ByteBuffer in) {
+        count = 0;
+        int saved = in.getInt();
+        while (x.length < saved) grow();
+        count = saved;
+        getFloats(in, x);
+        getFloats(in, y);
+        getFloats(in, prevX);
+        getFloats(in, prevY);
+        getFloats(in, vx);
+        getFloats(in, vy);
+        in.get(size, 0, count);
+        in.get(style, 0, count);
+        for (int i = 0; i < count; i++) {
+            damage[i] = in.getShort();
+        }
+    }
+
+    // Element by element: a FloatBuffer view would be an allocation per array
+    private void putFloats(ByteBuffer out, float[] values) {
+        for (int i = 0; i < count; i++) {
+            out.putFloat(values[i]);
+        }
+    }
+
+    private void getFloats(ByteBuffer in, float[] values) {
+        for (int i = 0; i < count; i++) {
+            values[i] = in.getFloat();
+        }
+    }
+
+    public int size() { return count; }
+    public int getX(int i) { return (int) x[i]; }
+    public int getY(int i) { return (int) y[i]; }
+    public int getPrevX(int i) { return (int) prevX[i]; }
+    public int getPrevY(int i) { return (int) prevY[i]; }
+    public int getSize(int i) { return size[i]; }
+    public byte getStyle(int i) { return style[i]; }
+    public int getColor(int i) { return COLORS[style[i]]; }
+    public int getDamage(int i) { return damage[i]; }
+}
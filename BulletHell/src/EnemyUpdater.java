@@ -0,0 +1,90 @@
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+
+// Runs Entity.update for every enemy in the store across the common
+// ForkJoinPool, for GameWorld's parallel enemy phase. Enemies only read the
+// world while they update, apart from the shots and beams they fire, so the
+// store is cut into fixed runs of CHUNK enemies and each run fires into its
+// own buffers. GameWorld then takes each enemy's output with collect, in
+// store order, right where the serial loop would have updated it, which
+// leaves the world bit for bit as the serial loop does. The runs don't depend
+// on how many threads there are or which one took which run.
+public class EnemyUpdater {
+    private static final int CHUNK = 32; // enemies per task; a tick of one is a few microseconds
+
+    private Chunk[] chunks = new Chunk[0];
+    private int chunkCount = 0;
+
+    // Updates every enemy that moves this tick (idle ones sit out boss fights),
+    // returning once all of them are done
+    public void update(GameWorld world, EntityStore entities, boolean bossFight) {
+        chunkCount = (entities.size() + CHUNK - 1) / CHUNK;
+        if (chunkCount > chunks.length) {
+            int old = chunks.length;
+            chunks = Arrays.copyOf(chunks, chunkCount);
+            for (int c = old; c < chunkCount; c++) {
+                chunks[c] = new Chunk();
+            }
+        }
+        for (int c = 0; c < chunkCount; c++) {
+            Chunk chunk = chunks[c];
+            chunk.reinitialize();
+            chunk.world = world;
+            chunk.entities = entities;
+            chunk.bossFight = bossFight;
+            chunk.start = c * CHUNK;
+            chunk.end = Math.min(entities.size(), chunk.start + CHUNK);
+        }
+
+        // The caller takes the first run itself instead of sitting idle
+        for (int c = 1; c < chunkCount; c++) {
+            chunks[c].fork();
+        }
+        if (chunkCount > 0) {
+            chunks[0].invoke();
+        }
+        for (int c = 1; c < chunkCount; c++) {
+            chunks[c].join();
+        }
+    }
+
+    // Hands the shots and beams enemy i fired in update to the world's own
+    // pools, in the order it fired them
+    public void collect(int i, EnemyProjectiles projectiles, BeamHazards hazards) {
+        Chunk chunk = chunks[i / CHUNK];
+        int k = i % CHUNK;
+        for (int j = k == 0 ? 0 : chunk.shotEnds[k - 1]; j < chunk.shotEnds[k]; j++) {
+            projectiles.add(chunk.shots, j);
+        }
+        for (int j = k == 0 ? 0 : chunk.beamEnds[k - 1]; j < chunk.beamEnds[k]; j++) {
+            hazards.register(chunk.beams.get(j));
+        }
+    }
+
+    private static class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        GameWorld world;
+        EntityStore entities;
+        boolean bossFight;
+        int start, end;
+        final EnemyProjectiles shots = new EnemyProjectiles();
+        final BeamHazards beams = new BeamHazards();
+        final int[] shotEnds = new int[CHUNK]; // buffer size after each enemy, by index within the run
+        final int[] beamEnds = new int[CHUNK];
+
+        @Override
+        protected void compute() {
+            shots.clear();
+            beams.clear();
+            for (int i = start; i < end; i++) {
+                Entity enemy = entities.get(i);
+                if (!bossFight || !enemy.getArchetype().isIdleDuringBossFight()) {
+                    enemy.update(world, shots, beams);
+                }
+                shotEnds[i - start] = shots.size();
+                beamEnds[i - start] = beams.size();
+            }
+        }
+    }
+}
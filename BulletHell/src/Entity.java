@@ -0,0 +1,97 @@
+import java.nio.ByteBuffer;
+
+// Components shared by every enemy in the EntityStore: position, HP and a
+// square hitbox sized by its Archetype. Behaviour lives in the subclasses.
+public abstract class Entity {
+    protected int x, y;
+    protected int prevX, prevY; // position at the start of the tick, for render interpolation and swept hits
+    protected int hp;
+    private final Archetype archetype;
+    protected final RandomStream random; // this enemy's own stream, split from GameRandom
+
+    protected Entity(Archetype archetype, int x, int y, int hp, RandomStream random) {
+        this.archetype = archetype;
+        this.random = random;
+        this.x = x;
+        this.y = y;
+        this.prevX = x;
+        this.prevY = y;
+        this.hp = hp;
+    }
+
+    // One tick of movement and AI. The shots and beams it fires go into
+    // projectiles and hazards: the world's own, or a buffer of EnemyUpdater's
+    // when enemies update in parallel. Only reads the rest of the world.
+    public abstract void update(GameWorld world, EnemyProjectiles projectiles, BeamHazards hazards);
+
+    public void takeDamage(int damage) {
+        hp -= damage;
+    }
+
+    public boolean isDead() {
+        return hp <= 0;
+    }
+
+    public boolean collidesWith(int px, int py) {
+        int size = archetype.getHitboxSize();
+        return Math.abs(x - px) < size && Math.abs(y - py) < size;
+    }
+
+    // Hit test for a point that moved from (px0, py0) to (px1, py1) this tick,
+    // following this enemy from its previous position as well
+    public boolean sweptCollidesWith(int px0, int py0, int px1, int py1) {
+        int size = archetype.getHitboxSize();
+        return Collision.sweptPointInBox(px0, py0, px1, py1, prevX, prevY, x, y, size, size);
+    }
+
+    // Drops any beams this enemy registered with BeamHazards; called when it leaves the store
+    public void retireHazards() {
+    }
+
+    // Re-adds this enemy's live beams after a keyframe load rebuilt the registry
+    public void registerHazards(BeamHazards hazards) {
+    }
+
+    // Number of revives requested since the last call
+    public int collectReviveRequests() {
+        return 0;
+    }
+
+    public void storePreviousPosition() {
+        prevX = x;
+        prevY = y;
+    }
+
+    // Binary state for replay keyframes; the archetype is written by EntityStore
+    public void writeState(ByteBuffer out) {
+        out.putInt(x);
+        out.putInt(y);
+        out.putInt(prevX);
+        out.putInt(prevY);
+        out.putInt(hp);
+        random.writeState(out);
+        writeFields(out);
+    }
+
+    public void readState(ByteBuffer in) {
+        x = in.getInt();
+        y = in.getInt();
+        prevX = in.getInt();
+        prevY = in.getInt();
+        hp = in.getInt();
+        random.readState(in);
+        readFields(in);
+    }
+
+    // Everything the subclass keeps on top of the shared components
+    protected abstract void writeFields(ByteBuffer out);
+
+    protected abstract void readFields(ByteBuffer in);
+
+    public Archetype getArchetype() { return archetype; }
+    public int getX() { return x; }
+    public int getY() { return y; }
+    public int getPrevX() { return prevX; }
+    public int getPrevY() { return prevY; }
+    public int getHP() { return hp; }
+}
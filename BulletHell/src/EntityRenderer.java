@@ -0,0 +1,469 @@
+import java.awt.*;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+
+// Java2D drawing for the simulation entities. The entity classes themselves stay
+// free of AWT so GameWorld can run headless; everything visual lives here.
+// Nothing here allocates per frame. Colours and strokes are constants and fading
+// effects pick theirs from Palette ramps. Circles are OvalSprites and anything
+// that turns is a RotatedSprite, so the Graphics transform is never rotated;
+// beams are drawn as wide lines instead of rotated rectangles. Sprites and
+// rotated frames are drawn from the SpriteAtlas.
+public class EntityRenderer {
+    private static final int PURPLE_BOSS_SHIELD_SIZE = 120;
+
+    private static final RotatedSprite GREEN_TRIANGLE =
+            new RotatedSprite(() -> SpriteLoader.getSprite("green_triangle_enemy", 40, 40));
+    private static final RotatedSprite PURPLE_TRIANGLE =
+            new RotatedSprite(() -> SpriteLoader.getSprite("purple_triangle", 40, 40));
+    private static final RotatedSprite RED_TRIANGLE =
+            new RotatedSprite(() -> redTriangle(new Color(200, 40, 40), new Color(120, 20, 20)));
+    private static final RotatedSprite RED_TRIANGLE_DASH =
+            new RotatedSprite(() -> redTriangle(new Color(220, 60, 60), new Color(140, 30, 30)));
+    // 128 frames ~150px across would take most of the atlas; it's one draw a frame anyway
+    private static final RotatedSprite PURPLE_BOSS_BODY = new RotatedSprite(EntityRenderer::purpleBossBody, false);
+
+    private static final OvalSprite RED_WARNING = OvalSprite.filled(new Color(1f, 0.3f, 0.3f));
+    private static final OvalSprite RED_VANISH = OvalSprite.filled(new Color(1f, 0.2f, 0.2f));
+    private static final OvalSprite RED_VANISH_EDGE = OvalSprite.outlined(new Color(0.6f, 0.1f, 0.1f), Palette.STROKE_2);
+    private static final OvalSprite PURPLE_CIRCLE = OvalSprite.filled(new Color(128, 0, 128));
+    private static final OvalSprite PURPLE_CIRCLE_EDGE = OvalSprite.outlined(Color.MAGENTA, Palette.STROKE_2);
+    private static final OvalSprite BEAM_MARKER = OvalSprite.filled(new Color(1f, 0.4f, 1f));
+    private static final OvalSprite BEAM_MARKER_EDGE = OvalSprite.outlined(Color.MAGENTA, Palette.STROKE_1);
+    private static final OvalSprite GREEN_CIRCLE = OvalSprite.filled(new Color(60, 180, 80));
+    private static final OvalSprite GREEN_CIRCLE_EDGE = OvalSprite.outlined(new Color(160, 255, 160), Palette.STROKE_2);
+    private static final OvalSprite REVIVE_WARNING = OvalSprite.filled(Color.GREEN);
+    private static final OvalSprite REVIVE_WARNING_EDGE = OvalSprite.outlined(Color.GREEN, Palette.STROKE_2);
+    private static final OvalSprite PURPLE_BOSS_TRAIL = OvalSprite.filled(Color.MAGENTA);
+    private static final OvalSprite SHIELD = OvalSprite.filled(new Color(0f, 0.6f, 1f, 0.4f));
+    private static final OvalSprite SHIELD_EDGE = OvalSprite.outlined(new Color(0f, 0.8f, 1f, 0.7f), Palette.STROKE_3);
+    private static final OvalSprite DASH_HIGHLIGHT = OvalSprite.filled(Color.YELLOW);
+    private static final OvalSprite DASH_FINISH = OvalSprite.filled(new Color(1f, 0.9f, 0.4f));
+    private static final OvalSprite DASH_FINISH_EDGE = OvalSprite.outlined(new Color(1f, 0.9f, 0.4f), Palette.STROKE_3);
+    private static final OvalSprite ROTATING_BEAM_CUE = OvalSprite.filled(Color.MAGENTA);
+    private static final OvalSprite ROTATING_BEAM_CUE_EDGE = OvalSprite.outlined(Color.MAGENTA, Palette.STROKE_3);
+    private static final OvalSprite WALL_HIT = OvalSprite.filled(new Color(0.4f, 0.9f, 1f));
+    private static final OvalSprite BEAM_WARNING = OvalSprite.filled(new Color(255, 255, 0, 200));
+    private static final OvalSprite BEAM_WARNING_EDGE = OvalSprite.outlined(Color.YELLOW, Palette.STROKE_2);
+
+    private static final Color[] PURPLE_TRAIL = Palette.ramp(180, 100, 200);
+    private static final Color[] RED_TRAIL = Palette.ramp(1f, 0.2f, 0.2f);
+    private static final Color[] WHITE = Palette.ramp(255, 255, 255);
+    private static final Color BEAM_WARNING_AREA = new Color(255, 255, 100, 100); // semi-transparent yellow rectangle
+    private static final Color BEAM_WARNING_BORDER = new Color(255, 255, 0, 150);
+    private static final Color ROTATING_BEAM_GLOW = new Color(1f, 1f, 0.6f, 0.6f);
+    private static final Color ROTATING_BEAM_CORE = new Color(1f, 1f, 0.2f, 1f);
+
+    private static final Line2D.Double LINE = new Line2D.Double(); // reused by every beam; drawing is single-threaded
+
+    // Makes the rotated frames that go in the SpriteAtlas; SpriteLoader calls
+    // this while sprites load, before packing it
+    static void makeSprites() {
+        GREEN_TRIANGLE.makeFrames();
+        PURPLE_TRIANGLE.makeFrames();
+        RED_TRIANGLE.makeFrames();
+        RED_TRIANGLE_DASH.makeFrames();
+    }
+
+    public static void draw(Graphics2D g, Entity entity) {
+        switch (entity.getArchetype()) {
+            case ENEMY: draw(g, (Enemy) entity); break;
+            case TRIANGLE: draw(g, (TriangleEnemy) entity); break;
+            case GREEN_TRIANGLE: draw(g, (GreenTriangleEnemy) entity); break;
+            case PURPLE_TRIANGLE: draw(g, (PurpleTriangleEnemy) entity); break;
+            case RED_TRIANGLE: draw(g, (RedTriangleEnemy) entity); break;
+            case PURPLE_CIRCLE: draw(g, (PurpleCircleEnemy) entity); break;
+            case GREEN_CIRCLE: draw(g, (GreenCircleEnemy) entity); break;
+        }
+    }
+
+    public static void draw(Graphics2D g, Enemy enemy) {
+        var sprite = SpriteLoader.getRegion("enemy", 40, 40);
+        if (sprite != null) {
+            sprite.draw(g, enemy.getX() - 20, enemy.getY() - 20);
+        }
+    }
+
+    public static void draw(Graphics2D g, TriangleEnemy enemy) {
+        var sprite = SpriteLoader.getRegion("triangle_enemy", 40, 40);
+        if (sprite != null) {
+            sprite.draw(g, enemy.getX() - 20, enemy.getY() - 20);
+        }
+    }
+
+    public static void draw(Graphics2D g, GreenTriangleEnemy enemy) {
+        ArrayList<int[]> trailPositions = enemy.getTrailPositions();
+
+        // Draw trail during dashing, turned the way it's moving
+        if (enemy.getState() == 1) {
+            double trailRotation = enemy.getDashAngle() + Math.PI / 2;
+            for (int i = 0; i < trailPositions.size(); i++) {
+                int[] pos = trailPositions.get(i);
+                float alpha = (float) i / trailPositions.size();
+                g.setComposite(Palette.composite(alpha * 0.5f));
+                GREEN_TRIANGLE.draw(g, pos[0], pos[1], trailRotation);
+            }
+            g.setComposite(AlphaComposite.SrcOver);
+        }
+
+        // Draw sprite with rotation
+        double rotationAngle;
+        if (enemy.getState() == 0) {
+            rotationAngle = enemy.getSpinAngle();
+        } else {
+            // Add π/2 because sprite point faces up, but dashAngle is measured from right
+            rotationAngle = enemy.getDashAngle() + Math.PI / 2;
+        }
+        GREEN_TRIANGLE.draw(g, enemy.getX(), enemy.getY(), rotationAngle);
+    }
+
+    public static void draw(Graphics2D g, PurpleTriangleEnemy enemy) {
+        ArrayList<int[]> trailPositions = enemy.getTrailPositions();
+
+        // Draw trail
+        for (int i = 0; i < trailPositions.size(); i++) {
+            int[] pos = trailPositions.get(i);
+            float alpha = (float) i / trailPositions.size();
+            g.setColor(PURPLE_TRAIL[(int)(alpha * 100)]);
+            g.fillRect(pos[0] - 5, pos[1] - 5, 10, 10);
+        }
+
+        // Draw sprite with rotation (same size as green triangles)
+        double rotationAngle;
+        if (enemy.getState() == 0) {
+            rotationAngle = enemy.getSpinAngle();
+        } else {
+            // Add π/2 because sprite point faces up, but dashAngle is measured from right
+            rotationAngle = enemy.getDashAngle() + Math.PI / 2;
+        }
+        PURPLE_TRIANGLE.draw(g, enemy.getX(), enemy.getY(), rotationAngle);
+    }
+
+    public static void draw(Graphics2D g, RedTriangleEnemy enemy) {
+        int state = enemy.getState();
+        int vanishCircleX = enemy.getVanishCircleX();
+        int vanishCircleY = enemy.getVanishCircleY();
+
+        if (state == 0) {
+            // spinning red triangle
+            RED_TRIANGLE.draw(g, enemy.getX(), enemy.getY(), enemy.getSpinAngle());
+        } else if (state == 1) {
+            // draw nothing at original spot; draw warning at respawn
+            int vanishTimer = enemy.getVanishTimer();
+            float alpha = (float)(vanishTimer) / enemy.getVanishDuration();
+            int size = 20 + (int)(alpha * 30);
+            RED_WARNING.draw(g, enemy.getRespawnX() - size/2, enemy.getRespawnY() - size/2, size, Math.min(0.9f, alpha));
+            // draw a short vanish-circle at the original vanish location
+            if (vanishTimer <= enemy.getVanishCircleDuration()) {
+                float vprog = (float)vanishTimer / (float)Math.max(1, enemy.getVanishCircleDuration());
+                float valpha = Math.max(0f, 1f - vprog);
+                int vr = 12 + (int)(vprog * 36);
+                RED_VANISH.draw(g, vanishCircleX - vr/2, vanishCircleY - vr/2, vr, valpha * 0.9f);
+                RED_VANISH_EDGE.draw(g, vanishCircleX - vr/2, vanishCircleY - vr/2, vr, valpha);
+            }
+        } else if (state == 3) {
+            // draw death vanish circle at last position
+            int deathCircleDuration = enemy.getDeathCircleDuration();
+            int v = (deathCircleDuration - enemy.getDeathTimer());
+            float vprog = (float)v / (float)Math.max(1, deathCircleDuration);
+            float valpha = Math.max(0f, 1f - vprog);
+            int vr = 12 + (int)(vprog * 36);
+            RED_VANISH.draw(g, vanishCircleX - vr/2, vanishCircleY - vr/2, vr, valpha * 0.95f);
+            RED_VANISH_EDGE.draw(g, vanishCircleX - vr/2, vanishCircleY - vr/2, vr, valpha);
+        } else if (state == 2) {
+            // draw trail
+            ArrayList<int[]> trailPositions = enemy.getTrailPositions();
+            for (int i = 0; i < trailPositions.size(); i++) {
+                int[] pos = trailPositions.get(i);
+                float a = (float)i / trailPositions.size();
+                g.setColor(Palette.alpha(RED_TRAIL, a));
+                int s = 12 - (i * 10 / Math.max(1, trailPositions.size()));
+                g.fillRect(pos[0] - s/2, pos[1] - s/2, s, s);
+            }
+            // draw using rounded pos for smoother rotation when dashing
+            double rotation = enemy.getDashAngle() + Math.PI/2;
+            RED_TRIANGLE_DASH.draw(g, (int)Math.round(enemy.getPosX()), (int)Math.round(enemy.getPosY()), rotation);
+        }
+    }
+
+    public static void draw(Graphics2D g, PurpleCircleEnemy enemy) {
+        int x = enemy.getX();
+        int y = enemy.getY();
+
+        // Draw beams first (behind the enemy)
+        ArrayList<Beam> beams = enemy.getBeams();
+        for (int i = 0; i < beams.size(); i++) {
+            draw(g, beams.get(i));
+        }
+
+        // Draw purple circle
+        PURPLE_CIRCLE.draw(g, x - 25, y - 25, 50);
+        PURPLE_CIRCLE_EDGE.draw(g, x - 25, y - 25, 50);
+
+        // Draw beam warnings during spinning/slow phases (enhanced visuals)
+        if (enemy.getRotationState() < 2) {
+            ArrayList<int[]> beamPositions = enemy.getBeamPositions();
+            float alpha = 0.5f + (float)Math.abs(Math.sin(enemy.getRotationTimer() * 0.05)) * 0.4f;
+            for (int idx = 0; idx < beamPositions.size(); idx++) {
+                int[] pos = beamPositions.get(idx);
+                int size = 12 + (idx % 2) * 6;
+                BEAM_MARKER.draw(g, pos[0] - size/2, pos[1] - size/2, size, Math.min(0.9f, alpha));
+                BEAM_MARKER_EDGE.draw(g, pos[0] - size/2, pos[1] - size/2, size, Math.min(0.95f, alpha + 0.1f));
+            }
+        }
+    }
+
+    public static void draw(Graphics2D g, GreenCircleEnemy enemy) {
+        int x = enemy.getX();
+        int y = enemy.getY();
+
+        // Draw green circle
+        GREEN_CIRCLE.draw(g, x - 22, y - 22, 44);
+        GREEN_CIRCLE_EDGE.draw(g, x - 22, y - 22, 44);
+
+        // Revive warning pulsing ring
+        int reviveInterval = enemy.getReviveInterval();
+        int warningDuration = enemy.getWarningDuration();
+        if (enemy.getReviveTimer() >= reviveInterval - warningDuration) {
+            float t = (float)(reviveInterval - enemy.getReviveTimer()) / (float)warningDuration;
+            float prog = 1f - Math.max(0f, Math.min(1f, t));
+            int size = 60 + (int)(prog * 40);
+            float alpha = 0.6f * prog;
+            REVIVE_WARNING.draw(g, x - size/2, y - size/2, size, alpha);
+            REVIVE_WARNING_EDGE.draw(g, x - size/2, y - size/2, size, Math.min(0.9f, alpha + 0.2f));
+        }
+    }
+
+    public static void draw(Graphics2D g, Boss boss) {
+        var sprite = SpriteLoader.getRegion("boss", 120, 120);
+        if (sprite != null) {
+            sprite.draw(g, boss.getX() - 60, boss.getY() - 60);
+        }
+
+        // Draw beams
+        ArrayList<Beam> beams = boss.getBeams();
+        for (int i = 0; i < beams.size(); i++) {
+            draw(g, beams.get(i));
+        }
+    }
+
+    public static void draw(Graphics2D g, PurpleBoss boss) {
+        int x = boss.getX();
+        int y = boss.getY();
+
+        // Draw regular beams (behind)
+        ArrayList<Beam> beams = boss.getBeams();
+        for (int i = 0; i < beams.size(); i++) {
+            draw(g, beams.get(i));
+        }
+
+        // Draw persistent rotating beams (spawned during beam spin)
+        ArrayList<RotatingBeam> persistentBeams = boss.getPersistentBeams();
+        for (int i = 0; i < persistentBeams.size(); i++) {
+            draw(g, persistentBeams.get(i));
+        }
+
+        // Draw dash trail (older positions = more faded and smaller)
+        ArrayList<int[]> dashTrail = boss.getDashTrail();
+        for (int i = 0; i < dashTrail.size(); i++) {
+            int[] pos = dashTrail.get(i);
+            // Alpha increases toward end of trail (newer = brighter)
+            float alpha = (float) (i + 1) / (dashTrail.size() + 1) * 0.8f;
+            // Size matches boss body (80 pixel diameter), decreases toward start of trail
+            int size = 20 + (dashTrail.size() - i) * 2;
+            PURPLE_BOSS_TRAIL.draw(g, pos[0] - size / 2, pos[1] - size / 2, size, alpha);
+        }
+
+        // Draw shield if active (full semi-transparent circle)
+        if (boss.isShieldActive()) {
+            int shieldSize = PURPLE_BOSS_SHIELD_SIZE;
+            SHIELD.draw(g, x - shieldSize / 2, y - shieldSize / 2, shieldSize);
+            SHIELD_EDGE.draw(g, x - shieldSize / 2, y - shieldSize / 2, shieldSize);
+        }
+
+        // Draw highlight effect during dash charge
+        if (boss.getAttackState() == 2 && boss.getDashHighlightTimer() > 0) {
+            float progress = boss.getDashHighlightProgress();
+            int highlightSize = 80 + (int)(progress * 20);
+            DASH_HIGHLIGHT.draw(g, x - highlightSize / 2, y - highlightSize / 2, highlightSize, 0.3f * progress);
+        }
+
+        // Draw main boss body, with rotation if dashing
+        double bossRotation = boss.getBossRotation();
+        PURPLE_BOSS_BODY.draw(g, x, y, Math.abs(bossRotation) > 0.01 ? bossRotation : 0);
+
+        // Dash finish visual cue
+        int dashFinishTimer = boss.getDashFinishTimer();
+        if (dashFinishTimer > 0) {
+            float progress = (20 - dashFinishTimer) / 20.0f;
+            int cueSize = 80 + (int)(progress * 80);
+            float alpha = 0.8f * (1.0f - progress);
+            DASH_FINISH.draw(g, x - cueSize / 2, y - cueSize / 2, cueSize, alpha);
+            DASH_FINISH_EDGE.draw(g, x - cueSize / 2, y - cueSize / 2, cueSize, Math.min(0.9f, alpha + 0.2f));
+        }
+
+        // Rotating-beam spawn visual cue (pulsing magenta ring)
+        int rotatingBeamCueTimer = boss.getRotatingBeamCueTimer();
+        if (rotatingBeamCueTimer > 0) {
+            float prog = rotatingBeamCueTimer / 60.0f;
+            float alpha = 0.7f * prog;
+            int cueSize = 120 + (int)((1.0f - prog) * 60);
+            ROTATING_BEAM_CUE.draw(g, x - cueSize / 2, y - cueSize / 2, cueSize, alpha);
+            ROTATING_BEAM_CUE_EDGE.draw(g, x - cueSize / 2, y - cueSize / 2, cueSize, Math.min(0.95f, alpha + 0.2f));
+        }
+
+        // Wall-hit flash effect
+        int wallHitTimer = boss.getWallHitTimer();
+        if (wallHitTimer > 0) {
+            float prog = (float) wallHitTimer / 12.0f;
+            float alpha = 0.9f * prog;
+            int size = 40 + (int) ((1.0f - prog) * 80);
+            WALL_HIT.draw(g, boss.getWallHitX() - size / 2, boss.getWallHitY() - size / 2, size, alpha);
+        }
+
+        // HP bar drawing is handled by GamePanel to avoid duplicate UI elements
+    }
+
+    public static void draw(Graphics2D g, Beam beam) {
+        int x = beam.getX();
+        int y = beam.getY();
+        int state = beam.getState();
+        int beamLength = beam.getLength();
+        double cos = Math.cos(beam.getAngle());
+        double sin = Math.sin(beam.getAngle());
+        double half = beamLength / 2;
+
+        if (state == 0) {
+            // Warning state - yellow circle at beam origin with rectangle showing beam direction
+            int warningSize = beam.getWarningSize();
+            BEAM_WARNING.draw(g, x - warningSize / 2, y - warningSize / 2, warningSize);
+            BEAM_WARNING_EDGE.draw(g, x - warningSize / 2, y - warningSize / 2, warningSize);
+
+            // Draw transparent rectangle showing where beam will go, then its yellow border
+            g.setColor(BEAM_WARNING_AREA);
+            band(g, x - cos * half, y - sin * half, x + cos * half, y + sin * half, 60);
+            g.setColor(BEAM_WARNING_BORDER);
+            g.setStroke(Palette.STROKE_1);
+            double ax = x - cos * half + sin * 30, ay = y - sin * half - cos * 30; // corners, going round
+            double bx = x + cos * half + sin * 30, by = y + sin * half - cos * 30;
+            double cx = x + cos * half - sin * 30, cy = y + sin * half + cos * 30;
+            double dx = x - cos * half - sin * 30, dy = y - sin * half + cos * 30;
+            line(g, ax, ay, bx, by);
+            line(g, bx, by, cx, cy);
+            line(g, cx, cy, dx, dy);
+            line(g, dx, dy, ax, ay);
+        } else if (state == 1) {
+            // Flashing white beam spanning screen, 60px tall
+            float flash = (beam.getStateTimer() % 3 < 1) ? 1f : 0.7f;
+            g.setColor(Palette.alpha(WHITE, flash * 0.8f));
+            band(g, x - cos * half, y - sin * half, x + cos * half, y + sin * half, 60);
+        } else if (state == 2) {
+            // Shrinking
+            float progress = beam.getStateProgress();
+            float alpha = 1f - (progress * 0.5f); // Fade to 50% during shrink
+            g.setColor(Palette.alpha(WHITE, alpha * 0.6f));
+            int shrinkHeight = (int) (60 * (1 - progress));
+            band(g, x - cos * half, y - sin * half, x + cos * half, y + sin * half, shrinkHeight);
+        } else if (state == 3) {
+            // Fading out completely
+            float progress = beam.getStateProgress();
+            float alpha = (1f - progress) * 0.9f; // Fade from 30% to 0%
+            g.setColor(Palette.alpha(WHITE, alpha));
+            band(g, x - cos * half, y - sin * half, x + cos * half, y + sin * half, 30);
+        }
+    }
+
+    public static void draw(Graphics2D g, RotatingBeam beam) {
+        int x = beam.getCenterX();
+        int y = beam.getCenterY();
+        double endX = x + Math.cos(beam.getAngle()) * beam.getLength();
+        double endY = y + Math.sin(beam.getAngle()) * beam.getLength();
+        int beamWidth = beam.getWidth();
+
+        // Glow
+        g.setColor(ROTATING_BEAM_GLOW);
+        band(g, x, y, endX, endY, beamWidth);
+
+        // Core
+        g.setColor(ROTATING_BEAM_CORE);
+        band(g, x, y, endX, endY, beamWidth / 2);
+    }
+
+    public static void draw(Graphics2D g, HealingItem item) {
+        var sprite = SpriteLoader.getRegion("healing_item", 24, 24);
+        if (sprite != null) {
+            sprite.draw(g, item.getX() - 12, item.getY() - 12);
+        }
+    }
+
+    // The rotated rectangle width pixels across centred on the line from x1, y1 to x2, y2
+    private static void band(Graphics2D g, double x1, double y1, double x2, double y2, int width) {
+        if (width <= 0) return;
+        g.setStroke(Palette.band(width));
+        line(g, x1, y1, x2, y2);
+    }
+
+    private static void line(Graphics2D g, double x1, double y1, double x2, double y2) {
+        LINE.setLine(x1, y1, x2, y2);
+        g.draw(LINE);
+    }
+
+    // The red triangle enemy has no sprite file; this draws its triangle into one
+    private static BufferedImage redTriangle(Color fill, Color edge) {
+        BufferedImage image = SpriteLoader.createCompatible(40, 40);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.translate(20, 20);
+        int[] xp = {0, -12, 12};
+        int[] yp = {-14, 12, 12};
+        g.setColor(fill);
+        g.fillPolygon(xp, yp, 3);
+        g.setColor(edge);
+        g.setStroke(Palette.STROKE_2);
+        g.drawPolygon(xp, yp, 3);
+        g.dispose();
+        return image;
+    }
+
+    // The purple boss's giant spiked circle, drawn once around the middle of an image
+    private static BufferedImage purpleBossBody() {
+        int half = 74; // spikes reach 70 out, plus their 3px outline
+        BufferedImage image = SpriteLoader.createCompatible(half * 2, half * 2);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.translate(half, half);
+
+        // Giant spiked purple circle
+        g.setColor(new Color(150, 0, 150));
+        g.fillOval(-40, -40, 80, 80);
+        g.setColor(Color.MAGENTA);
+        g.setStroke(Palette.STROKE_3);
+        g.drawOval(-40, -40, 80, 80);
+
+        // Draw spikes around the circle (12 triangle spikes)
+        for (int i = 0; i < 12; i++) {
+            double angle = (i * Math.PI * 2 / 12);
+            int centerX = (int) (Math.cos(angle) * 45);
+            int centerY = (int) (Math.sin(angle) * 45);
+            int tipX = (int) (Math.cos(angle) * 70);
+            int tipY = (int) (Math.sin(angle) * 70);
+
+            // Calculate spike points (triangle)
+            double perpAngle = angle + Math.PI / 2;
+            int leftX = centerX + (int) (Math.cos(perpAngle) * 12);
+            int leftY = centerY + (int) (Math.sin(perpAngle) * 12);
+            int rightX = centerX - (int) (Math.cos(perpAngle) * 12);
+            int rightY = centerY - (int) (Math.sin(perpAngle) * 12);
+
+            int[] xPoints = {leftX, rightX, tipX};
+            int[] yPoints = {leftY, rightY, tipY};
+            g.setColor(new Color(200, 50, 200));
+            g.fillPolygon(xPoints, yPoints, 3);
+            g.setColor(Color.MAGENTA);
+            g.drawPolygon(xPoints, yPoints, 3);
+        }
+        g.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,129 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// Every live enemy in one flat array. Order is not stable: removal swaps the
+// last entity into the hole. Deaths and spawns requested while the array is
+// being iterated are buffered and applied together by applyCommands().
+public class EntityStore {
+    private static final Archetype[] ARCHETYPES = Archetype.values();
+
+    private Entity[] entities = new Entity[64];
+    private int size = 0;
+    private ArrayList<Entity> pendingSpawns = new ArrayList<>();
+    private int[] pendingRemovals = new int[16];
+    private int pendingRemovalCount = 0;
+    private final ArrayList<ArrayList<Entity>> spares = new ArrayList<>(); // by archetype, for readState to read into again
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public Entity get(int index) { return entities[index]; }
+
+    // Adds immediately; only call when nothing is iterating the store
+    public void add(Entity entity) {
+        if (size == entities.length) {
+            entities = Arrays.copyOf(entities, size * 2);
+        }
+        entities[size++] = entity;
+    }
+
+    // Queues an entity to join at the end of the tick
+    public void spawn(Entity entity) {
+        pendingSpawns.add(entity);
+    }
+
+    // Queues the entity at index for removal at the end of the tick
+    public void remove(int index) {
+        if (pendingRemovalCount == pendingRemovals.length) {
+            pendingRemovals = Arrays.copyOf(pendingRemovals, pendingRemovalCount * 2);
+        }
+        pendingRemovals[pendingRemovalCount++] = index;
+    }
+
+    public void applyCommands() {
+        // Highest index first, so a swapped-in entity is never one still waiting to be removed
+        Arrays.sort(pendingRemovals, 0, pendingRemovalCount);
+        int last = -1;
+        for (int i = pendingRemovalCount - 1; i >= 0; i--) {
+            int index = pendingRemovals[i];
+            if (index != last) {
+                swapRemove(index);
+                last = index;
+            }
+        }
+        pendingRemovalCount = 0;
+
+        for (Entity entity : pendingSpawns) {
+            add(entity);
+        }
+        pendingSpawns.clear();
+    }
+
+    private void swapRemove(int index) {
+        entities[index].retireHazards(); // its beams go with it
+        size--;
+        entities[index] = entities[size];
+        entities[size] = null;
+    }
+
+    // Binary state for replay keyframes. Order is kept so a restored world
+    // updates its enemies in the same sequence as the original.
+    public void writeState(ByteBuffer out) {
+        out.putInt(size);
+        for (int i = 0; i < size; i++) {
+            out.put((byte) entities[i].getArchetype().ordinal());
+            entities[i].writeState(out);
+        }
+    }
+
+    // Reads into the entities already here where their archetypes match, and
+    // only makes new ones past those
+    public void readState(ByteBuffer in, int width, int height) {
+        if (spares.isEmpty()) {
+            for (int i = 0; i < ARCHETYPES.length; i++) {
+                spares.add(new ArrayList<>());
+            }
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            spares.get(entities[i].getArchetype().ordinal()).add(entities[i]);
+            entities[i] = null;
+        }
+        size = 0;
+        pendingSpawns.clear();
+        pendingRemovalCount = 0;
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            Archetype archetype = ARCHETYPES[in.get()];
+            ArrayList<Entity> spare = spares.get(archetype.ordinal());
+            // The placeholder stream is overwritten by the saved one
+            Entity entity = spare.isEmpty() ? archetype.create(0, 0, width, height, new RandomStream(0))
+                    : spare.remove(spare.size() - 1);
+            entity.readState(in);
+            add(entity);
+        }
+    }
+
+    // Drops every entity whose archetype is cleared when a new wave starts
+    public void clearWaveEnemies() {
+        for (int i = size - 1; i >= 0; i--) {
+            if (entities[i].getArchetype().isClearedOnWaveStart()) {
+                swapRemove(i);
+            }
+        }
+    }
+
+    public int count(Archetype archetype) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (entities[i].getArchetype() == archetype) count++;
+        }
+        return count;
+    }
+
+    public boolean hasWaveBlockers() {
+        for (int i = 0; i < size; i++) {
+            if (entities[i].getArchetype().blocksWaveEnd()) return true;
+        }
+        return false;
+    }
+}
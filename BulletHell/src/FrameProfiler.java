@@ -0,0 +1,135 @@
+import java.util.Arrays;
+
+// Rolling frame timings for the F3 overlay. Every phase keeps its last SAMPLES
+// durations in a ring buffer, and enemy updates get one row per archetype.
+// While disabled, start() returns without reading the clock and stop() returns
+// right away, so the probes left in update and paint cost a branch each.
+// GamePanel ticks and paints on different threads into one profiler; they
+// record different phases, and the overlay reading a ring mid-write only
+// skews one number for a frame.
+public class FrameProfiler {
+    public enum Phase {
+        UPDATE("update"),
+        PLAYER("  player"),
+        BOSS("  boss"),
+        PURPLE_BOSS("  purple boss"),
+        ENEMIES("  enemies"),
+        BEAMS("  beam hazards"),
+        ENEMY_SHOTS("  enemy shots"),
+        PAINT("paint"),
+        DRAW_PLAYER("  player + shots"),
+        DRAW_ENEMIES("  enemies"),
+        DRAW_BOSS("  boss + beams"),
+        DRAW_SHOTS("  items + enemy shots"),
+        DRAW_HUD("  hud"),
+        DRAW_MENUS("  menus");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    public static final int SAMPLES = 240; // four seconds at 60 Hz
+
+    private static final int PHASES = Phase.values().length;
+    private static final int ROWS = PHASES + Archetype.values().length;
+
+    private final long[][] samples = new long[ROWS][SAMPLES];
+    private final int[] next = new int[ROWS]; // ring position of the next sample
+    private final int[] count = new int[ROWS]; // samples held, up to SAMPLES
+    private final long[] pending = new long[Archetype.values().length]; // summed over this tick's enemy loop
+    private final boolean[] touched = new boolean[Archetype.values().length];
+    private final long[] scratch = new long[SAMPLES]; // sorted copy for percentiles
+    private volatile boolean enabled = false;
+
+    public boolean isEnabled() { return enabled; }
+
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            // Start fresh rather than mixing in samples from the last time it was on
+            Arrays.fill(next, 0);
+            Arrays.fill(count, 0);
+            Arrays.fill(pending, 0);
+            Arrays.fill(touched, false);
+        }
+        this.enabled = enabled;
+    }
+
+    public void toggle() {
+        setEnabled(!enabled);
+    }
+
+    // Timestamp to hand back to stop or accumulate, 0 while disabled
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public void stop(Phase phase, long start) {
+        if (!enabled || start == 0) return;
+        record(phase.ordinal(), System.nanoTime() - start);
+    }
+
+    // Adds one entity's update to its archetype's total for this tick
+    public void accumulate(Archetype type, long start) {
+        if (!enabled || start == 0) return;
+        pending[type.ordinal()] += System.nanoTime() - start;
+        touched[type.ordinal()] = true;
+    }
+
+    // Records each archetype's total once the enemy loop is done. Types with
+    // nothing alive this tick don't get a sample.
+    public void commitArchetypes() {
+        if (!enabled) return;
+        for (int i = 0; i < pending.length; i++) {
+            if (touched[i]) {
+                record(PHASES + i, pending[i]);
+                pending[i] = 0;
+                touched[i] = false;
+            }
+        }
+    }
+
+    public int getSampleCount(Phase phase) { return count[phase.ordinal()]; }
+    public int getSampleCount(Archetype type) { return count[PHASES + type.ordinal()]; }
+
+    public long getPercentile(Phase phase, double p) { return percentile(phase.ordinal(), p); }
+    public long getPercentile(Archetype type, double p) { return percentile(PHASES + type.ordinal(), p); }
+
+    public long getMax(Phase phase) { return max(phase.ordinal()); }
+    public long getMax(Archetype type) { return max(PHASES + type.ordinal()); }
+
+    // i-th most recent sample (0 is the latest), for drawing the history
+    public long getRecent(Phase phase, int i) { return recent(phase.ordinal(), i); }
+    public long getRecent(Archetype type, int i) { return recent(PHASES + type.ordinal(), i); }
+
+    private void record(int row, long nanos) {
+        samples[row][next[row]] = nanos;
+        next[row] = (next[row] + 1) % SAMPLES;
+        if (count[row] < SAMPLES) count[row]++;
+    }
+
+    private long percentile(int row, double p) {
+        int n = count[row];
+        if (n == 0) return 0;
+        System.arraycopy(samples[row], 0, scratch, 0, n);
+        Arrays.sort(scratch, 0, n);
+        return scratch[Math.min(n - 1, (int) (p * n))];
+    }
+
+    private long max(int row) {
+        long max = 0;
+        for (int i = 0; i < count[row]; i++) {
+            max = Math.max(max, samples[row][i]);
+        }
+        return max;
+    }
+
+    private long recent(int row, int i) {
+        if (i >= count[row]) return 0;
+        return samples[row][(next[row] - 1 - i + SAMPLES) % SAMPLES];
+    }
+}
@@ -2,70 +2,136 @@ import javax.swing.*;
 import javax.swing.Timer;
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.*;
 
 public class GamePanel extends JPanel {
     private int WIDTH = 1000;
     private int HEIGHT = 700;
-    private static final int FPS = 60;
-
-    private Player player;
-    private ArrayList<Enemy> enemies;
-    private ArrayList<TriangleEnemy> triangleEnemies;
-    private ArrayList<GreenTriangleEnemy> greenTriangleEnemies;
-    private ArrayList<PurpleTriangleEnemy> purpleTriangleEnemies;
-    private ArrayList<RedTriangleEnemy> redTriangleEnemies;
-    private ArrayList<PurpleCircleEnemy> purpleCircleEnemies;
-    private ArrayList<GreenCircleEnemy> greenCircleEnemies;
-    private ArrayList<PlayerProjectile> playerProjectiles;
-    private ArrayList<EnemyProjectile> enemyProjectiles;
-    private ArrayList<HealingItem> healingItems;
-    private Boss boss;
-    private PurpleBoss purpleBoss;
-    private ArrayList<Object[]> recentlyDeadEnemies;
-    private int waveNumber = 1;
-    private boolean waveInProgress = false;
-    private int enemiesSpawned = 0;
-    private boolean bossFight = false;
-    private Set<Integer> keysPressed;
-    private Point mousePos;
-    private Achievements achievements;
-    private int totalKills = 0;
-    private int damageFreakoutWave = -1; // Track current no-damage wave
-    private boolean isPaused = false;
+    private static final long TICK_NANOS = SimulationThread.TICK_NANOS;
+    private static final long MAX_FRAME_NANOS = 250_000_000L; // ignore longer stalls (debugger, window drag)
+
+    // The world is simulated on its own thread and only touched there after
+    // start(); painting and the menus read renderWorld, a copy loaded from the
+    // newest tick each frame. Everything else here belongs to the EDT.
+    private GameWorld world;
+    private GameWorld renderWorld;
+    private SimulationThread simulation;
+    private InputQueue input; // filled by the AWT listeners, drained by each tick
+    private final InputState tickInput = new InputState(); // what the current tick sees, simulation thread only
+    private volatile boolean isPaused = false;
     private PauseMenu pauseMenu;
     private ArrayList<AchievementPopup> achievementPopups;
-    private GamePanelListener gamePanelListener;
+    private volatile GamePanelListener gamePanelListener; // also called from the simulation thread
     private boolean showingUpgradeMenu = false;
     private UpgradeMenu upgradeMenu;
-    private int lastUpgradeWave = 0;
+    private boolean upgradeChosen = false; // picked, waiting for a tick without the offer
+    private volatile SaveGame saveGame; // null until Window sets it; never set for replays
+    private int savedWave; // the wave the last autosave was at, simulation thread only
+    private long lastFrameTime;
+    private long tickAccumulator = 0; // popups animate in tick-sized steps
+    private double renderAlpha = 1.0; // how far between the previous and current tick we are drawing
+    private ReplayRecorder recorder; // non-null while this run is being recorded
+    private ReplayReader replay; // non-null when playing a recording instead of live input
+    private InputState replayInput; // frames read from the replay; live input is ignored
+    private static boolean activeRendering = true; // chosen at startup, see setActiveRendering
+    private Canvas canvas; // drawn to directly each frame when rendering actively, else null
+    private BufferStrategy strategy; // the canvas's page flipping, rebuilt when its peer or size changes
+    private int strategyWidth, strategyHeight;
+    private static boolean softwareBullets = false; // chosen at startup, see setSoftwareBullets
+    private static boolean parallelEnemies = false; // chosen at startup, see setParallelEnemies
+    private BufferedImage worldBuffer; // the world is drawn here first when softwareBullets is on
+    private Graphics2D worldGraphics;
+    private final HudLayer hud = new HudLayer();
+    private Timer timer;
+
+    // A new run from startingWave, recorded to recordPath unless it's null
+    public GamePanel(Achievements achievements, int startingWave, Path recordPath) {
+        this(null, achievements, startingWave);
+        start(recordPath);
+    }
 
-    public GamePanel(Achievements achievements) {
-        this(achievements, 1); // Default to wave 1
+    // Carries on from a saved world, as read by SaveGame.read
+    public GamePanel(Achievements achievements, ByteBuffer saved) {
+        this(null, achievements, 1);
+        world.readState(saved);
+        System.out.println("GamePanel: continuing a saved run at wave " + world.getWaveNumber());
+        start(null);
     }
 
-    public GamePanel(Achievements achievements, int startingWave) {
+    // Plays back a recording from the given frame instead of taking live input.
+    // Achievements are not unlocked during playback.
+    public GamePanel(ReplayReader replay, long seekFrame) throws IOException {
+        this(replay, null, replay.getStartingWave());
+        replayInput = new InputState();
+        if (seekFrame > 0) {
+            replay.seek(world, seekFrame);
+        }
+        start(null);
+    }
+
+    private GamePanel(ReplayReader replay, Achievements achievements, int startingWave) {
         setPreferredSize(new Dimension(WIDTH, HEIGHT));
         setBackground(Color.BLACK);
         setFocusable(true);
-        this.achievements = achievements;
-        this.waveNumber = startingWave;
         this.achievementPopups = new ArrayList<>();
 
         // Load sprites
         SpriteLoader.loadSprites();
 
-        player = new Player(WIDTH / 2, HEIGHT / 2);
-        enemies = new ArrayList<>();
-        triangleEnemies = new ArrayList<>();
-        greenTriangleEnemies = new ArrayList<>();
-        purpleTriangleEnemies = new ArrayList<>();
-        redTriangleEnemies = new ArrayList<>();
-        purpleCircleEnemies = new ArrayList<>();
-        recentlyDeadEnemies = new ArrayList<>();
-        greenCircleEnemies = new ArrayList<>();
-        playerProjectiles = new ArrayList<>();
-        enemyProjectiles = new ArrayList<>();
+        // Active rendering draws on a canvas filling the panel. Keys still go to
+        // the panel, so the canvas never takes focus; mouse events land on it.
+        if (activeRendering) {
+            setLayout(new BorderLayout());
+            canvas = new Canvas() {
+                @Override
+                public void removeNotify() {
+                    strategy = null; // the peer and its buffers are going away (fullscreen toggle, menu)
+                    super.removeNotify();
+                }
+            };
+            canvas.setBackground(Color.BLACK);
+            canvas.setIgnoreRepaint(true);
+            canvas.setFocusable(false);
+            add(canvas, BorderLayout.CENTER);
+        }
+        Component mouseTarget = canvas != null ? canvas : this;
+
+        input = new InputQueue(WIDTH / 2, HEIGHT / 2);
+        this.replay = replay;
+        if (replay != null) {
+            world = replay.createWorld();
+        } else {
+            long seed = GameRandom.newSeed();
+            System.out.println("GamePanel: run seed " + seed);
+            world = new GameWorld(achievements, startingWave, WIDTH, HEIGHT, seed);
+        }
+        world.setParallelEnemies(parallelEnemies);
+        renderWorld = new GameWorld(null, startingWave, WIDTH, HEIGHT, world.getSeed());
+        renderWorld.useProfilerOf(world);
+        world.setListener(new GameWorld.GameWorldListener() {
+            @Override
+            public void onAchievementUnlocked(String achievement) {
+                SwingUtilities.invokeLater(() -> achievementPopups.add(new AchievementPopup(achievement, WIDTH)));
+            }
+
+            @Override
+            public void onBeep() {
+                try { Toolkit.getDefaultToolkit().beep(); } catch (Exception ex) {}
+            }
+
+            @Override
+            public void onRunEnded(RunRecord run) {
+                GamePanelListener listener = gamePanelListener;
+                if (replay == null && listener != null) {
+                    listener.onRunEnded(run);
+                }
+            }
+        });
         
         pauseMenu = new PauseMenu(WIDTH, HEIGHT);
         pauseMenu.setListener(new PauseMenu.PauseMenuListener() {
@@ -76,44 +142,33 @@ public class GamePanel extends JPanel {
             
             @Override
             public void onMainMenuClicked() {
+                timer.stop();
+                simulation.stop();
+                stopRecording();
                 if (gamePanelListener != null) {
+                    // Quitting ends the run in progress too
+                    RunRecord run = world.getCurrentRun(false);
+                    if (replay == null && run.getTicks() > 0) {
+                        gamePanelListener.onRunEnded(run);
+                    }
                     gamePanelListener.onReturnToMenu();
                 }
             }
         });
-        healingItems = new ArrayList<>();
-        keysPressed = new HashSet<>();
-        mousePos = new Point(WIDTH / 2, HEIGHT / 2);
 
         addKeyListener(new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
-                if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
-                    isPaused = !isPaused;
-                    return;
-                }
-                keysPressed.add(e.getKeyCode());
-                if (e.getKeyCode() == KeyEvent.VK_SPACE) {
-                    int dirX = 0, dirY = 0;
-                    if (keysPressed.contains(KeyEvent.VK_W)) dirY--;
-                    if (keysPressed.contains(KeyEvent.VK_S)) dirY++;
-                    if (keysPressed.contains(KeyEvent.VK_A)) dirX--;
-                    if (keysPressed.contains(KeyEvent.VK_D)) dirX++;
-                    
-                    if (dirX == 0 && dirY == 0) {
-                        dirX = 1;
-                    }
-                    player.dash(dirX, dirY);
-                }
+                GamePanel.this.keyPressed(e);
             }
 
             @Override
             public void keyReleased(KeyEvent e) {
-                keysPressed.remove(e.getKeyCode());
+                GamePanel.this.keyReleased(e);
             }
         });
 
-        addMouseListener(new MouseAdapter() {
+        mouseTarget.addMouseListener(new MouseAdapter() {
             @Override
             public void mousePressed(MouseEvent e) {
                 if (showingUpgradeMenu && upgradeMenu != null) {
@@ -123,15 +178,15 @@ public class GamePanel extends JPanel {
                     pauseMenu.dispatchEvent(new MouseEvent(pauseMenu, MouseEvent.MOUSE_CLICKED, 
                         System.currentTimeMillis(), 0, e.getX(), e.getY(), 1, false));
                 } else {
-                    player.shoot(playerProjectiles, e.getX(), e.getY());
+                    input.fire(e.getX(), e.getY());
                 }
             }
         });
 
-        addMouseMotionListener(new MouseAdapter() {
+        mouseTarget.addMouseMotionListener(new MouseAdapter() {
             @Override
             public void mouseMoved(MouseEvent e) {
-                mousePos = new Point(e.getX(), e.getY());
+                input.mouseMoved(e.getX(), e.getY());
                 if (showingUpgradeMenu && upgradeMenu != null) {
                     upgradeMenu.dispatchEvent(new MouseEvent(upgradeMenu, MouseEvent.MOUSE_MOVED, 
                         System.currentTimeMillis(), 0, e.getX(), e.getY(), 0, false));
@@ -142,25 +197,139 @@ public class GamePanel extends JPanel {
             }
         });
 
-        startWave();
+    }
 
-        Timer timer = new Timer(1000 / FPS, e -> {
-            updateDimensions();
-            update();
-            repaint();
-        });
+    // Starts ticking and painting, once the world is set up (and a replay seeked).
+    // A recording starts here, before the first tick, so it holds the world a
+    // replay rebuilds from the seed.
+    private void start(Path recordPath) {
+        savedWave = world.getWaveNumber();
+        if (recordPath != null) {
+            startRecording(recordPath);
+        }
+        simulation = new SimulationThread(world, this::tick);
+        simulation.start();
+
+        // The timer only pumps frames; the simulation thread runs the ticks
+        lastFrameTime = System.nanoTime();
+        timer = new Timer(getFrameDelay(), e -> runFrame());
+        timer.setCoalesce(true);
         timer.start();
     }
 
+    private static int getFrameDelay() {
+        int refreshRate = DisplayMode.REFRESH_RATE_UNKNOWN;
+        try {
+            refreshRate = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+        } catch (HeadlessException ex) {
+            // no display, fall back to the default below
+        }
+        if (refreshRate == DisplayMode.REFRESH_RATE_UNKNOWN || refreshRate < SimulationThread.TICKS_PER_SECOND) {
+            refreshRate = SimulationThread.TICKS_PER_SECOND * 2;
+        }
+        return Math.max(1, 1000 / refreshRate);
+    }
+
+    private void runFrame() {
+        long now = System.nanoTime();
+        tickAccumulator += Math.min(now - lastFrameTime, MAX_FRAME_NANOS);
+        lastFrameTime = now;
+
+        updateDimensions();
+        for (; tickAccumulator >= TICK_NANOS; tickAccumulator -= TICK_NANOS) {
+            updatePopups();
+        }
+
+        // Draw the newest tick, interpolated by how long ago it was due
+        long tickTime = simulation.read(renderWorld);
+        renderAlpha = Math.max(0.0, Math.min(1.0, (double) (now - tickTime) / TICK_NANOS));
+        updateMenus();
+        if (canvas != null) {
+            renderFrame();
+        } else {
+            repaint();
+        }
+    }
+
+    // Active rendering: compose the frame into the back buffer and show it now,
+    // instead of asking Swing to paint whenever it gets round to it
+    private void renderFrame() {
+        int w = canvas.getWidth();
+        int h = canvas.getHeight();
+        if (!canvas.isDisplayable() || w <= 0 || h <= 0) return;
+        if (strategy == null || w != strategyWidth || h != strategyHeight) {
+            try {
+                canvas.createBufferStrategy(3);
+            } catch (IllegalStateException | IllegalArgumentException ex) {
+                useSwingRendering(ex.getMessage());
+                return;
+            }
+            strategy = canvas.getBufferStrategy();
+            strategyWidth = w;
+            strategyHeight = h;
+        }
+
+        // A lost or restored back buffer (mode switch, another app going
+        // fullscreen) gets the whole frame drawn again
+        do {
+            do {
+                Graphics2D g2d = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    g2d.setColor(Color.BLACK);
+                    g2d.fillRect(0, 0, w, h);
+                    paintFrame(g2d);
+                } finally {
+                    g2d.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    // Falls back to Swing painting for the rest of this run
+    private void useSwingRendering(String reason) {
+        System.err.println("GamePanel: active rendering unavailable (" + reason + "), using Swing painting");
+        Canvas old = canvas;
+        canvas = null;
+        strategy = null;
+        remove(old);
+        for (MouseListener l : old.getMouseListeners()) addMouseListener(l);
+        for (MouseMotionListener l : old.getMouseMotionListeners()) addMouseMotionListener(l);
+        revalidate();
+        repaint();
+    }
+
+    // Picks how GamePanels created from now on draw: true (the default) for a
+    // BufferStrategy the game loop flips itself, false for Swing's repaint()
+    public static void setActiveRendering(boolean active) {
+        activeRendering = active;
+    }
+
+    // Picks whether enemy bullets are written straight into pixels by
+    // ProjectileBlitter. The world is then drawn into an image in main memory
+    // (the BufferStrategy's pages are out of reach) and that is copied to the
+    // screen in one drawImage, under the HUD and menus.
+    public static void setSoftwareBullets(boolean software) {
+        softwareBullets = software;
+    }
+
+    // Picks whether the worlds of GamePanels created from now on move their
+    // enemies on the ForkJoinPool's threads; see GameWorld.setParallelEnemies
+    public static void setParallelEnemies(boolean parallel) {
+        parallelEnemies = parallel;
+    }
+
     private void updateDimensions() {
         int newWidth = getWidth();
         int newHeight = getHeight();
-        if (newWidth > 0 && newHeight > 0) {
+        if (newWidth > 0 && newHeight > 0 && (newWidth != WIDTH || newHeight != HEIGHT)) {
             WIDTH = newWidth;
             HEIGHT = newHeight;
-            // Propagate size to boss if present
-            if (purpleBoss != null) {
-                purpleBoss.setScreenSize(WIDTH, HEIGHT);
+            // A replay resizes the world itself, from the recorded frames
+            if (replay == null) {
+                simulation.post(() -> world.setScreenSize(newWidth, newHeight));
             }
             // Update menu dimensions when screen size changes
             if (showingUpgradeMenu && upgradeMenu != null) {
@@ -172,146 +341,7 @@ public class GamePanel extends JPanel {
         }
     }
 
-    private void startWave() {
-        // Show upgrade menu every 10 waves (at waves 11, 21, 31, etc.)
-        if (waveNumber > 10 && waveNumber % 10 == 1 && waveNumber > lastUpgradeWave) {
-            showingUpgradeMenu = true;
-            isPaused = true;
-            Upgrade[] upgrades = Upgrade.getRandomUpgrades(3);
-            upgradeMenu = new UpgradeMenu(upgrades, WIDTH, HEIGHT);
-            upgradeMenu.setListener(upgrade -> {
-                upgrade.apply(player);
-                showingUpgradeMenu = false;
-                isPaused = false;
-                lastUpgradeWave = waveNumber;
-            });
-        }
-        
-        // Check wave achievements
-        if (waveNumber >= 5) {
-            unlockAchievement("Wave Survivor");
-        }
-        if (waveNumber >= 10) {
-            if (damageFreakoutWave != waveNumber - 1 || player.getHP() == 5) {
-                unlockAchievement("Untouchable");
-            }
-            damageFreakoutWave = waveNumber;
-        }
-        if (waveNumber >= 20) {
-            unlockAchievement("Wave Master");
-        }
-        if (waveNumber >= 30) {
-            unlockAchievement("Legendary");
-        }
-        
-        if (waveNumber % 10 == 0) {
-            bossFight = true;
-            if (waveNumber == 20) {
-                // Second boss on wave 20
-                purpleBoss = new PurpleBoss(WIDTH / 2, 150, WIDTH, HEIGHT);
-            } else {
-                // Regular boss on other waves (10, 30, etc.)
-                boss = new Boss(WIDTH / 2, 100, waveNumber);
-            }
-        } else {
-            bossFight = false;
-            enemies.clear();
-            triangleEnemies.clear();
-            greenTriangleEnemies.clear();
-            purpleTriangleEnemies.clear();
-            purpleCircleEnemies.clear();
-            enemiesSpawned = 0;
-            
-            // Scale enemy spawning based on wave
-            // Regular enemies cap at lower numbers, triangles and green triangles increase
-            int regularEnemies = Math.min(2 + waveNumber / 5, 3);
-            if (waveNumber > 20) {
-                regularEnemies = Math.max(0, regularEnemies - 1);
-            }
-            //if (!purpleCircleEnemies.isEmpty()) {
-                //regularEnemies = Math.max(0, regularEnemies - 2); // Further reduce when purple circles present
-            //}
-            
-            for (int i = 0; i < regularEnemies; i++) {
-                enemies.add(Enemy.spawnRandom(WIDTH, HEIGHT, waveNumber));
-            }
-            
-            // Spawn more triangle enemies as waves progress (reduced if purple circles are present)
-            if (waveNumber >= 2) {
-                int triangleCount = 1 + (waveNumber - 2) / 2;
-                triangleCount = Math.min(triangleCount, 4);
-                if (waveNumber > 20) {
-                    triangleCount = Math.max(0, triangleCount - 1);
-                }
-                if (!purpleCircleEnemies.isEmpty()) {
-                    triangleCount = Math.max(0, triangleCount - 2); // Further reduce when purple circles present
-                }
-                for (int i = 0; i < triangleCount; i++) {
-                    int spawnX = WIDTH / 4 + (i % 3) * (WIDTH / 3) + (int)(Math.random() * 100 - 50);
-                    triangleEnemies.add(new TriangleEnemy(spawnX, 30 + i * 20));
-                }
-            }
-            
-            // Spawn green triangle OR purple triangle enemies starting from wave 5
-            if (waveNumber >= 5) {
-                int triangleCount = 1 + (waveNumber - 5) / 3;
-                triangleCount = Math.min(triangleCount, 5);
-                if (waveNumber > 20) {
-                    triangleCount = Math.max(0, triangleCount - 1);
-                }
-                if (!purpleCircleEnemies.isEmpty()) {
-                    triangleCount = Math.max(1, triangleCount - 2); // Further reduce when purple circles present
-                }
-                
-                // Use purple triangles starting from wave 15
-                if (waveNumber >= 15) {
-                    for (int i = 0; i < triangleCount; i++) {
-                        int spawnX = WIDTH / 3 + (i % 2) * (WIDTH / 3) + (int)(Math.random() * 80 - 40);
-                        int spawnY = HEIGHT / 3 + (int)(Math.random() * 60 - 30);
-                        if (waveNumber >= 25) {
-                            redTriangleEnemies.add(new RedTriangleEnemy(spawnX, spawnY));
-                        } else {
-                            purpleTriangleEnemies.add(new PurpleTriangleEnemy(spawnX, spawnY));
-                        }
-                    }
-                } else {
-                    // Use green triangles before wave 15
-                    for (int i = 0; i < triangleCount; i++) {
-                        int spawnX = WIDTH / 3 + (i % 2) * (WIDTH / 3) + (int)(Math.random() * 80 - 40);
-                        int spawnY = HEIGHT / 3 + (int)(Math.random() * 60 - 30);
-                        greenTriangleEnemies.add(new GreenTriangleEnemy(spawnX, spawnY));
-                    }
-                }
-            }
-            
-            // Spawn purple circle enemies starting from wave 11
-            if (waveNumber >= 11) {
-                int purpleCircleCount = 1 + (waveNumber - 11) / 5;
-                purpleCircleCount = Math.min(purpleCircleCount, 3);
-                for (int i = 0; i < purpleCircleCount; i++) {
-                    int spawnX = 100 + (int)(Math.random() * (WIDTH - 200));
-                    int spawnY = 100 + (int)(Math.random() * (HEIGHT - 200));
-                    purpleCircleEnemies.add(new PurpleCircleEnemy(spawnX, spawnY, WIDTH, HEIGHT));
-                }
-            }
-
-
-            // Spawn green circle enemies starting after wave 20
-            if (waveNumber >= 21) {
-                int greenCircleCount = 1 + (waveNumber - 21) / 10;
-                greenCircleCount = Math.min(greenCircleCount, 2);
-                for (int i = 0; i < greenCircleCount; i++) {
-                    int spawnX = WIDTH / 2 + (int)(Math.random() * 400 - 200);
-                    int spawnY = HEIGHT / 3 + (int)(Math.random() * 120 - 60);
-                    greenCircleEnemies.add(new GreenCircleEnemy(spawnX, spawnY, WIDTH, HEIGHT));
-                }
-            }
-        }
-        waveInProgress = true;
-    }
-
-    private void update() {
-        // Update achievement popups
+    private void updatePopups() {
         for (int i = achievementPopups.size() - 1; i >= 0; i--) {
             AchievementPopup popup = achievementPopups.get(i);
             popup.update();
@@ -319,594 +349,140 @@ public class GamePanel extends JPanel {
                 achievementPopups.remove(i);
             }
         }
-        
-        // Skip game updates if paused
-        if (isPaused) {
-            return;
-        }
-        
-        // Player movement
-        player.update(keysPressed, WIDTH, HEIGHT);
-
-        // Player projectile updates
-        for (int i = playerProjectiles.size() - 1; i >= 0; i--) {
-            PlayerProjectile proj = playerProjectiles.get(i);
-            proj.update();
-            if (proj.isOutOfBounds(WIDTH, HEIGHT)) {
-                playerProjectiles.remove(i);
-            }
-        }
-
-        // Enemy updates and projectile spawning
-        if (!bossFight) {
-            for (int i = enemies.size() - 1; i >= 0; i--) {
-                Enemy enemy = enemies.get(i);
-                enemy.update(WIDTH, HEIGHT, waveNumber, player.hasSlowField());
-                enemy.spawnProjectiles(enemyProjectiles, player.getX(), player.getY(), waveNumber);
-
-                // Check player projectile collisions
-                for (int j = playerProjectiles.size() - 1; j >= 0; j--) {
-                    PlayerProjectile proj = playerProjectiles.get(j);
-                    if (enemy.collidesWith(proj.getX(), proj.getY())) {
-                        enemy.takeDamage(1);
-                        if (!proj.isPiercing()) {
-                            playerProjectiles.remove(j);
-                        }
-                        break;
-                    }
-                }
-
-                // Check contact collision with player
-                if (enemy.collidesWith(player.getX(), player.getY())) {
-                    player.takeDamage(1);
-                }
-
-                if (enemy.isDead()) {
-                    totalKills++;
-                    if (totalKills == 1) {
-                        unlockAchievement("First Blood");
-                    }
-                    if (totalKills >= 50) {
-                        unlockAchievement("Sharpshooter");
-                    }
-                    if (Math.random() < 0.25) {
-                        healingItems.add(new HealingItem(enemy.getX(), enemy.getY()));
-                    }
-                    // Record exact dead enemy for potential revival
-                    recentlyDeadEnemies.add(new Object[]{"Enemy", enemy.getX(), enemy.getY()});
-                    enemies.remove(i);
-                }
-            }
-
-            if (enemies.isEmpty() && triangleEnemies.isEmpty() && greenTriangleEnemies.isEmpty() && purpleTriangleEnemies.isEmpty() && waveInProgress) {
-                waveNumber++;
-                startWave();
-            }
-        } else {
-            // Boss updates
-            if (waveNumber == 20 && purpleBoss != null) {
-                // Purple boss fight
-                purpleBoss.update(player.getX(), player.getY());
-                purpleBoss.spawnProjectiles(enemyProjectiles);
-
-                // Check player projectile collisions with purple boss
-                for (int j = playerProjectiles.size() - 1; j >= 0; j--) {
-                    PlayerProjectile proj = playerProjectiles.get(j);
-                    if (purpleBoss.collidesWith(proj.getX(), proj.getY())) {
-                        purpleBoss.takeDamage(1);
-                        if (!proj.isPiercing()) {
-                            playerProjectiles.remove(j);
-                        }
-                        break;
-                    }
-                }
-
-                if (purpleBoss.isDead()) {
-                    unlockAchievement("Second Boss");
-                    waveNumber++;
-                    startWave();
-                }
-
-                // Check player collision with purple boss
-                if (purpleBoss.collidesWith(player.getX(), player.getY())) {
-                    player.takeDamage(1);
-                }
-
-
-            } else {
-                // Regular boss fight
-                boss.update(WIDTH, HEIGHT, waveNumber);
-                boss.spawnProjectiles(enemyProjectiles, player.getX(), player.getY(), WIDTH, HEIGHT);
-
-                // Check beam collisions from regular boss
-                try {
-                    for (Beam b : boss.getBeams()) {
-                        if (b.checkCollision(player.getX(), player.getY())) {
-                            player.takeDamage(1);
-                            System.out.println("GamePanel: player hit by Boss beam");
-                        }
-                    }
-                } catch (Exception ex) {
-                    // ignore if boss has no beams or method access issues
-                }
-
-                // Check player projectile collisions with boss
-                for (int j = playerProjectiles.size() - 1; j >= 0; j--) {
-                    PlayerProjectile proj = playerProjectiles.get(j);
-                    if (boss.collidesWith(proj.getX(), proj.getY())) {
-                        boss.takeDamage(1);
-                        if (!proj.isPiercing()) {
-                            playerProjectiles.remove(j);
-                        }
-                        break;
-                    }
-                }
-
-                if (boss.isDead()) {
-                    unlockAchievement("First Boss");
-                    waveNumber++;
-                    startWave();
-                }
-            }
-        }
-
-        // Triangle enemy updates
-        for (int i = triangleEnemies.size() - 1; i >= 0; i--) {
-            TriangleEnemy enemy = triangleEnemies.get(i);
-            enemy.update(WIDTH, HEIGHT, player.hasSlowField());
-            enemy.spawnProjectiles(enemyProjectiles, player.getX(), player.getY());
-
-            // Check player projectile collisions
-            for (int j = playerProjectiles.size() - 1; j >= 0; j--) {
-                PlayerProjectile proj = playerProjectiles.get(j);
-                if (enemy.collidesWith(proj.getX(), proj.getY())) {
-                    enemy.takeDamage(1);
-                    if (!proj.isPiercing()) {
-                        playerProjectiles.remove(j);
-                    }
-                    break;
-                }
-            }
-
-            // Check contact collision with player
-            if (enemy.collidesWith(player.getX(), player.getY())) {
-                player.takeDamage(1);
-            }
-
-            // Check contact collision with player
-            if (enemy.collidesWith(player.getX(), player.getY())) {
-                player.takeDamage(1);
-            }
-
-            // Check contact collision with player
-            if (enemy.collidesWith(player.getX(), player.getY())) {
-                player.takeDamage(1);
-            }
-
-            if (enemy.isDead()) {
-                if (Math.random() < 0.3) {
-                    healingItems.add(new HealingItem(enemy.getX(), enemy.getY()));
-                }
-                recentlyDeadEnemies.add(new Object[]{"TriangleEnemy", enemy.getX(), enemy.getY()});
-                triangleEnemies.remove(i);
-            }
-        }
-
-        // Green triangle enemy updates
-        for (int i = greenTriangleEnemies.size() - 1; i >= 0; i--) {
-            GreenTriangleEnemy enemy = greenTriangleEnemies.get(i);
-            enemy.update(WIDTH, HEIGHT, player.getX(), player.getY(), player.hasSlowField());
-
-            // Check player projectile collisions
-            for (int j = playerProjectiles.size() - 1; j >= 0; j--) {
-                PlayerProjectile proj = playerProjectiles.get(j);
-                if (enemy.collidesWith(proj.getX(), proj.getY())) {
-                    enemy.takeDamage(1);
-                    if (!proj.isPiercing()) {
-                        playerProjectiles.remove(j);
-                    }
-                    break;
-                }
-            }
-
-            // Check contact collision with player (damage while dashing/hitting)
-            if (enemy.collidesWith(player.getX(), player.getY())) {
-                player.takeDamage(1);
-            }
-
-            if (enemy.isDead()) {
-                if (Math.random() < 0.4) {
-                    healingItems.add(new HealingItem(enemy.getX(), enemy.getY()));
-                }
-                recentlyDeadEnemies.add(new Object[]{"GreenTriangleEnemy", enemy.getX(), enemy.getY()});
-                greenTriangleEnemies.remove(i);
-            }
-        }
-
-        // Purple triangle enemy updates
-        for (int i = purpleTriangleEnemies.size() - 1; i >= 0; i--) {
-            PurpleTriangleEnemy enemy = purpleTriangleEnemies.get(i);
-            enemy.update(WIDTH, HEIGHT, player.getX(), player.getY(), player.hasSlowField());
-
-            // Check player projectile collisions
-            for (int j = playerProjectiles.size() - 1; j >= 0; j--) {
-                PlayerProjectile proj = playerProjectiles.get(j);
-                if (enemy.collidesWith(proj.getX(), proj.getY())) {
-                    enemy.takeDamage(1);
-                    if (!proj.isPiercing()) {
-                        playerProjectiles.remove(j);
-                    }
-                    break;
-                }
-            }
-
-            // Check contact collision with player (damage while dashing/hitting)
-            if (enemy.collidesWith(player.getX(), player.getY())) {
-                player.takeDamage(1);
-            }
-
-            if (enemy.isDead()) {
-                if (Math.random() < 0.4) {
-                    healingItems.add(new HealingItem(enemy.getX(), enemy.getY()));
-                }
-                recentlyDeadEnemies.add(new Object[]{"PurpleTriangleEnemy", enemy.getX(), enemy.getY()});
-                purpleTriangleEnemies.remove(i);
-            }
-        }
-
-        // Red triangle enemy updates (waves 25+)
-        for (int i = redTriangleEnemies.size() - 1; i >= 0; i--) {
-            RedTriangleEnemy enemy = redTriangleEnemies.get(i);
-            enemy.update(WIDTH, HEIGHT, player.getX(), player.getY(), player.hasSlowField());
-            enemy.spawnProjectiles(enemyProjectiles, player.getX(), player.getY());
-
-            // Check player projectile collisions
-            for (int j = playerProjectiles.size() - 1; j >= 0; j--) {
-                PlayerProjectile proj = playerProjectiles.get(j);
-                if (enemy.collidesWith(proj.getX(), proj.getY())) {
-                    enemy.takeDamage(1);
-                    if (!proj.isPiercing()) playerProjectiles.remove(j);
-                    break;
-                }
-            }
-
-            // Check contact collision with player (damage while dashing/hitting)
-            if (enemy.collidesWith(player.getX(), player.getY())) {
-                player.takeDamage(2);
-            }
-
-            if (enemy.isDead()) {
-                recentlyDeadEnemies.add(new Object[]{"RedTriangleEnemy", enemy.getX(), enemy.getY()});
-                redTriangleEnemies.remove(i);
-            }
-        }
-
-        // Purple circle enemy updates
-        for (int i = purpleCircleEnemies.size() - 1; i >= 0; i--) {
-            PurpleCircleEnemy enemy = purpleCircleEnemies.get(i);
-            enemy.update(WIDTH, HEIGHT, player.hasSlowField());
-            enemy.spawnProjectiles(enemyProjectiles);
-
-            // Check player projectile collisions
-            for (int j = playerProjectiles.size() - 1; j >= 0; j--) {
-                PlayerProjectile proj = playerProjectiles.get(j);
-                if (enemy.collidesWith(proj.getX(), proj.getY())) {
-                    enemy.takeDamage(1);
-                    playerProjectiles.remove(j);
-                    break;
-                }
-            }
-
-            // Check contact collision with player
-            if (enemy.collidesWith(player.getX(), player.getY())) {
-                player.takeDamage(1);
-            }
+    }
 
-            if (enemy.isDead()) {
-                totalKills++;
-                if (totalKills >= 50) {
-                    unlockAchievement("Sharpshooter");
-                }
-                if (Math.random() < 0.5) {
-                    healingItems.add(new HealingItem(enemy.getX(), enemy.getY()));
-                }
-                recentlyDeadEnemies.add(new Object[]{"PurpleCircleEnemy", enemy.getX(), enemy.getY()});
-                purpleCircleEnemies.remove(i);
-                unlockAchievement("Purple Hunter");
-            }
-            else {
-                // Check beams that PurpleCircleEnemy spawns for player collisions
-                try {
-                    for (Beam b : enemy.getBeams()) {
-                        if (b.checkCollision(player.getX(), player.getY())) {
-                            player.takeDamage(1);
-                            System.out.println("GamePanel: player hit by PurpleCircleEnemy beam");
-                        }
-                    }
-                } catch (Exception ex) {
-                    // ignore
-                }
+    // Show upgrade menu when the world offers upgrades; a replay picks from the recording.
+    // The pick is handed to the simulation by index, since renderWorld's upgrades are copies.
+    // The menu gets its own copy of the offer: loading the next snapshot reuses the array.
+    private void updateMenus() {
+        if (!renderWorld.isAwaitingUpgrade()) {
+            upgradeChosen = false;
+            if (showingUpgradeMenu) {
+                // A quickload took the offer away
+                showingUpgradeMenu = false;
+                isPaused = false;
             }
+        } else if (!showingUpgradeMenu && !upgradeChosen && replay == null) {
+            showingUpgradeMenu = true;
+            isPaused = true;
+            Upgrade[] offered = renderWorld.getOfferedUpgrades().clone();
+            upgradeMenu = new UpgradeMenu(offered, WIDTH, HEIGHT);
+            upgradeMenu.setListener(upgrade -> {
+                int choice = Arrays.asList(offered).indexOf(upgrade);
+                simulation.post(() -> {
+                    if (!world.isAwaitingUpgrade()) return; // a quickload got there first
+                    recordUpgradeChoice(choice);
+                    world.chooseUpgrade(world.getOfferedUpgrades()[choice]);
+                });
+                upgradeChosen = true;
+                showingUpgradeMenu = false;
+                isPaused = false;
+            });
         }
+    }
 
-        // Green circle enemy updates (can resummon dead enemies)
-        for (int i = greenCircleEnemies.size() - 1; i >= 0; i--) {
-            GreenCircleEnemy enemy = greenCircleEnemies.get(i);
-            enemy.update(WIDTH, HEIGHT, player.hasSlowField());
-
-            // Check player projectile collisions
-            for (int j = playerProjectiles.size() - 1; j >= 0; j--) {
-                PlayerProjectile proj = playerProjectiles.get(j);
-                if (enemy.collidesWith(proj.getX(), proj.getY())) {
-                    enemy.takeDamage(1);
-                    playerProjectiles.remove(j);
-                    break;
-                }
-            }
+    // One tick, on the simulation thread, due at tickTime
+    private void tick(long tickTime) {
+        FrameProfiler profiler = world.getProfiler();
+        long updateStart = profiler.start();
 
-            // Check contact collision with player
-            if (enemy.collidesWith(player.getX(), player.getY())) {
-                player.takeDamage(1);
-            }
+        // Input is taken even while paused, so a dash pressed then doesn't fire on resume
+        tickInput.clearEvents();
+        input.drain(tickInput, tickTime);
 
-            // Process revive requests: GreenCircleEnemy returns a count; revive exact recently-dead enemies if available
-            int reviveCount = enemy.collectReviveRequests();
-            for (int rcount = 0; rcount < reviveCount; rcount++) {
-                if (!recentlyDeadEnemies.isEmpty()) {
-                    // Pop next recent death that is not a boss
-                    Object[] rec = null;
-                    while (!recentlyDeadEnemies.isEmpty()) {
-                        Object[] cand = recentlyDeadEnemies.remove(0);
-                        String candType = (String) cand[0];
-                        // Skip any type that refers to a boss
-                        if (candType != null && candType.contains("Boss")) {
-                            // skip boss revives
-                            continue;
-                        }
-                        rec = cand;
-                        break;
-                    }
-                    if (rec != null) {
-                        String type = (String) rec[0];
-                        int rx = (Integer) rec[1];
-                        int ry = (Integer) rec[2];
-                        // Recreate the exact enemy type at the same position
-                        switch (type) {
-                            case "TriangleEnemy":
-                                triangleEnemies.add(new TriangleEnemy(rx, ry));
-                                break;
-                            case "GreenTriangleEnemy":
-                                greenTriangleEnemies.add(new GreenTriangleEnemy(rx, ry));
-                                break;
-                            case "PurpleTriangleEnemy":
-                                purpleTriangleEnemies.add(new PurpleTriangleEnemy(rx, ry));
-                                break;
-                            case "RedTriangleEnemy":
-                                redTriangleEnemies.add(new RedTriangleEnemy(rx, ry));
-                                break;
-                            case "PurpleCircleEnemy":
-                                purpleCircleEnemies.add(new PurpleCircleEnemy(rx, ry, WIDTH, HEIGHT));
-                                break;
-                            case "Enemy":
-                            default:
-                                enemies.add(new Enemy(rx, ry));
-                                break;
-                        }
-                        // Play revive sound and spawn green particle burst at revived position
-                        try { java.awt.Toolkit.getDefaultToolkit().beep(); } catch (Exception ex) {}
-                        for (int p = 0; p < 12; p++) {
-                            double pa = Math.random() * Math.PI * 2;
-                            int psz = 2 + (int)(Math.random() * 3);
-                            enemyProjectiles.add(new EnemyProjectile(rx, ry, pa, psz, new Color(0, 220, 0), 0));
-                        }
-                    } else {
-                        // No non-boss recent deaths available: fallback spawn near green circle
-                        int rx = enemy.getX() + (int)(Math.random() * 160 - 80);
-                        int ry = enemy.getY() + (int)(Math.random() * 120 - 60);
-                        triangleEnemies.add(new TriangleEnemy(rx, ry));
-                        try { java.awt.Toolkit.getDefaultToolkit().beep(); } catch (Exception ex) {}
-                        for (int p = 0; p < 8; p++) {
-                            double pa = Math.random() * Math.PI * 2;
-                            enemyProjectiles.add(new EnemyProjectile(rx, ry, pa, 2, new Color(0, 200, 0), 0));
-                        }
-                    }
-                } else {
-                    // Fallback: spawn a triangle near the green circle
-                    int rx = enemy.getX() + (int)(Math.random() * 160 - 80);
-                    int ry = enemy.getY() + (int)(Math.random() * 120 - 60);
-                    triangleEnemies.add(new TriangleEnemy(rx, ry));
-                    try { java.awt.Toolkit.getDefaultToolkit().beep(); } catch (Exception ex) {}
-                    for (int p = 0; p < 8; p++) {
-                        double pa = Math.random() * Math.PI * 2;
-                        enemyProjectiles.add(new EnemyProjectile(rx, ry, pa, 2, new Color(0, 200, 0), 0));
-                    }
-                }
-            }
-
-            if (enemy.isDead()) {
-                if (Math.random() < 0.6) {
-                    healingItems.add(new HealingItem(enemy.getX(), enemy.getY()));
-                }
-                greenCircleEnemies.remove(i);
-            }
+        // Skip game updates if paused
+        if (!isPaused && replay != null) {
+            playReplayFrame();
+        } else if (!isPaused) {
+            recordFrame();
+            world.update(tickInput);
+            autosave();
+        } else {
+            // Nothing moves, so stop interpolating toward the last tick
+            world.storePreviousPositions();
         }
+        profiler.stop(FrameProfiler.Phase.UPDATE, updateStart);
+    }
 
-        // Healing item collision detection
-        for (int i = healingItems.size() - 1; i >= 0; i--) {
-            HealingItem item = healingItems.get(i);
-            if (item.collidesWith(player.getX(), player.getY())) {
-                player.heal(1);
-                if (player.getHP() <= 5) {
-                    int healingCount = 6 - player.getHP();
-                    if (healingCount % 5 == 0) {
-                        unlockAchievement("Medic");
-                    }
-                }
-                healingItems.remove(i);
-            }
-        }
+    // Saves the world once each new wave has started, between ticks
+    private void autosave() {
+        SaveGame save = saveGame;
+        if (save == null || world.getWaveNumber() == savedWave) return;
+        savedWave = world.getWaveNumber();
+        save.save(world);
+    }
 
-        // Enemy projectile updates
-        for (int i = enemyProjectiles.size() - 1; i >= 0; i--) {
-            EnemyProjectile proj = enemyProjectiles.get(i);
-            proj.update();
-            if (proj.isOutOfBounds(WIDTH, HEIGHT)) {
-                enemyProjectiles.remove(i);
-            } else if (player.collidesWith(proj.getX(), proj.getY())) {
-                player.takeDamage(proj.getDamage());
-                enemyProjectiles.remove(i);
-            }
+    // F5, on the simulation thread
+    private void quicksave() {
+        SaveGame save = saveGame;
+        if (save != null && save.save(world)) {
+            System.out.println("GamePanel: saved at wave " + world.getWaveNumber());
         }
+    }
 
-        // Check if player is dead
-        if (player.isDead()) {
-            waveNumber = 1;
-            player.reset(WIDTH / 2, HEIGHT / 2);
-            enemies.clear();
-            triangleEnemies.clear();
-            greenTriangleEnemies.clear();
-            enemyProjectiles.clear();
-            playerProjectiles.clear();
-            healingItems.clear();
-            startWave();
+    // F9: back to the last save, autosave or quicksave. The file is read here
+    // on the EDT and the simulation thread only loads it.
+    private void quickload() {
+        SaveGame save = saveGame;
+        if (save == null) return;
+        if (isRecording()) {
+            System.out.println("GamePanel: can't load a save while recording a replay");
+            return;
         }
+        ByteBuffer state = save.read();
+        if (state == null) return;
+        simulation.post(() -> {
+            world.readState(state);
+            savedWave = world.getWaveNumber();
+            System.out.println("GamePanel: loaded the save at wave " + savedWave);
+        });
     }
 
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        // Draw dash trail
-        if (player.getTrailPositions().size() > 0) {
-            for (int i = 0; i < player.getTrailPositions().size(); i++) {
-                int[] pos = player.getTrailPositions().get(i);
-                float alpha = (float) i / player.getTrailPositions().size();
-                g2d.setColor(new Color(0, 0.5f, 1f, alpha * 0.5f));
-                g2d.fillRect(pos[0] - 20, pos[1] - 20, 40, 40);
-            }
-        }
-
-        // Draw player
-        var playerSprite = SpriteLoader.getSprite("player");
-        if (playerSprite != null) {
-            g2d.drawImage(playerSprite, player.getX() - 20, player.getY() - 20, 40, 40, null);
-        }
+        if (canvas != null) return; // the canvas covers the panel and is drawn by renderFrame
+        paintFrame((Graphics2D) g);
+    }
 
-        // Draw dash cooldown meter below player (only show when cooling down)
-        if (player.getDashCooldown() > 0) {
-            int meterWidth = 30;
-            int meterHeight = 4;
-            int meterX = player.getX() - meterWidth / 2;
-            int meterY = player.getY() + 15;
-            g2d.setColor(Color.DARK_GRAY);
-            g2d.fillRect(meterX, meterY, meterWidth, meterHeight);
-            g2d.setColor(Color.GREEN);
-            int fillWidth = (int) (meterWidth * (1.0 - (double) player.getDashCooldown() / player.getMaxDashCooldown()));
-            g2d.fillRect(meterX, meterY, fillWidth, meterHeight);
-            g2d.setColor(Color.WHITE);
-            g2d.drawRect(meterX, meterY, meterWidth, meterHeight);
-        }
+    // The world drawn into worldBuffer, remade when the panel changes size, then copied onto g2d
+    private void drawWorldBuffered(Graphics2D g2d) {
+        if (worldBuffer == null || worldBuffer.getWidth() != WIDTH || worldBuffer.getHeight() != HEIGHT) {
+            if (worldGraphics != null) worldGraphics.dispose();
+            worldBuffer = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+            worldGraphics = worldBuffer.createGraphics();
+            worldGraphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        }
+        worldGraphics.setColor(Color.BLACK);
+        worldGraphics.fillRect(0, 0, WIDTH, HEIGHT);
+        WorldRenderer.draw(worldGraphics, worldBuffer, renderWorld, renderAlpha);
+        g2d.drawImage(worldBuffer, 0, 0, null);
+    }
 
-        // Draw player projectiles
-        var playerProjSprite = SpriteLoader.getSprite("player_projectile");
-        for (PlayerProjectile proj : playerProjectiles) {
-            if (playerProjSprite != null) {
-                g2d.drawImage(playerProjSprite, proj.getX() - 6, proj.getY() - 6, 12, 12, null);
-            }
-        }
+    // One whole frame: world, HUD, popups, menus and the profiler overlay
+    private void paintFrame(Graphics2D g2d) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        FrameProfiler profiler = renderWorld.getProfiler(); // the simulated world's, shared
+        long paintStart = profiler.start();
 
-        // Draw enemies and boss
-        if (!bossFight) {
-            var enemySprite = SpriteLoader.getSprite("enemy");
-            for (Enemy enemy : enemies) {
-                if (enemySprite != null) {
-                    g2d.drawImage(enemySprite, enemy.getX() - 20, enemy.getY() - 20, 40, 40, null);
-                }
-            }
-            // Draw triangle enemies
-            for (TriangleEnemy enemy : triangleEnemies) {
-                enemy.draw(g2d);
-            }
-            // Draw green triangle enemies
-            for (GreenTriangleEnemy enemy : greenTriangleEnemies) {
-                enemy.draw(g2d);
-            }
-            // Draw purple triangle enemies
-            for (PurpleTriangleEnemy enemy : purpleTriangleEnemies) {
-                enemy.draw(g2d);
-            }
-            // Draw red triangle enemies
-            for (RedTriangleEnemy enemy : redTriangleEnemies) {
-                enemy.draw(g2d);
-            }
-            // Draw purple circle enemies
-            for (PurpleCircleEnemy enemy : purpleCircleEnemies) {
-                enemy.draw(g2d);
-            }
-            // Draw green circle enemies
-            for (GreenCircleEnemy enemy : greenCircleEnemies) {
-                enemy.draw(g2d);
-            }
+        if (softwareBullets) {
+            drawWorldBuffered(g2d);
         } else {
-            if (waveNumber == 20 && purpleBoss != null) {
-                purpleBoss.draw(g2d);
-            } else {
-                boss.draw(g2d);
-            }
-        }
-
-        // Draw healing items
-        for (HealingItem item : healingItems) {
-            item.draw(g2d);
-        }
-
-        // Draw enemy projectiles
-        var enemyProjSprite = SpriteLoader.getSprite("enemy_projectile");
-        for (EnemyProjectile proj : enemyProjectiles) {
-            if (enemyProjSprite != null) {
-                int size = proj.getSize();
-                g2d.drawImage(enemyProjSprite, proj.getX() - size, proj.getY() - size, size * 2, size * 2, null);
-            }
+            WorldRenderer.draw(g2d, renderWorld, renderAlpha);
         }
 
         // Draw UI
-        g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Arial", Font.BOLD, 16));
-        g2d.drawString("HP: " + player.getHP(), 20, 30);
-        g2d.drawString("Wave: " + waveNumber, WIDTH - 150, 30);
-
-        if (bossFight) {
-            g2d.drawString("BOSS", WIDTH / 2 - 30, 30);
-            
-            // Draw boss health bar
-            int barWidth = 300;
-            int barHeight = 20;
-            int barX = (WIDTH - barWidth) / 2;
-            int barY = 50;
-            g2d.setColor(Color.DARK_GRAY);
-            g2d.fillRect(barX, barY, barWidth, barHeight);
-            g2d.setColor(Color.RED);
-            
-            if (waveNumber == 20 && purpleBoss != null) {
-                int healthWidth = (int) (barWidth * ((float) purpleBoss.getHP() / purpleBoss.getMaxHP()));
-                g2d.fillRect(barX, barY, healthWidth, barHeight);
-            } else if (boss != null) {
-                int healthWidth = (int) (barWidth * boss.getHealthPercent());
-                g2d.fillRect(barX, barY, healthWidth, barHeight);
-            }
-            
-            g2d.setColor(Color.WHITE);
-            g2d.drawRect(barX, barY, barWidth, barHeight);
-        }
+        long phaseStart = profiler.start();
+        hud.draw(g2d, renderWorld, WIDTH);
         
         // Draw achievement popups
         for (AchievementPopup popup : achievementPopups) {
             popup.draw(g2d);
         }
+        profiler.stop(FrameProfiler.Phase.DRAW_HUD, phaseStart);
         
         // Draw upgrade menu if showing
+        phaseStart = profiler.start();
         if (showingUpgradeMenu && upgradeMenu != null) {
             upgradeMenu.setSize(WIDTH, HEIGHT);
             upgradeMenu.paintComponent(g2d);
@@ -917,34 +493,104 @@ public class GamePanel extends JPanel {
             pauseMenu.setSize(WIDTH, HEIGHT);
             pauseMenu.paintComponent(g2d);
         }
+        profiler.stop(FrameProfiler.Phase.DRAW_MENUS, phaseStart);
+        profiler.stop(FrameProfiler.Phase.PAINT, paintStart);
+
+        // Profiler overlay goes on top of everything, and isn't counted in the paint time
+        if (profiler.isEnabled()) {
+            ProfilerOverlay.draw(g2d, profiler, renderWorld);
+        }
     }
 
-    public void keyPressed(KeyEvent e) {
-        keysPressed.add(e.getKeyCode());
-        if (e.getKeyCode() == KeyEvent.VK_SPACE) {
-            int dirX = 0, dirY = 0;
-            if (keysPressed.contains(KeyEvent.VK_W)) dirY--;
-            if (keysPressed.contains(KeyEvent.VK_S)) dirY++;
-            if (keysPressed.contains(KeyEvent.VK_A)) dirX--;
-            if (keysPressed.contains(KeyEvent.VK_D)) dirX++;
-            
-            if (dirX == 0 && dirY == 0) {
-                dirX = 1;
+    // Records every frame from now until the run returns to the menu or the game exits
+    private synchronized void startRecording(Path path) {
+        try {
+            recorder = new ReplayRecorder(path, world, world.getWaveNumber(), ReplayRecorder.DEFAULT_KEYFRAME_INTERVAL);
+            System.out.println("GamePanel: recording replay to " + path);
+        } catch (IOException ex) {
+            System.err.println("GamePanel: could not start recording: " + ex.getMessage());
+            return;
+        }
+        // Closing the window exits the JVM, so finish the file from a shutdown hook too
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stopRecording));
+    }
+
+    private synchronized boolean isRecording() {
+        return recorder != null;
+    }
+
+    public synchronized void stopRecording() {
+        if (recorder == null) return;
+        try {
+            recorder.close();
+            System.out.println("GamePanel: recorded " + recorder.getFrameCount() + " frames");
+        } catch (IOException ex) {
+            System.err.println("GamePanel: could not finish recording: " + ex.getMessage());
+        }
+        recorder = null;
+    }
+
+    private synchronized void recordUpgradeChoice(int choice) {
+        if (recorder != null) {
+            recorder.recordUpgradeChoice(choice);
+        }
+    }
+
+    private synchronized void recordFrame() {
+        if (recorder == null) return;
+        try {
+            recorder.recordFrame(tickInput, world);
+        } catch (IOException ex) {
+            System.err.println("GamePanel: recording stopped: " + ex.getMessage());
+            recorder = null;
+        }
+    }
+
+    private void playReplayFrame() {
+        try {
+            if (replay.nextFrame(world, replayInput)) {
+                world.update(replayInput);
+                replayInput.clearEvents();
+                return;
             }
-            player.dash(dirX, dirY);
+        } catch (IOException ex) {
+            System.err.println("GamePanel: replay stopped: " + ex.getMessage());
         }
-        if (e.getKeyCode() == KeyEvent.VK_F11) {
-            // Fullscreen toggle handled by Window
+        // End of the recording: freeze on the last frame
+        System.out.println("GamePanel: replay finished at frame " + replay.getFrameIndex());
+        isPaused = true;
+    }
+
+    // The one place key events come in, from the panel's own listener or from
+    // Window's when the frame has focus instead; AWT gives each event to only one
+    public void keyPressed(KeyEvent e) {
+        if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
+            isPaused = !isPaused;
+            return;
+        }
+        if (e.getKeyCode() == KeyEvent.VK_F3) {
+            simulation.post(() -> world.getProfiler().toggle());
+            return;
+        }
+        if (e.getKeyCode() == KeyEvent.VK_F5) {
+            simulation.post(this::quicksave);
+            return;
+        }
+        if (e.getKeyCode() == KeyEvent.VK_F9) {
+            quickload();
+            return;
         }
+        input.keyPressed(e.getKeyCode());
     }
 
     public void keyReleased(KeyEvent e) {
-        keysPressed.remove(e.getKeyCode());
+        input.keyReleased(e.getKeyCode());
     }
 
-    private void unlockAchievement(String achievement) {
-        if (achievements.unlock(achievement)) {
-            achievementPopups.add(new AchievementPopup(achievement, WIDTH));
+    // Turns on autosaves, F5 and F9. Replays ignore it.
+    public void setSaveGame(SaveGame saveGame) {
+        if (replay == null) {
+            this.saveGame = saveGame;
         }
     }
 
@@ -954,5 +600,6 @@ public class GamePanel extends JPanel {
 
     public interface GamePanelListener {
         void onReturnToMenu();
+        void onRunEnded(RunRecord run); // on the simulation thread when the player dies
     }
 }
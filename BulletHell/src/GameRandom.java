@@ -0,0 +1,54 @@
+import java.nio.ByteBuffer;
+
+// Every random number in a run comes from here. One seed is split into
+// independent streams so that, say, an extra particle roll never shifts the
+// next spawn position, and each enemy and boss gets a stream of its own
+// instead of sharing one generator. Same seed and same input, same run.
+public class GameRandom {
+    private long seed;
+    private final RandomStream spawn; // wave spawn positions and enemy picks
+    private final RandomStream ai; // parent of the per-enemy and per-boss streams
+    private final RandomStream drops; // healing drops and upgrade offers
+    private final RandomStream effects; // cosmetic particles
+
+    public GameRandom(long seed) {
+        this.seed = seed;
+        RandomStream root = new RandomStream(seed);
+        this.spawn = root.split();
+        this.ai = root.split();
+        this.drops = root.split();
+        this.effects = root.split();
+    }
+
+    // Seed for a run nobody asked to reproduce
+    public static long newSeed() {
+        return System.nanoTime() ^ 0x9E3779B97F4A7C15L;
+    }
+
+    // A fresh stream for one enemy or boss, owned by it for its whole life
+    public RandomStream splitAi() {
+        return ai.split();
+    }
+
+    // Binary state for replay keyframes
+    public void writeState(ByteBuffer out) {
+        out.putLong(seed);
+        spawn.writeState(out);
+        ai.writeState(out);
+        drops.writeState(out);
+        effects.writeState(out);
+    }
+
+    public void readState(ByteBuffer in) {
+        seed = in.getLong();
+        spawn.readState(in);
+        ai.readState(in);
+        drops.readState(in);
+        effects.readState(in);
+    }
+
+    public long getSeed() { return seed; }
+    public RandomStream spawn() { return spawn; }
+    public RandomStream drops() { return drops; }
+    public RandomStream effects() { return effects; }
+}
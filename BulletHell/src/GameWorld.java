@@ -0,0 +1,789 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// Game state and rules for one run, with no AWT or Swing dependencies.
+// GamePanel drives it from the Swing timer; HeadlessRunner drives it from the command line.
+public class GameWorld {
+    private static final int PROJECTILE_CELL_SIZE = 64; // broadphase grid cell, about two enemy hitboxes wide
+    private static final Archetype[] ARCHETYPES = Archetype.values();
+    private static final Upgrade.UpgradeType[] UPGRADE_TYPES = Upgrade.UpgradeType.values();
+
+    private int width;
+    private int height;
+
+    private Player player;
+    private EntityStore entities; // every non-boss enemy
+    private ArrayList<PlayerProjectile> playerProjectiles;
+    private EnemyProjectiles enemyProjectiles;
+    private BeamHazards beamHazards; // every live beam, tested against the player once per tick
+    private GameRandom random; // all randomness in the run, from one seed
+    private ArrayList<HealingItem> healingItems;
+    private Boss boss;
+    private PurpleBoss purpleBoss;
+    private ArrayList<DeadEnemy> recentlyDeadEnemies;
+    private int waveNumber = 1;
+    private boolean waveInProgress = false;
+    private int enemiesSpawned = 0;
+    private boolean bossFight = false;
+    private Achievements achievements; // may be null (headless runs don't record achievements)
+    private int totalKills = 0;
+    private int deaths = 0;
+    private long tickCount = 0;
+    private long runStartTick = 0; // tickCount when the player last spawned
+    private int runStartKills = 0; // totalKills then
+    private int runStartWave; // the wave they spawned into
+    private int damageFreakoutWave = -1; // Track current no-damage wave
+    private Upgrade[] offeredUpgrades; // non-null while waiting for the player to pick one
+    private int lastUpgradeWave = 0;
+    private GameWorldListener listener;
+    // What readState has had no room for, kept to read into again
+    private final ArrayList<PlayerProjectile> spareProjectiles = new ArrayList<>();
+    private final ArrayList<HealingItem> spareItems = new ArrayList<>();
+    private final ArrayList<DeadEnemy> spareDeadEnemies = new ArrayList<>();
+    private Boss spareBoss;
+    private PurpleBoss sparePurpleBoss;
+    private Upgrade[] readOffer; // the offer readState reads into
+    private Upgrade[] readOfferUpgrades; // what it's filled from, by slot * UPGRADE_TYPES.length + type
+    private SpatialHash projectileGrid = new SpatialHash(PROJECTILE_CELL_SIZE);
+    private boolean[] consumedProjectiles = new boolean[64]; // player shots used up this tick
+    private int consumedProjectileCount = 0;
+    private boolean verifyBroadphase = false; // also run the brute-force scan and count disagreements
+    private int maxProjectileTravel = 0; // furthest any player shot moved this tick
+    private int broadphasePairs = 0; // enemy/projectile pairs tested this tick
+    private int bruteForcePairs = 0; // pairs a full scan would have tested this tick
+    private long broadphaseMismatches = 0;
+    private EnemyUpdater enemyUpdater; // non-null when enemies update in parallel, see setParallelEnemies
+    private FrameProfiler profiler = new FrameProfiler(); // off until the F3 overlay or --profile turns it on
+
+    public GameWorld(Achievements achievements, int startingWave, int width, int height, long seed) {
+        this.achievements = achievements;
+        this.random = new GameRandom(seed);
+        this.waveNumber = startingWave;
+        this.runStartWave = startingWave;
+        this.width = width;
+        this.height = height;
+
+        player = new Player(width / 2, height / 2);
+        entities = new EntityStore();
+        recentlyDeadEnemies = new ArrayList<>();
+        playerProjectiles = new ArrayList<>();
+        enemyProjectiles = new EnemyProjectiles();
+        beamHazards = new BeamHazards();
+        healingItems = new ArrayList<>();
+
+        startWave();
+    }
+
+    public void setScreenSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+        // Propagate size to boss if present
+        if (purpleBoss != null) {
+            purpleBoss.setScreenSize(width, height);
+        }
+    }
+
+    // Remember where everything was before this tick so the renderer can
+    // draw between the last two simulated states
+    public void storePreviousPositions() {
+        player.storePreviousPosition();
+        for (int i = 0; i < entities.size(); i++) entities.get(i).storePreviousPosition();
+        for (PlayerProjectile proj : playerProjectiles) proj.storePreviousPosition();
+        enemyProjectiles.storePreviousPositions();
+        if (boss != null) boss.storePreviousPosition();
+        if (purpleBoss != null) purpleBoss.storePreviousPosition();
+    }
+
+    // Package-private so the benchmarks can time it on its own
+    void startWave() {
+        // Offer an upgrade every 10 waves (at waves 11, 21, 31, etc.)
+        if (waveNumber > 10 && waveNumber % 10 == 1 && waveNumber > lastUpgradeWave) {
+            offeredUpgrades = Upgrade.getRandomUpgrades(3, random.drops());
+        }
+        
+        // Check wave achievements
+        if (waveNumber >= 5) {
+            unlockAchievement("Wave Survivor");
+        }
+        if (waveNumber >= 10) {
+            if (damageFreakoutWave != waveNumber - 1 || player.getHP() == 5) {
+                unlockAchievement("Untouchable");
+            }
+            damageFreakoutWave = waveNumber;
+        }
+        if (waveNumber >= 20) {
+            unlockAchievement("Wave Master");
+        }
+        if (waveNumber >= 30) {
+            unlockAchievement("Legendary");
+        }
+        
+        if (waveNumber % 10 == 0) {
+            bossFight = true;
+            if (waveNumber == 20) {
+                // Second boss on wave 20
+                purpleBoss = new PurpleBoss(width / 2, 150, width, height, enemyProjectiles, beamHazards,
+                        random.splitAi());
+            } else {
+                // Regular boss on other waves (10, 30, etc.)
+                boss = new Boss(width / 2, 100, waveNumber, beamHazards, random.splitAi());
+            }
+        } else {
+            bossFight = false;
+            // Any boss beams still up stop hurting once the fight is over
+            if (boss != null) boss.retireBeams();
+            if (purpleBoss != null) purpleBoss.retireBeams();
+            entities.clearWaveEnemies();
+            enemiesSpawned = 0;
+            
+            // Scale enemy spawning based on wave
+            // Regular enemies cap at lower numbers, triangles and green triangles increase
+            int regularEnemies = Math.min(2 + waveNumber / 5, 3);
+            if (waveNumber > 20) {
+                regularEnemies = Math.max(0, regularEnemies - 1);
+            }
+            //if (!purpleCircleEnemies.isEmpty()) {
+                //regularEnemies = Math.max(0, regularEnemies - 2); // Further reduce when purple circles present
+            //}
+            
+            for (int i = 0; i < regularEnemies; i++) {
+                entities.add(Enemy.spawnRandom(width, height, waveNumber, random));
+            }
+            
+            // Spawn more triangle enemies as waves progress (reduced if purple circles are present)
+            if (waveNumber >= 2) {
+                int triangleCount = 1 + (waveNumber - 2) / 2;
+                triangleCount = Math.min(triangleCount, 4);
+                if (waveNumber > 20) {
+                    triangleCount = Math.max(0, triangleCount - 1);
+                }
+                if (entities.count(Archetype.PURPLE_CIRCLE) > 0) {
+                    triangleCount = Math.max(0, triangleCount - 2); // Further reduce when purple circles present
+                }
+                for (int i = 0; i < triangleCount; i++) {
+                    int spawnX = width / 4 + (i % 3) * (width / 3) + (int)(random.spawn().nextDouble() * 100 - 50);
+                    entities.add(new TriangleEnemy(spawnX, 30 + i * 20, random.splitAi()));
+                }
+            }
+            
+            // Spawn green triangle OR purple triangle enemies starting from wave 5
+            if (waveNumber >= 5) {
+                int triangleCount = 1 + (waveNumber - 5) / 3;
+                triangleCount = Math.min(triangleCount, 5);
+                if (waveNumber > 20) {
+                    triangleCount = Math.max(0, triangleCount - 1);
+                }
+                if (entities.count(Archetype.PURPLE_CIRCLE) > 0) {
+                    triangleCount = Math.max(1, triangleCount - 2); // Further reduce when purple circles present
+                }
+                
+                // Use purple triangles starting from wave 15
+                if (waveNumber >= 15) {
+                    for (int i = 0; i < triangleCount; i++) {
+                        int spawnX = width / 3 + (i % 2) * (width / 3) + (int)(random.spawn().nextDouble() * 80 - 40);
+                        int spawnY = height / 3 + (int)(random.spawn().nextDouble() * 60 - 30);
+                        if (waveNumber >= 25) {
+                            entities.add(new RedTriangleEnemy(spawnX, spawnY, random.splitAi()));
+                        } else {
+                            entities.add(new PurpleTriangleEnemy(spawnX, spawnY, random.splitAi()));
+                        }
+                    }
+                } else {
+                    // Use green triangles before wave 15
+                    for (int i = 0; i < triangleCount; i++) {
+                        int spawnX = width / 3 + (i % 2) * (width / 3) + (int)(random.spawn().nextDouble() * 80 - 40);
+                        int spawnY = height / 3 + (int)(random.spawn().nextDouble() * 60 - 30);
+                        entities.add(new GreenTriangleEnemy(spawnX, spawnY, random.splitAi()));
+                    }
+                }
+            }
+            
+            // Spawn purple circle enemies starting from wave 11
+            if (waveNumber >= 11) {
+                int purpleCircleCount = 1 + (waveNumber - 11) / 5;
+                purpleCircleCount = Math.min(purpleCircleCount, 3);
+                for (int i = 0; i < purpleCircleCount; i++) {
+                    int spawnX = 100 + (int)(random.spawn().nextDouble() * (width - 200));
+                    int spawnY = 100 + (int)(random.spawn().nextDouble() * (height - 200));
+                    entities.add(new PurpleCircleEnemy(spawnX, spawnY, width, height, random.splitAi()));
+                }
+            }
+
+
+            // Spawn green circle enemies starting after wave 20
+            if (waveNumber >= 21) {
+                int greenCircleCount = 1 + (waveNumber - 21) / 10;
+                greenCircleCount = Math.min(greenCircleCount, 2);
+                for (int i = 0; i < greenCircleCount; i++) {
+                    int spawnX = width / 2 + (int)(random.spawn().nextDouble() * 400 - 200);
+                    int spawnY = height / 3 + (int)(random.spawn().nextDouble() * 120 - 60);
+                    entities.add(new GreenCircleEnemy(spawnX, spawnY, width, height, random.splitAi()));
+                }
+            }
+        }
+        waveInProgress = true;
+    }
+
+    public void update(InputState input) {
+        storePreviousPositions();
+
+        // The simulation holds still until an offered upgrade is chosen
+        if (isAwaitingUpgrade()) {
+            return;
+        }
+        tickCount++;
+
+        long phaseStart = profiler.start();
+        if (input.dash) {
+            int dirX = 0, dirY = 0;
+            if (input.up) dirY--;
+            if (input.down) dirY++;
+            if (input.left) dirX--;
+            if (input.right) dirX++;
+            
+            if (dirX == 0 && dirY == 0) {
+                dirX = 1;
+            }
+            player.dash(dirX, dirY);
+        }
+        if (input.fire) {
+            player.shoot(playerProjectiles, input.aimX, input.aimY);
+        }
+
+        // Player movement
+        player.update(input, width, height);
+
+        // Player projectile updates
+        for (int i = playerProjectiles.size() - 1; i >= 0; i--) {
+            PlayerProjectile proj = playerProjectiles.get(i);
+            proj.update();
+            if (proj.isOutOfBounds(width, height)) {
+                playerProjectiles.remove(i);
+            }
+        }
+        profiler.stop(FrameProfiler.Phase.PLAYER, phaseStart);
+
+        // Boss updates
+        if (bossFight) {
+            phaseStart = profiler.start();
+            if (waveNumber == 20 && purpleBoss != null) {
+                // Purple boss fight
+                purpleBoss.update(player.getX(), player.getY());
+                for (int beeps = purpleBoss.collectBeeps(); beeps > 0; beeps--) {
+                    notifyBeep();
+                }
+
+                // Check player projectile collisions with purple boss
+                for (int j = playerProjectiles.size() - 1; j >= 0; j--) {
+                    PlayerProjectile proj = playerProjectiles.get(j);
+                    if (purpleBoss.collidesWith(proj.getX(), proj.getY())) {
+                        purpleBoss.takeDamage(1);
+                        if (!proj.isPiercing()) {
+                            playerProjectiles.remove(j);
+                        }
+                        break;
+                    }
+                }
+
+                if (purpleBoss.isDead()) {
+                    unlockAchievement("Second Boss");
+                    waveNumber++;
+                    startWave();
+                }
+
+                // Check player collision with purple boss
+                if (purpleBoss.sweptCollidesWith(player.getPrevX(), player.getPrevY(), player.getX(), player.getY())) {
+                    player.takeDamage(1);
+                }
+                profiler.stop(FrameProfiler.Phase.PURPLE_BOSS, phaseStart);
+            } else {
+                // Regular boss fight
+                boss.update(width, height, waveNumber);
+                boss.spawnProjectiles(enemyProjectiles, player.getX(), player.getY(), width, height);
+
+                // Check player projectile collisions with boss
+                for (int j = playerProjectiles.size() - 1; j >= 0; j--) {
+                    PlayerProjectile proj = playerProjectiles.get(j);
+                    if (boss.collidesWith(proj.getX(), proj.getY())) {
+                        boss.takeDamage(1);
+                        if (!proj.isPiercing()) {
+                            playerProjectiles.remove(j);
+                        }
+                        break;
+                    }
+                }
+
+                if (boss.isDead()) {
+                    unlockAchievement("First Boss");
+                    waveNumber++;
+                    startWave();
+                }
+                profiler.stop(FrameProfiler.Phase.BOSS, phaseStart);
+            }
+        }
+
+        // Enemy updates: one loop for every archetype, deaths and revives are
+        // buffered and applied once the loop is done. In parallel, every enemy
+        // has already moved and each one's shots and beams join the world here,
+        // in the same order as when it updates in the loop.
+        phaseStart = profiler.start();
+        buildProjectileGrid();
+        if (enemyUpdater != null) {
+            enemyUpdater.update(this, entities, bossFight);
+        }
+        for (int i = 0; i < entities.size(); i++) {
+            Entity enemy = entities.get(i);
+            Archetype type = enemy.getArchetype();
+            if (bossFight && type.isIdleDuringBossFight()) {
+                continue;
+            }
+            long enemyStart = profiler.start();
+            if (enemyUpdater != null) {
+                enemyUpdater.collect(i, enemyProjectiles, beamHazards);
+            } else {
+                enemy.update(this, enemyProjectiles, beamHazards);
+            }
+
+            // Check player projectile collisions
+            int hit = findProjectileHit(enemy);
+            if (hit != -1) {
+                enemy.takeDamage(1);
+                if (!playerProjectiles.get(hit).isPiercing() || type.consumesPiercingShots()) {
+                    consumedProjectiles[hit] = true;
+                    consumedProjectileCount++;
+                }
+            }
+
+            // Check contact collision with player
+            if (enemy.sweptCollidesWith(player.getPrevX(), player.getPrevY(), player.getX(), player.getY())) {
+                player.takeDamage(type.getContactDamage());
+            }
+
+            // Process revive requests: revive exact recently-dead enemies if available
+            int reviveCount = enemy.collectReviveRequests();
+            for (int r = 0; r < reviveCount; r++) {
+                reviveEnemy(enemy);
+            }
+
+            if (enemy.isDead()) {
+                onEnemyKilled(enemy);
+                entities.remove(i);
+            }
+            profiler.accumulate(type, enemyStart);
+        }
+        entities.applyCommands();
+        removeConsumedProjectiles();
+        profiler.commitArchetypes();
+        profiler.stop(FrameProfiler.Phase.ENEMIES, phaseStart);
+
+        // Beams from bosses and enemies alike, in one pass. Beams of enemies
+        // that just died were retired by applyCommands.
+        phaseStart = profiler.start();
+        if (beamHazards.collidesWith(player.getX(), player.getY())) {
+            player.takeDamage(1);
+        }
+        profiler.stop(FrameProfiler.Phase.BEAMS, phaseStart);
+
+        if (!bossFight && !entities.hasWaveBlockers() && waveInProgress) {
+            waveNumber++;
+            startWave();
+        }
+
+        // Healing item collision detection
+        for (int i = healingItems.size() - 1; i >= 0; i--) {
+            HealingItem item = healingItems.get(i);
+            if (item.collidesWith(player.getX(), player.getY())) {
+                player.heal(1);
+                if (player.getHP() <= 5) {
+                    int healingCount = 6 - player.getHP();
+                    if (healingCount % 5 == 0) {
+                        unlockAchievement("Medic");
+                    }
+                }
+                healingItems.remove(i);
+            }
+        }
+
+        // Enemy projectile updates
+        phaseStart = profiler.start();
+        enemyProjectiles.update();
+        for (int i = enemyProjectiles.size() - 1; i >= 0; i--) {
+            if (enemyProjectiles.isOutOfBounds(i, width, height)) {
+                enemyProjectiles.remove(i);
+            } else if (player.sweptCollidesWith(enemyProjectiles.getPrevX(i), enemyProjectiles.getPrevY(i),
+                                                enemyProjectiles.getX(i), enemyProjectiles.getY(i))) {
+                player.takeDamage(enemyProjectiles.getDamage(i));
+                enemyProjectiles.remove(i);
+            }
+        }
+        profiler.stop(FrameProfiler.Phase.ENEMY_SHOTS, phaseStart);
+
+        // Check if player is dead
+        if (player.isDead()) {
+            deaths++;
+            if (listener != null) {
+                listener.onRunEnded(getCurrentRun(true));
+            }
+            runStartTick = tickCount;
+            runStartKills = totalKills;
+            runStartWave = 1;
+            waveNumber = 1;
+            player.reset(width / 2, height / 2);
+            enemyProjectiles.clear();
+            playerProjectiles.clear();
+            healingItems.clear();
+            startWave();
+        }
+    }
+
+    private void buildProjectileGrid() {
+        int count = playerProjectiles.size();
+        broadphasePairs = 0;
+        bruteForcePairs = 0;
+        projectileGrid.clear(count);
+        if (consumedProjectiles.length < count) {
+            consumedProjectiles = new boolean[Math.max(count, consumedProjectiles.length * 2)];
+        } else {
+            Arrays.fill(consumedProjectiles, 0, count, false);
+        }
+        consumedProjectileCount = 0;
+        maxProjectileTravel = 0;
+        for (int j = 0; j < count; j++) {
+            PlayerProjectile proj = playerProjectiles.get(j);
+            projectileGrid.insert(j, proj.getX(), proj.getY());
+            maxProjectileTravel = Math.max(maxProjectileTravel, Math.max(
+                Math.abs(proj.getX() - proj.getPrevX()), Math.abs(proj.getY() - proj.getPrevY())));
+        }
+    }
+
+    // Index of the projectile that hits this enemy, or -1. Like the old scan from the
+    // end of the list, the newest shot wins when several overlap the hitbox.
+    private int findProjectileHit(Entity enemy) {
+        // Shots are filed by where they ended the tick, so widen the query by how far
+        // they could have come and by where the enemy started
+        int reach = enemy.getArchetype().getHitboxSize() + maxProjectileTravel;
+        int candidates = projectileGrid.query(
+            Math.min(enemy.getX(), enemy.getPrevX()) - reach, Math.min(enemy.getY(), enemy.getPrevY()) - reach,
+            Math.max(enemy.getX(), enemy.getPrevX()) + reach, Math.max(enemy.getY(), enemy.getPrevY()) + reach);
+        broadphasePairs += candidates;
+        bruteForcePairs += playerProjectiles.size() - consumedProjectileCount;
+
+        int hit = -1;
+        for (int k = 0; k < candidates; k++) {
+            int j = projectileGrid.getResult(k);
+            if (j > hit && !consumedProjectiles[j]) {
+                PlayerProjectile proj = playerProjectiles.get(j);
+                if (enemy.sweptCollidesWith(proj.getPrevX(), proj.getPrevY(), proj.getX(), proj.getY())) {
+                    hit = j;
+                }
+            }
+        }
+        if (verifyBroadphase && hit != findProjectileHitBruteForce(enemy)) {
+            broadphaseMismatches++;
+        }
+        return hit;
+    }
+
+    private int findProjectileHitBruteForce(Entity enemy) {
+        for (int j = playerProjectiles.size() - 1; j >= 0; j--) {
+            PlayerProjectile proj = playerProjectiles.get(j);
+            if (!consumedProjectiles[j] && enemy.sweptCollidesWith(proj.getPrevX(), proj.getPrevY(), proj.getX(), proj.getY())) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    // Drops shots used up during the enemy loop, keeping the rest in order
+    private void removeConsumedProjectiles() {
+        if (consumedProjectileCount == 0) {
+            return;
+        }
+        int write = 0;
+        for (int j = 0; j < playerProjectiles.size(); j++) {
+            if (!consumedProjectiles[j]) {
+                playerProjectiles.set(write++, playerProjectiles.get(j));
+            }
+        }
+        playerProjectiles.subList(write, playerProjectiles.size()).clear();
+    }
+
+    private void onEnemyKilled(Entity enemy) {
+        Archetype type = enemy.getArchetype();
+        if (type.countsKill()) {
+            totalKills++;
+            if (totalKills == 1 && type == Archetype.ENEMY) {
+                unlockAchievement("First Blood");
+            }
+            if (totalKills >= 50) {
+                unlockAchievement("Sharpshooter");
+            }
+        }
+        if (type.getDropChance() > 0 && random.drops().nextDouble() < type.getDropChance()) {
+            healingItems.add(new HealingItem(enemy.getX(), enemy.getY()));
+        }
+        // Record exact dead enemy for potential revival
+        if (type.isRevivable()) {
+            recentlyDeadEnemies.add(new DeadEnemy(type, enemy.getX(), enemy.getY()));
+        }
+        if (type == Archetype.PURPLE_CIRCLE) {
+            unlockAchievement("Purple Hunter");
+        }
+    }
+
+    private void reviveEnemy(Entity reviver) {
+        int rx, ry;
+        if (!recentlyDeadEnemies.isEmpty()) {
+            // Recreate the exact enemy type at the same position
+            DeadEnemy dead = recentlyDeadEnemies.remove(0);
+            rx = dead.x;
+            ry = dead.y;
+            entities.spawn(dead.type.create(rx, ry, width, height, random.splitAi()));
+            // Play revive sound and spawn green particle burst at revived position
+            notifyBeep();
+            for (int p = 0; p < 12; p++) {
+                double pa = random.effects().nextDouble() * Math.PI * 2;
+                int psz = 2 + (int)(random.effects().nextDouble() * 3);
+                enemyProjectiles.spawn(rx, ry, pa, psz, EnemyProjectiles.GREEN, 0);
+            }
+        } else {
+            // Fallback: spawn a triangle near the green circle
+            rx = reviver.getX() + (int)(random.spawn().nextDouble() * 160 - 80);
+            ry = reviver.getY() + (int)(random.spawn().nextDouble() * 120 - 60);
+            entities.spawn(new TriangleEnemy(rx, ry, random.splitAi()));
+            notifyBeep();
+            for (int p = 0; p < 8; p++) {
+                double pa = random.effects().nextDouble() * Math.PI * 2;
+                enemyProjectiles.spawn(rx, ry, pa, 2, EnemyProjectiles.DARK_GREEN, 0);
+            }
+        }
+    }
+
+    public boolean isAwaitingUpgrade() {
+        return offeredUpgrades != null;
+    }
+
+    public Upgrade[] getOfferedUpgrades() {
+        return offeredUpgrades;
+    }
+
+    public void chooseUpgrade(Upgrade upgrade) {
+        upgrade.apply(player);
+        offeredUpgrades = null;
+        lastUpgradeWave = waveNumber;
+    }
+
+    // Full simulation state, for replay keyframes. Listener, achievements and
+    // the broadphase scratch arrays are not part of it.
+    public void writeState(ByteBuffer out) {
+        out.putInt(width);
+        out.putInt(height);
+        random.writeState(out);
+        player.writeState(out);
+        entities.writeState(out);
+        out.putInt(playerProjectiles.size());
+        for (PlayerProjectile proj : playerProjectiles) {
+            proj.writeState(out);
+        }
+        enemyProjectiles.writeState(out);
+        out.putInt(healingItems.size());
+        for (HealingItem item : healingItems) {
+            item.writeState(out);
+        }
+        StateIO.putBoolean(out, boss != null);
+        if (boss != null) boss.writeState(out);
+        StateIO.putBoolean(out, purpleBoss != null);
+        if (purpleBoss != null) purpleBoss.writeState(out);
+        out.putInt(recentlyDeadEnemies.size());
+        for (DeadEnemy dead : recentlyDeadEnemies) {
+            dead.writeState(out);
+        }
+        out.putInt(waveNumber);
+        StateIO.putBoolean(out, waveInProgress);
+        out.putInt(enemiesSpawned);
+        StateIO.putBoolean(out, bossFight);
+        out.putInt(totalKills);
+        out.putInt(deaths);
+        out.putLong(tickCount);
+        out.putLong(runStartTick);
+        out.putInt(runStartKills);
+        out.putInt(runStartWave);
+        out.putInt(damageFreakoutWave);
+        out.putInt(offeredUpgrades == null ? -1 : offeredUpgrades.length);
+        if (offeredUpgrades != null) {
+            for (Upgrade upgrade : offeredUpgrades) {
+                out.put((byte) upgrade.getType().ordinal());
+            }
+        }
+        out.putInt(lastUpgradeWave);
+    }
+
+    // Reads into the objects this world already has wherever it can, so
+    // loading a snapshot into the same world every frame allocates nothing
+    public void readState(ByteBuffer in) {
+        width = in.getInt();
+        height = in.getInt();
+        random.readState(in);
+        player.readState(in);
+        entities.readState(in, width, height);
+        StateIO.getList(in, playerProjectiles, spareProjectiles, PlayerProjectile::blank, PlayerProjectile::readState);
+        enemyProjectiles.readState(in);
+        StateIO.getList(in, healingItems, spareItems, HealingItem::blank, HealingItem::readState);
+        // Placeholder streams are overwritten by the saved ones
+        if (StateIO.getBoolean(in)) {
+            if (boss == null) {
+                boss = spareBoss != null ? spareBoss : new Boss(0, 0, 0, beamHazards, new RandomStream(0));
+            }
+            boss.readState(in);
+        } else if (boss != null) {
+            spareBoss = boss;
+            boss = null;
+        }
+        if (StateIO.getBoolean(in)) {
+            if (purpleBoss == null) {
+                purpleBoss = sparePurpleBoss != null ? sparePurpleBoss
+                        : new PurpleBoss(0, 0, width, height, enemyProjectiles, beamHazards, new RandomStream(0));
+            }
+            purpleBoss.readState(in);
+        } else if (purpleBoss != null) {
+            sparePurpleBoss = purpleBoss;
+            purpleBoss = null;
+        }
+        StateIO.getList(in, recentlyDeadEnemies, spareDeadEnemies, DeadEnemy::new, DeadEnemy::readState);
+        waveNumber = in.getInt();
+        waveInProgress = StateIO.getBoolean(in);
+        enemiesSpawned = in.getInt();
+        bossFight = StateIO.getBoolean(in);
+        totalKills = in.getInt();
+        deaths = in.getInt();
+        tickCount = in.getLong();
+        runStartTick = in.getLong();
+        runStartKills = in.getInt();
+        runStartWave = in.getInt();
+        damageFreakoutWave = in.getInt();
+        int offered = in.getInt();
+        if (offered < 0) {
+            offeredUpgrades = null;
+        } else {
+            if (readOffer == null || readOffer.length != offered) {
+                readOffer = new Upgrade[offered];
+                readOfferUpgrades = new Upgrade[offered * UPGRADE_TYPES.length];
+            }
+            for (int i = 0; i < offered; i++) {
+                int k = i * UPGRADE_TYPES.length + in.get();
+                if (readOfferUpgrades[k] == null) {
+                    readOfferUpgrades[k] = new Upgrade(UPGRADE_TYPES[k % UPGRADE_TYPES.length]);
+                }
+                readOffer[i] = readOfferUpgrades[k];
+            }
+            offeredUpgrades = readOffer;
+        }
+        lastUpgradeWave = in.getInt();
+
+        // Every beam object was replaced, so rebuild the registry from the owners
+        beamHazards.clear();
+        for (int i = 0; i < entities.size(); i++) {
+            entities.get(i).registerHazards(beamHazards);
+        }
+        if (boss != null) boss.registerBeams();
+        if (purpleBoss != null) purpleBoss.registerBeams();
+    }
+
+    private void unlockAchievement(String achievement) {
+        if (achievements != null && achievements.unlock(achievement) && listener != null) {
+            listener.onAchievementUnlocked(achievement);
+        }
+    }
+
+    private void notifyBeep() {
+        if (listener != null) {
+            listener.onBeep();
+        }
+    }
+
+    public Player getPlayer() { return player; }
+    public EntityStore getEntities() { return entities; }
+    public int getBroadphasePairs() { return broadphasePairs; }
+    public int getBruteForcePairs() { return bruteForcePairs; }
+    public long getBroadphaseMismatches() { return broadphaseMismatches; }
+    public ArrayList<PlayerProjectile> getPlayerProjectiles() { return playerProjectiles; }
+    public EnemyProjectiles getEnemyProjectiles() { return enemyProjectiles; }
+    public BeamHazards getBeamHazards() { return beamHazards; }
+    public FrameProfiler getProfiler() { return profiler; }
+    public ArrayList<HealingItem> getHealingItems() { return healingItems; }
+    public Boss getBoss() { return boss; }
+    public PurpleBoss getPurpleBoss() { return purpleBoss; }
+    public int getWaveNumber() { return waveNumber; }
+    public boolean isBossFight() { return bossFight; }
+    public int getTotalKills() { return totalKills; }
+    public int getDeaths() { return deaths; }
+    public long getTickCount() { return tickCount; }
+
+    // The run since the player last spawned, ending now
+    public RunRecord getCurrentRun(boolean died) {
+        return new RunRecord(System.currentTimeMillis(), getSeed(), runStartWave, waveNumber,
+            totalKills - runStartKills, (int) (tickCount - runStartTick), died);
+    }
+    public long getSeed() { return random.getSeed(); }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    public void setVerifyBroadphase(boolean verify) {
+        this.verifyBroadphase = verify;
+    }
+
+    // Moves every enemy at once on the ForkJoinPool's threads instead of one
+    // after another; the world comes out the same either way. In parallel the
+    // per-archetype profiler timings leave out the movement and AI.
+    public void setParallelEnemies(boolean parallel) {
+        enemyUpdater = parallel ? new EnemyUpdater() : null;
+    }
+
+    // Times into another world's profiler from now on. GamePanel draws a copy
+    // of the simulated world and wants the draw timings next to its tick's.
+    public void useProfilerOf(GameWorld other) {
+        profiler = other.profiler;
+    }
+
+    public boolean isParallelEnemies() {
+        return enemyUpdater != null;
+    }
+
+    public void setListener(GameWorldListener listener) {
+        this.listener = listener;
+    }
+
+    // Side effects the simulation can't perform itself (popups, sound)
+    public interface GameWorldListener {
+        void onAchievementUnlocked(String achievement);
+        void onBeep();
+        void onRunEnded(RunRecord run); // the player died; the world resets to wave 1 right after
+    }
+
+    // An enemy a green circle can bring back, where it died
+    private static class DeadEnemy {
+        Archetype type;
+        int x, y;
+
+        DeadEnemy() {}
+
+        DeadEnemy(Archetype type, int x, int y) {
+            this.type = type;
+            this.x = x;
+            this.y = y;
+        }
+
+        void writeState(ByteBuffer out) {
+            out.put((byte) type.ordinal());
+            out.putInt(x);
+            out.putInt(y);
+        }
+
+        void readState(ByteBuffer in) {
+            type = ARCHETYPES[in.get()];
+            x = in.getInt();
+            y = in.getInt();
+        }
+    }
+}
@@ -1,9 +1,7 @@
-import java.awt.*;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 
-public class GreenCircleEnemy {
-    private int x, y;
-    private int hp = 6;
+public class GreenCircleEnemy extends Entity {
     private int screenWidth, screenHeight;
     private int reviveTimer = 0;
     private int reviveInterval = 600; // every 10 seconds
@@ -11,13 +9,17 @@ public class GreenCircleEnemy {
     private int pendingReviveCount = 0;
     private int pulseTimer = 0;
 
-    public GreenCircleEnemy(int x, int y, int screenWidth, int screenHeight) {
-        this.x = x;
-        this.y = y;
+    public GreenCircleEnemy(int x, int y, int screenWidth, int screenHeight, RandomStream random) {
+        super(Archetype.GREEN_CIRCLE, x, y, 6, random);
         this.screenWidth = screenWidth;
         this.screenHeight = screenHeight;
         this.pendingReviveCount = 0;
-        this.reviveTimer = (int)(Math.random() * reviveInterval / 2);
+        this.reviveTimer = (int)(random.nextDouble() * reviveInterval / 2);
+    }
+
+    @Override
+    public void update(GameWorld world, EnemyProjectiles projectiles, BeamHazards hazards) {
+        update(world.getWidth(), world.getHeight(), world.getPlayer().hasSlowField());
     }
 
     public void update(int width, int height) {
@@ -34,45 +36,44 @@ public class GreenCircleEnemy {
         }
 
         if (reviveTimer >= reviveInterval) {
-            // Time to request revives: request a count (GamePanel will revive exact recent deaths)
-            int count = 1 + (int)(Math.random() * 3);
+            // Time to request revives: request a count (GameWorld will revive exact recent deaths)
+            int count = 1 + (int)(random.nextDouble() * 3);
             pendingReviveCount = count;
             reviveTimer = 0;
         }
     }
 
-    // GamePanel will call this each tick to collect and clear requests
-    // GamePanel will call this each tick to get how many revives are requested
+    // GameWorld calls this each tick to collect and clear revive requests
+    @Override
     public int collectReviveRequests() {
         int out = pendingReviveCount;
         pendingReviveCount = 0;
         return out;
     }
 
-    public void takeDamage(int d) { hp -= d; }
-    public boolean isDead() { return hp <= 0; }
-    public boolean collidesWith(int px, int py) { return Math.abs(x - px) < 28 && Math.abs(y - py) < 28; }
-    public int getX() { return x; }
-    public int getY() { return y; }
+    public int getReviveTimer() { return reviveTimer; }
+    public int getReviveInterval() { return reviveInterval; }
+    public int getWarningDuration() { return warningDuration; }
 
-    public void draw(Graphics2D g) {
-        // Draw green circle
-        g.setColor(new Color(60, 180, 80));
-        g.fillOval(x - 22, y - 22, 44, 44);
-        g.setColor(new Color(160, 255, 160));
-        g.setStroke(new BasicStroke(2));
-        g.drawOval(x - 22, y - 22, 44, 44);
+    @Override
+    protected void writeFields(ByteBuffer out) {
+        out.putInt(screenWidth);
+        out.putInt(screenHeight);
+        out.putInt(reviveTimer);
+        out.putInt(reviveInterval);
+        out.putInt(warningDuration);
+        out.putInt(pendingReviveCount);
+        out.putInt(pulseTimer);
+    }
 
-        // Revive warning pulsing ring
-        if (reviveTimer >= reviveInterval - warningDuration) {
-            float t = (float)(reviveInterval - reviveTimer) / (float)warningDuration;
-            float prog = 1f - Math.max(0f, Math.min(1f, t));
-            int size = 60 + (int)(prog * 40);
-            float alpha = 0.6f * prog;
-            g.setColor(new Color(0f, 1f, 0f, alpha));
-            g.fillOval(x - size/2, y - size/2, size, size);
-            g.setColor(new Color(0f, 1f, 0f, Math.min(0.9f, alpha + 0.2f)));
-            g.drawOval(x - size/2, y - size/2, size, size);
-        }
+    @Override
+    protected void readFields(ByteBuffer in) {
+        screenWidth = in.getInt();
+        screenHeight = in.getInt();
+        reviveTimer = in.getInt();
+        reviveInterval = in.getInt();
+        warningDuration = in.getInt();
+        pendingReviveCount = in.getInt();
+        pulseTimer = in.getInt();
     }
 }
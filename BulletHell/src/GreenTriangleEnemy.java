@@ -1,9 +1,7 @@
-import java.awt.*;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 
-public class GreenTriangleEnemy {
-    private int x, y;
-    private int hp = 2;
+public class GreenTriangleEnemy extends Entity {
     private int spinTimer = 0;
     private int spinDuration;
     private int dashDuration = 0;
@@ -13,16 +11,22 @@ public class GreenTriangleEnemy {
     private double dashAngle = 0;
     private double spinAngle = 0;
     private ArrayList<int[]> trailPositions;
+    private final ArrayList<int[]> spareTrail = new ArrayList<>(); // for readFields
     private static final int DASH_SPEED = 6;
     private static final double SPIN_SPEED = 0.3;
     private int state = 0; // 0 = spinning, 1 = dashing, 2 = waiting
 
-    public GreenTriangleEnemy(int x, int y) {
-        this.x = x;
-        this.y = y;
+    public GreenTriangleEnemy(int x, int y, RandomStream random) {
+        super(Archetype.GREEN_TRIANGLE, x, y, 2, random);
         this.trailPositions = new ArrayList<>();
         this.spinDuration = 60;
-        this.waitDuration = 180 + (int)(Math.random() * 120); // 3-5 seconds
+        this.waitDuration = 180 + (int)(random.nextDouble() * 120); // 3-5 seconds
+    }
+
+    @Override
+    public void update(GameWorld world, EnemyProjectiles projectiles, BeamHazards hazards) {
+        Player player = world.getPlayer();
+        update(world.getWidth(), world.getHeight(), player.getX(), player.getY(), player.hasSlowField());
     }
 
     public void update(int width, int height, int playerX, int playerY) {
@@ -96,72 +100,36 @@ public class GreenTriangleEnemy {
         }
     }
 
-    public void takeDamage(int damage) {
-        hp -= damage;
-    }
+    public int getState() { return state; }
+    public double getSpinAngle() { return spinAngle; }
+    public double getDashAngle() { return dashAngle; }
+    public ArrayList<int[]> getTrailPositions() { return trailPositions; }
 
-    public boolean isDead() {
-        return hp <= 0;
+    @Override
+    protected void writeFields(ByteBuffer out) {
+        out.putInt(spinTimer);
+        out.putInt(spinDuration);
+        out.putInt(dashDuration);
+        out.putInt(dashTimer);
+        out.putInt(waitTimer);
+        out.putInt(waitDuration);
+        out.putDouble(dashAngle);
+        out.putDouble(spinAngle);
+        StateIO.putPoints(out, trailPositions);
+        out.putInt(state);
     }
 
-    public boolean collidesWith(int px, int py) {
-        return Math.abs(x - px) < 18 && Math.abs(y - py) < 18;
+    @Override
+    protected void readFields(ByteBuffer in) {
+        spinTimer = in.getInt();
+        spinDuration = in.getInt();
+        dashDuration = in.getInt();
+        dashTimer = in.getInt();
+        waitTimer = in.getInt();
+        waitDuration = in.getInt();
+        dashAngle = in.getDouble();
+        spinAngle = in.getDouble();
+        StateIO.getPoints(in, trailPositions, spareTrail);
+        state = in.getInt();
     }
-
-    public void draw(Graphics2D g) {
-        // Draw trail during dashing
-        if (state == 1) {
-            for (int i = 0; i < trailPositions.size(); i++) {
-                int[] pos = trailPositions.get(i);
-                float alpha = (float) i / trailPositions.size();
-                var sprite = SpriteLoader.getSprite("green_triangle_enemy");
-                if (sprite != null) {
-                    // Calculate rotation angle for trail (same as movement direction)
-                    double trailRotation = dashAngle + Math.PI / 2;
-                    
-                    // Save graphics transform
-                    java.awt.geom.AffineTransform originalTransform = g.getTransform();
-                    
-                    // Create composite to set alpha
-                    g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha * 0.5f));
-                    
-                    // Translate to position, rotate, and draw
-                    g.translate(pos[0], pos[1]);
-                    g.rotate(trailRotation);
-                    g.drawImage(sprite, -20, -20, 40, 40, null);
-                    
-                    // Restore transform
-                    g.setTransform(originalTransform);
-                    g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1f));
-                }
-            }
-        }
-
-        // Draw sprite with rotation
-        var sprite = SpriteLoader.getSprite("green_triangle_enemy");
-        if (sprite != null) {
-            // Calculate rotation angle
-            double rotationAngle;
-            if (state == 0) {
-                rotationAngle = spinAngle;
-            } else {
-                // Add π/2 because sprite point faces up, but dashAngle is measured from right
-                rotationAngle = dashAngle + Math.PI / 2;
-            }
-            
-            // Save graphics transform
-            java.awt.geom.AffineTransform originalTransform = g.getTransform();
-            
-            // Translate to position, rotate around center, then draw
-            g.translate(x, y);
-            g.rotate(rotationAngle);
-            g.drawImage(sprite, -20, -20, 40, 40, null);
-            
-            // Restore transform
-            g.setTransform(originalTransform);
-        }
-    }
-
-    public int getX() { return x; }
-    public int getY() { return y; }
 }
@@ -0,0 +1,241 @@
+// Runs the simulation without a display, for balance checks and soak tests.
+// Usage: java -Djava.awt.headless=true HeadlessRunner [--ticks N] [--wave W] [--seed S] [--verify-broadphase]
+//        [--record FILE] [--replay FILE [--seek FRAME]] [--profile] [--parallel-enemies] [--verify-parallel]
+// The same seed, wave and tick count always replay the same run.
+// --record writes the bot's run to a replay file; --replay plays one back instead of the bot,
+// checking the world against every keyframe it passes and exiting 1 on a desync.
+// --verify-broadphase checks every projectile hit against a brute-force scan and exits 1 on any difference.
+// --profile prints the F3 overlay's update timings for the last few seconds of the run.
+// --parallel-enemies moves the enemies on the ForkJoinPool's threads; --verify-parallel does too,
+// and also runs a second world with serial enemies, exiting 1 the first tick the two differ.
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+
+public class HeadlessRunner {
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 700;
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+
+        long ticks = 36000; // ten minutes of game time at 60 Hz
+        int startingWave = 1;
+        long seed = GameRandom.newSeed();
+        boolean verifyBroadphase = false;
+        String recordFile = null;
+        String replayFile = null;
+        long seekFrame = -1;
+        boolean profile = false;
+        boolean parallelEnemies = false;
+        boolean verifyParallel = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--ticks":
+                    ticks = Long.parseLong(args[++i]);
+                    break;
+                case "--wave":
+                    startingWave = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--verify-broadphase":
+                    verifyBroadphase = true;
+                    break;
+                case "--record":
+                    recordFile = args[++i];
+                    break;
+                case "--replay":
+                    replayFile = args[++i];
+                    break;
+                case "--seek":
+                    seekFrame = Long.parseLong(args[++i]);
+                    break;
+                case "--profile":
+                    profile = true;
+                    break;
+                case "--parallel-enemies":
+                    parallelEnemies = true;
+                    break;
+                case "--verify-parallel":
+                    parallelEnemies = true;
+                    verifyParallel = true;
+                    break;
+                default:
+                    System.err.println("Unknown argument: " + args[i]);
+                    System.err.println("Usage: HeadlessRunner [--ticks N] [--wave W] [--seed S] [--verify-broadphase]"
+                            + " [--record FILE] [--replay FILE [--seek FRAME]] [--profile] [--parallel-enemies] [--verify-parallel]");
+                    System.exit(2);
+            }
+        }
+        if (verifyParallel && replayFile != null) {
+            System.err.println("--verify-parallel runs the bot; a replay already checks its keyframes");
+            System.exit(2);
+        }
+
+        GameWorld world;
+        ReplayReader replay = null;
+        ReplayRecorder recorder = null;
+        if (replayFile != null) {
+            replay = new ReplayReader(Paths.get(replayFile));
+            replay.setVerifyKeyframes(true);
+            seed = replay.getSeed();
+            startingWave = replay.getStartingWave();
+            world = replay.createWorld();
+            if (seekFrame > 0) {
+                long seekStart = System.nanoTime();
+                replay.seek(world, seekFrame);
+                System.out.printf("seek to frame %d: %.1f ms%n", replay.getFrameIndex(),
+                        (System.nanoTime() - seekStart) / 1e6);
+            }
+        } else {
+            world = new GameWorld(null, startingWave, WIDTH, HEIGHT, seed);
+            if (recordFile != null) {
+                recorder = new ReplayRecorder(Paths.get(recordFile), world, startingWave,
+                        ReplayRecorder.DEFAULT_KEYFRAME_INTERVAL);
+            }
+        }
+        world.setVerifyBroadphase(verifyBroadphase);
+        world.setParallelEnemies(parallelEnemies);
+        GameWorld serialWorld = verifyParallel ? new GameWorld(null, startingWave, WIDTH, HEIGHT, seed) : null;
+        StateIO parallelState = new StateIO();
+        StateIO serialState = new StateIO();
+        long parallelMismatchTick = -1;
+        FrameProfiler profiler = world.getProfiler();
+        profiler.setEnabled(profile);
+        InputState input = new InputState();
+        int highestWave = startingWave;
+        long peakEnemyProjectiles = 0;
+        long broadphasePairs = 0;
+        long bruteForcePairs = 0;
+
+        long startTime = System.nanoTime();
+        long tick = 0;
+        for (; tick < ticks; tick++) {
+            if (replay != null) {
+                if (!replay.nextFrame(world, input)) break;
+            } else {
+                if (world.isAwaitingUpgrade()) {
+                    world.chooseUpgrade(world.getOfferedUpgrades()[0]);
+                    if (recorder != null) recorder.recordUpgradeChoice(0);
+                }
+                if (serialWorld != null && serialWorld.isAwaitingUpgrade()) {
+                    serialWorld.chooseUpgrade(serialWorld.getOfferedUpgrades()[0]);
+                }
+                scriptInput(world, input, tick);
+                if (recorder != null) recorder.recordFrame(input, world);
+            }
+            long updateStart = profiler.start();
+            world.update(input);
+            profiler.stop(FrameProfiler.Phase.UPDATE, updateStart);
+            if (serialWorld != null) {
+                serialWorld.update(input);
+                ByteBuffer parallel = parallelState.save(world);
+                if (!parallel.equals(serialState.save(serialWorld))) {
+                    parallelMismatchTick = tick;
+                    tick++;
+                    break;
+                }
+            }
+            input.clearEvents();
+
+            highestWave = Math.max(highestWave, world.getWaveNumber());
+            peakEnemyProjectiles = Math.max(peakEnemyProjectiles, world.getEnemyProjectiles().size());
+            broadphasePairs += world.getBroadphasePairs();
+            bruteForcePairs += world.getBruteForcePairs();
+        }
+        long elapsed = System.nanoTime() - startTime;
+        ticks = tick;
+        if (recorder != null) {
+            recorder.close();
+            System.out.println("recorded " + recorder.getFrameCount() + " frames to " + recordFile);
+        }
+
+        double seconds = elapsed / 1e9;
+        System.out.println("seed: " + seed);
+        System.out.printf("ticks: %d in %.2f s (%.0f ticks/s)%n", ticks, seconds, ticks / seconds);
+        System.out.println("wave: " + world.getWaveNumber() + " (highest " + highestWave + ")");
+        System.out.println("kills: " + world.getTotalKills() + ", deaths: " + world.getDeaths());
+        System.out.println("enemy projectiles: " + world.getEnemyProjectiles().size() + " (peak " + peakEnemyProjectiles + ")");
+        System.out.printf("projectile pairs tested: %d broadphase vs %d brute force (%.1f%%)%n",
+                broadphasePairs, bruteForcePairs, bruteForcePairs == 0 ? 0.0 : 100.0 * broadphasePairs / bruteForcePairs);
+        if (profile) {
+            printProfile(profiler);
+        }
+        if (replay != null) {
+            replay.close();
+            System.out.println("keyframes checked: " + replay.getKeyframesChecked() + ", desyncs: " + replay.getDesyncs());
+            if (replay.getDesyncs() > 0) {
+                System.exit(1);
+            }
+        }
+        if (verifyParallel) {
+            if (parallelMismatchTick >= 0) {
+                System.out.println("parallel enemies: world differs from serial at tick " + parallelMismatchTick);
+                System.exit(1);
+            }
+            System.out.println("parallel enemies: identical to serial for " + ticks + " ticks");
+        }
+        if (verifyBroadphase) {
+            long mismatches = world.getBroadphaseMismatches();
+            System.out.println("broadphase mismatches: " + mismatches);
+            if (mismatches > 0) {
+                System.exit(1);
+            }
+        }
+    }
+
+    private static void printProfile(FrameProfiler profiler) {
+        System.out.printf("%-24s %7s %7s %7s%n", "last " + FrameProfiler.SAMPLES + " ticks (us)", "p50", "p99", "max");
+        for (FrameProfiler.Phase phase : FrameProfiler.Phase.values()) {
+            if (phase == FrameProfiler.Phase.PAINT) break; // nothing is painted headless
+            printProfileRow(phase.getLabel(), profiler.getPercentile(phase, 0.5),
+                    profiler.getPercentile(phase, 0.99), profiler.getMax(phase));
+            if (phase == FrameProfiler.Phase.ENEMIES) {
+                for (Archetype type : Archetype.values()) {
+                    if (profiler.getSampleCount(type) == 0) continue;
+                    printProfileRow("    " + type.name().toLowerCase(), profiler.getPercentile(type, 0.5),
+                            profiler.getPercentile(type, 0.99), profiler.getMax(type));
+                }
+            }
+        }
+    }
+
+    private static void printProfileRow(String label, long p50, long p99, long max) {
+        System.out.printf("%-24s %7d %7d %7d%n", label, p50 / 1000, p99 / 1000, max / 1000);
+    }
+
+    // Simple bot: circle around the middle of the screen, dash now and then and
+    // keep shooting at the boss or the first enemy it can find. The benchmarks drive
+    // their world ticks with it too.
+    static void scriptInput(GameWorld world, InputState input, long tick) {
+        int phase = (int) (tick / 90 % 4);
+        input.up = phase == 0;
+        input.right = phase == 1;
+        input.down = phase == 2;
+        input.left = phase == 3;
+        input.dash = tick % 240 == 0;
+
+        int[] target = findTarget(world);
+        if (target != null && tick % 6 == 0) {
+            input.fire = true;
+            input.aimX = target[0];
+            input.aimY = target[1];
+        }
+    }
+
+    private static int[] findTarget(GameWorld world) {
+        if (world.getPurpleBoss() != null && world.isBossFight() && world.getWaveNumber() == 20) {
+            return new int[]{world.getPurpleBoss().getX(), world.getPurpleBoss().getY()};
+        }
+        if (world.getBoss() != null && world.isBossFight()) {
+            return new int[]{world.getBoss().getX(), world.getBoss().getY()};
+        }
+        if (!world.getEntities().isEmpty()) {
+            Entity enemy = world.getEntities().get(0);
+            return new int[]{enemy.getX(), enemy.getY()};
+        }
+        return null;
+    }
+}
@@ -1,4 +1,4 @@
-import java.awt.*;
+import java.nio.ByteBuffer;
 
 public class HealingItem {
     private int x, y;
@@ -8,17 +8,25 @@ public class HealingItem {
         this.y = y;
     }
 
-    public void draw(Graphics2D g) {
-        var sprite = SpriteLoader.getSprite("healing_item");
-        if (sprite != null) {
-            g.drawImage(sprite, x - 12, y - 12, 24, 24, null);
-        }
-    }
-
     public boolean collidesWith(int px, int py) {
         return Math.abs(x - px) < 15 && Math.abs(y - py) < 15;
     }
 
+    public void writeState(ByteBuffer out) {
+        out.putInt(x);
+        out.putInt(y);
+    }
+
+    public void readState(ByteBuffer in) {
+        x = in.getInt();
+        y = in.getInt();
+    }
+
+    // An item for readState to fill in
+    public static HealingItem blank() {
+        return new HealingItem(0, 0);
+    }
+
     public int getX() { return x; }
     public int getY() { return y; }
 }
@@ -0,0 +1,41 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// The HUD drawn once into a translucent strip the width of the screen and
+// blitted every frame after that. HP, the wave number and the boss bar change a
+// few times a minute, so the image is only drawn again when one of them, the
+// boss fight or the screen width differs from what's in it.
+public class HudLayer {
+    private BufferedImage image;
+    private Graphics2D imageGraphics;
+    private int hp, wave, bossHealth; // what the image shows; bossHealth is -1 outside boss fights
+
+    public void draw(Graphics2D g2d, GameWorld world, int width) {
+        int hp = world.getPlayer().getHP();
+        int wave = world.getWaveNumber();
+        int bossHealth = world.isBossFight() ? WorldRenderer.bossHealthWidth(world) : -1;
+
+        if (image == null || image.getWidth() != width) {
+            if (imageGraphics != null) imageGraphics.dispose();
+            image = SpriteLoader.createCompatible(width, WorldRenderer.HUD_BOTTOM - WorldRenderer.HUD_TOP);
+            imageGraphics = image.createGraphics();
+            imageGraphics.translate(0, -WorldRenderer.HUD_TOP);
+            imageGraphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            redraw(world, width);
+        } else if (hp != this.hp || wave != this.wave || bossHealth != this.bossHealth) {
+            redraw(world, width);
+        }
+        this.hp = hp;
+        this.wave = wave;
+        this.bossHealth = bossHealth;
+
+        g2d.drawImage(image, 0, WorldRenderer.HUD_TOP, null);
+    }
+
+    private void redraw(GameWorld world, int width) {
+        imageGraphics.setComposite(AlphaComposite.Clear);
+        imageGraphics.fillRect(0, WorldRenderer.HUD_TOP, width, WorldRenderer.HUD_BOTTOM - WorldRenderer.HUD_TOP);
+        imageGraphics.setComposite(AlphaComposite.SrcOver);
+        WorldRenderer.drawHud(imageGraphics, world, width);
+    }
+}
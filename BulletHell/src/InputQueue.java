@@ -0,0 +1,127 @@
+import java.awt.event.KeyEvent;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Key and mouse events on their way from the EDT to the simulation thread.
+// The EDT appends each one to a fixed ring with the time it arrived and the
+// simulation drains the ring once at the start of every tick, taking only the
+// events from before that tick was due; anything later waits for the next one.
+// There's exactly one thread on each end, so the two counters are all the
+// sharing there is: each side only writes its own, and publishing it after the
+// slots are filled (or read) is what hands them over. Nothing is boxed or
+// locked per event. Held keys are a bitset on the simulation side.
+public class InputQueue {
+    private static final int CAPACITY = 1024; // power of two; a tick sees a handful of events
+    private static final int MASK = CAPACITY - 1;
+    private static final int KEY_COUNT = 1024; // VK_ codes past this aren't bound to anything
+
+    private static final byte KEY_DOWN = 0, KEY_UP = 1, MOUSE_MOVE = 2, FIRE = 3;
+
+    private final byte[] types = new byte[CAPACITY];
+    private final int[] as = new int[CAPACITY]; // key code, or x
+    private final int[] bs = new int[CAPACITY]; // y
+    private final long[] times = new long[CAPACITY]; // System.nanoTime() when queued
+    private final AtomicLong head = new AtomicLong(); // events ever queued, written by the EDT
+    private final AtomicLong tail = new AtomicLong(); // events ever drained, written by the simulation
+    private long dropped = 0; // EDT only
+
+    // Simulation thread only
+    private final long[] keys = new long[KEY_COUNT / 64]; // held keys, one bit per VK_ code
+    private int mouseX, mouseY;
+
+    public InputQueue(int mouseX, int mouseY) {
+        this.mouseX = mouseX;
+        this.mouseY = mouseY;
+    }
+
+    // EDT side
+
+    public void keyPressed(int keyCode) {
+        offer(KEY_DOWN, keyCode, 0);
+    }
+
+    public void keyReleased(int keyCode) {
+        offer(KEY_UP, keyCode, 0);
+    }
+
+    public void mouseMoved(int x, int y) {
+        offer(MOUSE_MOVE, x, y);
+    }
+
+    public void fire(int x, int y) {
+        offer(FIRE, x, y);
+    }
+
+    private void offer(byte type, int a, int b) {
+        long h = head.get();
+        if (h - tail.get() == CAPACITY) {
+            // The simulation hasn't drained in CAPACITY events; it's stopped or stalled
+            if (dropped++ == 0) {
+                System.err.println("InputQueue: full, dropping input");
+            }
+            return;
+        }
+        int slot = (int) (h & MASK);
+        types[slot] = type;
+        as[slot] = a;
+        bs[slot] = b;
+        times[slot] = System.nanoTime();
+        head.lazySet(h + 1);
+    }
+
+    // Simulation side
+
+    // Applies every event queued up to tickTime (System.nanoTime()) to input:
+    // held keys and the mouse as they stand after them, and dash and fire if one
+    // was asked for. Call clearEvents on input before, since this only sets them.
+    public void drain(InputState input, long tickTime) {
+        long t = tail.get();
+        long h = head.get();
+        for (; t < h; t++) {
+            int slot = (int) (t & MASK);
+            if (times[slot] - tickTime > 0) break; // arrived after this tick was due
+            int a = as[slot];
+            switch (types[slot]) {
+                case KEY_DOWN:
+                    // Auto-repeat sends more presses while the key stays down; only the first one dashes
+                    if (a == KeyEvent.VK_SPACE && !isHeld(a)) {
+                        input.dash = true;
+                    }
+                    setHeld(a, true);
+                    break;
+                case KEY_UP:
+                    setHeld(a, false);
+                    break;
+                case MOUSE_MOVE:
+                    mouseX = a;
+                    mouseY = bs[slot];
+                    break;
+                case FIRE:
+                    input.fire = true;
+                    input.aimX = a;
+                    input.aimY = bs[slot];
+                    break;
+            }
+        }
+        tail.lazySet(t);
+
+        input.up = isHeld(KeyEvent.VK_W);
+        input.down = isHeld(KeyEvent.VK_S);
+        input.left = isHeld(KeyEvent.VK_A);
+        input.right = isHeld(KeyEvent.VK_D);
+        input.mouseX = mouseX;
+        input.mouseY = mouseY;
+    }
+
+    private boolean isHeld(int keyCode) {
+        return keyCode >= 0 && keyCode < KEY_COUNT && (keys[keyCode >> 6] & (1L << keyCode)) != 0;
+    }
+
+    private void setHeld(int keyCode, boolean held) {
+        if (keyCode < 0 || keyCode >= KEY_COUNT) return;
+        if (held) {
+            keys[keyCode >> 6] |= 1L << keyCode;
+        } else {
+            keys[keyCode >> 6] &= ~(1L << keyCode);
+        }
+    }
+}
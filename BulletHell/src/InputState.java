@@ -0,0 +1,15 @@
+// Plain input snapshot consumed by GameWorld once per tick.
+// GamePanel fills it from its InputQueue; HeadlessRunner fills it from a script.
+public class InputState {
+    public boolean up, down, left, right;
+    public boolean dash; // dash requested since the last tick
+    public boolean fire; // shot requested since the last tick, aimed at (aimX, aimY)
+    public int aimX, aimY;
+    public int mouseX, mouseY;
+
+    // One-shot requests only apply to the tick that consumed them
+    public void clearEvents() {
+        dash = false;
+        fire = false;
+    }
+}
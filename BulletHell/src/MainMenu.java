@@ -1,15 +1,21 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.List;
 import java.util.Map;
 
 public class MainMenu extends JPanel {
     private Achievements achievements;
+    private RunStats runStats;
+    private SaveGame saveGame;
     private MainMenuListener listener;
+    private Button continueButton; // only while there's a save
     private Button playButton;
     private Button achievementsButton;
+    private Button recordsButton;
     private Button quitButton;
     private boolean showingAchievements = false;
+    private boolean showingRecords = false;
     private boolean showDebugMenu = false;
     private String debugInput = "";
     private static final Color BG_COLOR = new Color(20, 20, 40);
@@ -49,16 +55,20 @@ public class MainMenu extends JPanel {
         }
     }
 
-    public MainMenu(Achievements achievements) {
+    public MainMenu(Achievements achievements, RunStats runStats, SaveGame saveGame) {
         this.achievements = achievements;
+        this.runStats = runStats;
+        this.saveGame = saveGame;
         setBackground(BG_COLOR);
         setFocusable(true);
 
         int centerX = 400;
         int centerY = 300;
+        continueButton = new Button(centerX - 75, centerY - 110, 150, 50, "Continue");
         playButton = new Button(centerX - 75, centerY - 40, 150, 50, "Play Game");
         achievementsButton = new Button(centerX - 75, centerY + 30, 150, 50, "Achievements");
-        quitButton = new Button(centerX - 75, centerY + 100, 150, 50, "Quit");
+        recordsButton = new Button(centerX - 75, centerY + 100, 150, 50, "Records");
+        quitButton = new Button(centerX - 75, centerY + 170, 150, 50, "Quit");
 
         addMouseListener(new MouseAdapter() {
             @Override
@@ -81,8 +91,10 @@ public class MainMenu extends JPanel {
     }
 
     private void updateHover(int x, int y) {
+        continueButton.hovered = continueButton.contains(x, y);
         playButton.hovered = playButton.contains(x, y);
         achievementsButton.hovered = achievementsButton.contains(x, y);
+        recordsButton.hovered = recordsButton.contains(x, y);
         quitButton.hovered = quitButton.contains(x, y);
         repaint();
     }
@@ -93,16 +105,22 @@ public class MainMenu extends JPanel {
             showDebugMenu = false;
             debugInput = "";
             repaint();
-        } else if (showingAchievements) {
+        } else if (showingAchievements || showingRecords) {
             // Back button or click anywhere to return
             showingAchievements = false;
+            showingRecords = false;
             repaint();
         } else {
-            if (playButton.contains(x, y)) {
+            if (continueButton.contains(x, y) && saveGame.exists()) {
+                if (listener != null) listener.onContinueClicked();
+            } else if (playButton.contains(x, y)) {
                 if (listener != null) listener.onPlayClicked();
             } else if (achievementsButton.contains(x, y)) {
                 showingAchievements = true;
                 repaint();
+            } else if (recordsButton.contains(x, y)) {
+                showingRecords = true;
+                repaint();
             } else if (quitButton.contains(x, y)) {
                 System.exit(0);
             }
@@ -123,6 +141,8 @@ public class MainMenu extends JPanel {
 
         if (showingAchievements) {
             drawAchievementsScreen(g2d);
+        } else if (showingRecords) {
+            drawRecordsScreen(g2d);
         } else {
             drawMainMenu(g2d);
         }
@@ -182,8 +202,12 @@ public class MainMenu extends JPanel {
         g.drawString(title, titleX, 100);
 
         // Draw buttons
+        if (saveGame.exists()) {
+            continueButton.draw(g);
+        }
         playButton.draw(g);
         achievementsButton.draw(g);
+        recordsButton.draw(g);
         quitButton.draw(g);
 
         // Draw achievement count
@@ -237,6 +261,49 @@ public class MainMenu extends JPanel {
         g.drawString("Back", 45, getHeight() - 25);
     }
 
+    // The best runs so far, read from RunStats' index each time it's shown
+    private void drawRecordsScreen(Graphics2D g) {
+        g.setColor(BG_COLOR);
+        g.fillRect(0, 0, getWidth(), getHeight());
+
+        g.setColor(TEXT_COLOR);
+        g.setFont(new Font("Arial", Font.BOLD, 40));
+        g.drawString("RECORDS", 50, 50);
+        g.setFont(new Font("Arial", Font.PLAIN, 14));
+        g.drawString(runStats.getRunCount() + " runs", 50, 75);
+
+        drawRecordColumn(g, "Highest wave", runStats.getTopByWave(), 50);
+        drawRecordColumn(g, "Most kills", runStats.getTopByKills(), getWidth() / 2 + 10);
+
+        // Draw back button
+        g.setColor(BUTTON_COLOR);
+        g.fillRect(20, getHeight() - 60, 100, 50);
+        g.setColor(TEXT_COLOR);
+        g.setFont(new Font("Arial", Font.BOLD, 16));
+        g.drawString("Back", 45, getHeight() - 25);
+    }
+
+    private void drawRecordColumn(Graphics2D g, String title, List<RunRecord> runs, int x) {
+        g.setColor(TEXT_COLOR);
+        g.setFont(new Font("Arial", Font.BOLD, 18));
+        g.drawString(title, x, 115);
+
+        g.setFont(new Font("Arial", Font.PLAIN, 14));
+        g.setColor(new Color(200, 200, 100));
+        int y = 145;
+        for (int i = 0; i < runs.size(); i++) {
+            RunRecord run = runs.get(i);
+            int seconds = run.getTicks() / 60;
+            g.drawString((i + 1) + ".  Wave " + run.getWave() + "   " + run.getKills() + " kills   "
+                + seconds / 60 + ":" + String.format("%02d", seconds % 60), x, y);
+            y += 30;
+        }
+        if (runs.isEmpty()) {
+            g.setColor(new Color(100, 100, 100));
+            g.drawString("No runs yet", x, y);
+        }
+    }
+
     public void setListener(MainMenuListener listener) {
         this.listener = listener;
     }
@@ -274,5 +341,6 @@ public class MainMenu extends JPanel {
     public interface MainMenuListener {
         void onPlayClicked();
         void onDebugWaveSelected(int wave);
+        void onContinueClicked();
     }
 }
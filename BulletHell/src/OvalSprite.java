@@ -0,0 +1,66 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+// A filled or outlined circle in one colour, pre-drawn into an image at every
+// size it's asked for. Java2D allocates a path iterator for each antialiased
+// oval it fills or strokes, but blits an image 1:1 without allocating, so the
+// effect rings and bodies that change size every frame are drawn this way.
+// Sizes are only known as effects play out, so they stay out of the SpriteAtlas,
+// which is packed once when sprites load.
+public class OvalSprite {
+    private final Color color;
+    private final Stroke stroke; // null for a filled circle
+    private final int pad; // room around the circle for the stroke and antialiasing
+    private BufferedImage[] sizes = new BufferedImage[0]; // by diameter
+
+    private OvalSprite(Color color, Stroke stroke, int pad) {
+        this.color = color;
+        this.stroke = stroke;
+        this.pad = pad;
+    }
+
+    public static OvalSprite filled(Color color) {
+        return new OvalSprite(color, null, 1);
+    }
+
+    public static OvalSprite outlined(Color color, Stroke stroke) {
+        float width = ((BasicStroke) stroke).getLineWidth();
+        return new OvalSprite(color, stroke, (int) Math.ceil(width / 2) + 1);
+    }
+
+    // What g.fillOval(x, y, size, size) or g.drawOval would draw in this colour
+    public void draw(Graphics2D g, int x, int y, int size) {
+        if (size <= 0) return;
+        g.drawImage(get(size), x - pad, y - pad, null);
+    }
+
+    // Same, faded to alpha as if the colour's alpha were multiplied by it
+    public void draw(Graphics2D g, int x, int y, int size, float alpha) {
+        if (size <= 0 || alpha <= 0f) return;
+        g.setComposite(Palette.composite(alpha));
+        g.drawImage(get(size), x - pad, y - pad, null);
+        g.setComposite(AlphaComposite.SrcOver);
+    }
+
+    private BufferedImage get(int size) {
+        if (size >= sizes.length) {
+            sizes = Arrays.copyOf(sizes, Math.max(size + 1, sizes.length * 2));
+        }
+        if (sizes[size] == null) {
+            BufferedImage image = SpriteLoader.createCompatible(size + pad * 2, size + pad * 2);
+            Graphics2D g = image.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setColor(color);
+            if (stroke == null) {
+                g.fillOval(pad, pad, size, size);
+            } else {
+                g.setStroke(stroke);
+                g.drawOval(pad, pad, size, size);
+            }
+            g.dispose();
+            sizes[size] = image;
+        }
+        return sizes[size];
+    }
+}
@@ -0,0 +1,61 @@
+import java.awt.*;
+
+// Colours, strokes and composites built once and shared by the draw methods,
+// so painting a frame allocates nothing. An effect that fades keeps a ramp of
+// its colour at all 256 alpha levels and looks up the one it needs.
+public class Palette {
+    public static final Stroke STROKE_1 = new BasicStroke(1);
+    public static final Stroke STROKE_2 = new BasicStroke(2);
+    public static final Stroke STROKE_3 = new BasicStroke(3);
+
+    private static final AlphaComposite[] COMPOSITES = new AlphaComposite[256];
+    private static final Stroke[] BANDS = new Stroke[128]; // butt-capped line strokes by width, made on first use
+
+    static {
+        for (int a = 0; a < COMPOSITES.length; a++) {
+            COMPOSITES[a] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, a / 255f);
+        }
+    }
+
+    // The colour at alpha 0 to 255, indexed by alpha
+    public static Color[] ramp(int r, int g, int b) {
+        Color[] ramp = new Color[256];
+        for (int a = 0; a < ramp.length; a++) {
+            ramp[a] = new Color(r, g, b, a);
+        }
+        return ramp;
+    }
+
+    // Same, from 0-1 components rounded the way new Color(float, float, float, float) rounds them
+    public static Color[] ramp(float r, float g, float b) {
+        return ramp(toByte(r), toByte(g), toByte(b));
+    }
+
+    // The ramp's colour at a 0-1 alpha, clamped, so it matches new Color(r, g, b, alpha)
+    public static Color alpha(Color[] ramp, float alpha) {
+        return ramp[toByte(alpha)];
+    }
+
+    // SRC_OVER at a 0-1 alpha
+    public static AlphaComposite composite(float alpha) {
+        return COMPOSITES[toByte(alpha)];
+    }
+
+    // A flat-ended stroke this many pixels wide. Drawing a line with it fills the
+    // same rotated rectangle as fillRect under a rotate, without touching the transform.
+    public static Stroke band(int width) {
+        if (width >= BANDS.length) {
+            return new BasicStroke(width, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER);
+        }
+        if (BANDS[width] == null) {
+            BANDS[width] = new BasicStroke(width, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER);
+        }
+        return BANDS[width];
+    }
+
+    private static int toByte(float value) {
+        if (value <= 0f) return 0;
+        if (value >= 1f) return 255;
+        return (int) (value * 255 + 0.5);
+    }
+}
@@ -1,9 +1,9 @@
-import java.awt.event.KeyEvent;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Set;
 
 public class Player {
     private int x, y;
+    private int prevX, prevY; // position at the start of the tick, for render interpolation and swept hits
     private int hp = 10;
     private int maxHp = 10;
     private int dashCooldown = 0;
@@ -13,6 +13,7 @@ public class Player {
     private int dashDirectionX = 0;
     private int dashDirectionY = 0;
     private ArrayList<int[]> trailPositions;
+    private final ArrayList<int[]> spareTrail = new ArrayList<>(); // for readState
     private static final int DASH_SPEED = 10;
     private static final int MOVE_SPEED = 5;
     private static final int DASH_DURATION_MAX = 15;
@@ -27,17 +28,19 @@ public class Player {
     public Player(int x, int y) {
         this.x = x;
         this.y = y;
+        this.prevX = x;
+        this.prevY = y;
         this.trailPositions = new ArrayList<>();
     }
 
-    public void update(Set<Integer> keysPressed, int width, int height) {
+    public void update(InputState input, int width, int height) {
         int moveX = 0;
         int moveY = 0;
         
-        if (keysPressed.contains(KeyEvent.VK_W)) moveY -= MOVE_SPEED;
-        if (keysPressed.contains(KeyEvent.VK_S)) moveY += MOVE_SPEED;
-        if (keysPressed.contains(KeyEvent.VK_A)) moveX -= MOVE_SPEED;
-        if (keysPressed.contains(KeyEvent.VK_D)) moveX += MOVE_SPEED;
+        if (input.up) moveY -= MOVE_SPEED;
+        if (input.down) moveY += MOVE_SPEED;
+        if (input.left) moveX -= MOVE_SPEED;
+        if (input.right) moveX += MOVE_SPEED;
 
         if (dashDuration > 0) {
             x += dashDirectionX * DASH_SPEED;
@@ -130,8 +133,62 @@ public class Player {
         return Math.abs(x - px) < 20 && Math.abs(y - py) < 20;
     }
 
+    // Hit test for a point that moved from (px0, py0) to (px1, py1) this tick
+    public boolean sweptCollidesWith(int px0, int py0, int px1, int py1) {
+        return Collision.sweptPointInBox(px0, py0, px1, py1, prevX, prevY, x, y, 20, 20);
+    }
+
+    public void storePreviousPosition() {
+        prevX = x;
+        prevY = y;
+    }
+
+    public void writeState(ByteBuffer out) {
+        out.putInt(x);
+        out.putInt(y);
+        out.putInt(prevX);
+        out.putInt(prevY);
+        out.putInt(hp);
+        out.putInt(maxHp);
+        out.putInt(dashCooldown);
+        out.putInt(shootCooldown);
+        out.putInt(dashDuration);
+        out.putInt(dashDirectionX);
+        out.putInt(dashDirectionY);
+        StateIO.putPoints(out, trailPositions);
+        out.putInt(dashCooldownMax);
+        out.putInt(fireRateBonus);
+        StateIO.putBoolean(out, piercingShots);
+        StateIO.putBoolean(out, tripleShot);
+        StateIO.putBoolean(out, slowFieldActive);
+        out.putInt(damageCooldown);
+    }
+
+    public void readState(ByteBuffer in) {
+        x = in.getInt();
+        y = in.getInt();
+        prevX = in.getInt();
+        prevY = in.getInt();
+        hp = in.getInt();
+        maxHp = in.getInt();
+        dashCooldown = in.getInt();
+        shootCooldown = in.getInt();
+        dashDuration = in.getInt();
+        dashDirectionX = in.getInt();
+        dashDirectionY = in.getInt();
+        StateIO.getPoints(in, trailPositions, spareTrail);
+        dashCooldownMax = in.getInt();
+        fireRateBonus = in.getInt();
+        piercingShots = StateIO.getBoolean(in);
+        tripleShot = StateIO.getBoolean(in);
+        slowFieldActive = StateIO.getBoolean(in);
+        damageCooldown = in.getInt();
+    }
+
     public int getX() { return x; }
     public int getY() { return y; }
+    public int getPrevX() { return prevX; }
+    public int getPrevY() { return prevY; }
     public int getHP() { return hp; }
     public int getMaxHP() { return maxHp; }
     public ArrayList<int[]> getTrailPositions() { return trailPositions; }
@@ -1,5 +1,8 @@
+import java.nio.ByteBuffer;
+
 public class PlayerProjectile {
     private int x, y;
+    private int prevX, prevY; // position at the start of the tick, for render interpolation and swept hits
     private double vx, vy;
     private boolean isPiercing;
     private static final int SPEED = 8;
@@ -11,6 +14,8 @@ public class PlayerProjectile {
     public PlayerProjectile(int x, int y, double angle, boolean isPiercing) {
         this.x = x;
         this.y = y;
+        this.prevX = x;
+        this.prevY = y;
         this.isPiercing = isPiercing;
         this.vx = Math.cos(angle) * SPEED;
         this.vy = Math.sin(angle) * SPEED;
@@ -26,6 +31,38 @@ public class PlayerProjectile {
     }
 
     public boolean isPiercing() { return isPiercing; }
+    public void storePreviousPosition() {
+        prevX = x;
+        prevY = y;
+    }
+
+    public void writeState(ByteBuffer out) {
+        out.putInt(x);
+        out.putInt(y);
+        out.putInt(prevX);
+        out.putInt(prevY);
+        out.putDouble(vx);
+        out.putDouble(vy);
+        StateIO.putBoolean(out, isPiercing);
+    }
+
+    public void readState(ByteBuffer in) {
+        x = in.getInt();
+        y = in.getInt();
+        prevX = in.getInt();
+        prevY = in.getInt();
+        vx = in.getDouble();
+        vy = in.getDouble();
+        isPiercing = StateIO.getBoolean(in);
+    }
+
+    // A projectile for readState to fill in
+    public static PlayerProjectile blank() {
+        return new PlayerProjectile(0, 0, 0);
+    }
+
     public int getX() { return x; }
     public int getY() { return y; }
+    public int getPrevX() { return prevX; }
+    public int getPrevY() { return prevY; }
 }
@@ -0,0 +1,79 @@
+import java.awt.*;
+
+// Draws the F3 profiler: p50/p99/max of every phase in microseconds, the
+// recent history of each as a strip of bars, and live entity counts.
+public class ProfilerOverlay {
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private static final Color BACKGROUND = new Color(0, 0, 0, 180);
+    private static final Color UPDATE_BARS = new Color(80, 200, 255);
+    private static final Color PAINT_BARS = new Color(255, 180, 60);
+    private static final int X = 10;
+    private static final int Y = 80;
+    private static final int ROW_HEIGHT = 14;
+    private static final int TEXT_WIDTH = 390;
+    private static final int HISTORY = 120; // bars per row, newest on the right
+    private static final int WIDTH = TEXT_WIDTH + HISTORY + 20;
+
+    public static void draw(Graphics2D g, FrameProfiler profiler, GameWorld world) {
+        Archetype[] types = Archetype.values();
+        FrameProfiler.Phase[] phases = FrameProfiler.Phase.values();
+        int rows = phases.length + types.length + 3;
+
+        g.setColor(BACKGROUND);
+        g.fillRect(X, Y, WIDTH, rows * ROW_HEIGHT + 8);
+        g.setFont(FONT);
+
+        int y = Y + ROW_HEIGHT;
+        g.setColor(Color.WHITE);
+        g.drawString(String.format("%-24s %7s %7s %7s", "phase (us)", "p50", "p99", "max"), X + 6, y);
+        y += ROW_HEIGHT;
+
+        EntityStore entities = world.getEntities();
+        Color bars = UPDATE_BARS;
+        for (FrameProfiler.Phase phase : phases) {
+            if (phase == FrameProfiler.Phase.PAINT) bars = PAINT_BARS;
+            drawRow(g, y, phase.getLabel(), profiler.getPercentile(phase, 0.5), profiler.getPercentile(phase, 0.99),
+                    profiler.getMax(phase));
+            long phaseMax = profiler.getMax(phase);
+            for (int i = 0; i < HISTORY; i++) {
+                drawBar(g, y, i, profiler.getRecent(phase, i), phaseMax, bars);
+            }
+            y += ROW_HEIGHT;
+
+            // Enemy update time broken out per archetype, under the enemies row
+            if (phase == FrameProfiler.Phase.ENEMIES) {
+                for (Archetype type : types) {
+                    String label = "    " + type.name().toLowerCase() + " x" + entities.count(type);
+                    drawRow(g, y, label, profiler.getPercentile(type, 0.5), profiler.getPercentile(type, 0.99),
+                            profiler.getMax(type));
+                    long typeMax = profiler.getMax(type);
+                    for (int i = 0; i < HISTORY; i++) {
+                        drawBar(g, y, i, profiler.getRecent(type, i), typeMax, bars);
+                    }
+                    y += ROW_HEIGHT;
+                }
+            }
+        }
+
+        g.setColor(Color.WHITE);
+        y += ROW_HEIGHT / 2;
+        g.drawString("entities: " + entities.size()
+                + "  player shots: " + world.getPlayerProjectiles().size()
+                + "  enemy shots: " + world.getEnemyProjectiles().size()
+                + "  beams: " + world.getBeamHazards().size()
+                + "  items: " + world.getHealingItems().size(), X + 6, y);
+    }
+
+    private static void drawRow(Graphics2D g, int y, String label, long p50, long p99, long max) {
+        g.setColor(Color.WHITE);
+        g.drawString(String.format("%-24s %7d %7d %7d", label, p50 / 1000, p99 / 1000, max / 1000), X + 6, y);
+    }
+
+    // One history bar, scaled against the row's max
+    private static void drawBar(Graphics2D g, int y, int age, long nanos, long max, Color color) {
+        if (nanos <= 0 || max <= 0) return;
+        int height = (int) Math.max(1, (ROW_HEIGHT - 3) * nanos / max);
+        g.setColor(color);
+        g.fillRect(X + TEXT_WIDTH + HISTORY - age, y - height + 2, 1, height);
+    }
+}
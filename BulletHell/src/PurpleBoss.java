@@ -1,8 +1,9 @@
-import java.awt.*;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 
 public class PurpleBoss {
     private int x, y;
+    private int prevX, prevY; // position at the start of the tick, for render interpolation and swept hits
     private int hp = 250;
     private int maxHp = 250;
     private int attackState = 0; // 0 = beam spam, 1 = beam spin, 2 = dash attack, 3 = spiral bullets
@@ -10,7 +11,10 @@ public class PurpleBoss {
     private int stateTransitionTimer = 0;
     private int screenWidth, screenHeight;
     private ArrayList<Beam> beams;
-    private ArrayList<EnemyProjectile> spiralBullets;
+    private final ArrayList<Beam> spareBeams = new ArrayList<>(); // for readState
+    private EnemyProjectiles projectiles; // world bullet pool, attacks spawn straight into it
+    private BeamHazards hazards; // world beam registry, for the player hit test
+    private RandomStream random; // this boss's own stream, split from GameRandom
     private ArrayList<Integer> dashAttackQueue; // Number of dashes to perform
     private int dashDashCount = 0; // Current dash count in sequence
     private int dashTimer = 0;
@@ -28,19 +32,20 @@ public class PurpleBoss {
     private int shieldTimer = 0;
     private int beamSpamCounter = 0;
     private double beamSpamAngle = 0;
-    
-    // Shield visual parameters
-    private static final int SHIELD_SIZE = 120;
+
     private int dashHighlightTimer = 0;
     private static final int DASH_HIGHLIGHT_DURATION = 30;
     private double beamRotationAngle = 0; // For rotating beams in beam spin attack
     private ArrayList<Double> activeBeamAngles; // Beams that are rotating
     private ArrayList<RotatingBeam> persistentBeams; // Beams that stay active and rotate
     private ArrayList<int[]> dashTrail; // Trail of positions during dash
+    private final ArrayList<RotatingBeam> spareRotatingBeams = new ArrayList<>(); // for readState
+    private final ArrayList<int[]> spareTrail = new ArrayList<>();
     private double bossRotation = 0; // For spinning during dash attack
     
     private int dashFinishTimer = 0; // visual cue timer after dash ends
     private int rotatingBeamCueTimer = 0; // visual cue when rotating beams spawn
+    private int pendingBeeps = 0; // sound cues for the front end to play
     
     // Attack durations
     private static final int BEAM_SPAM_DURATION = 180; // 3 seconds
@@ -51,13 +56,18 @@ public class PurpleBoss {
     private static final int STATE_TRANSITION_DURATION = 60; // 1 second between attacks
     private static final int SHIELD_DURATION = 250; // Shield lasts 4.17 seconds
 
-    public PurpleBoss(int x, int y, int screenWidth, int screenHeight) {
+    public PurpleBoss(int x, int y, int screenWidth, int screenHeight, EnemyProjectiles projectiles, BeamHazards hazards,
+                      RandomStream random) {
         this.x = x;
         this.y = y;
+        this.prevX = x;
+        this.prevY = y;
         this.screenWidth = screenWidth;
         this.screenHeight = screenHeight;
         this.beams = new ArrayList<>();
-        this.spiralBullets = new ArrayList<>();
+        this.projectiles = projectiles;
+        this.hazards = hazards;
+        this.random = random;
         this.dashAttackQueue = new ArrayList<>();
         this.activeBeamAngles = new ArrayList<>();
         this.persistentBeams = new ArrayList<>();
@@ -126,7 +136,7 @@ public class PurpleBoss {
                     shieldActive = false;
                     dashHighlightTimer = 0;
                     dashTrail.clear(); // Clear trail when transitioning states
-                    persistentBeams.clear(); // Clear rotating beams when transitioning
+                    clearPersistentBeams(); // Clear rotating beams when transitioning
                 }
             }
         } else {
@@ -154,18 +164,18 @@ public class PurpleBoss {
         
         // Change direction occasionally
         if (attackTimer % 60 == 0) {
-            beamSpamAngle = Math.random() * Math.PI * 2;
+            beamSpamAngle = random.nextDouble() * Math.PI * 2;
         }
 
         // Fire beams less frequently - fewer beams but wider spread
         if (attackTimer % 25 == 0) {
             // Fire 2-4 beams in random directions (reduced count)
-            int beamCount = 2 + (int)(Math.random() * 3);
+            int beamCount = 2 + (int)(random.nextDouble() * 3);
             for (int i = 0; i < beamCount; i++) {
-                double beamAngle = Math.random() * Math.PI * 2;
+                double beamAngle = random.nextDouble() * Math.PI * 2;
                 Beam beam = new Beam(x, y, screenWidth, screenHeight, beamAngle);
                 beam.setRemoveAfterFade(true);
-                beams.add(beam);
+                addBeam(beam);
             }
         }
 
@@ -177,7 +187,7 @@ public class PurpleBoss {
                 double beamAngle = Math.atan2(playerY - y, playerX - x) + offset;
                 Beam beam = new Beam(x, y, screenWidth, screenHeight, beamAngle);
                 beam.setRemoveAfterFade(true);
-                beams.add(beam);
+                addBeam(beam);
             }
         }
 
@@ -188,7 +198,7 @@ public class PurpleBoss {
             stateTransitionTimer = 0;
             shieldActive = false;
             dashHighlightTimer = 0;
-            persistentBeams.clear();
+            clearPersistentBeams();
             System.out.println("PurpleBoss: transitioning to beam-spin (state=1)");
         }
     }
@@ -215,7 +225,7 @@ public class PurpleBoss {
             int count = 6; // fewer beams for wider gaps
             for (int i = 0; i < count; i++) {
                 double angle = (i * Math.PI * 2 / count);
-                persistentBeams.add(new RotatingBeam(x, y, angle, screenWidth, screenHeight));
+                addPersistentBeam(new RotatingBeam(x, y, angle, screenWidth, screenHeight));
             }
             beamRotationAngle = 0;
             System.out.println("PurpleBoss: created persistent rotating beams at (" + x + "," + y + ")");
@@ -236,10 +246,10 @@ public class PurpleBoss {
             // Periodically fire additional temporary beams (less often)
             if (attackTimer % 50 == 0 && attackTimer > 40) {
                 for (int i = 0; i < 2; i++) {
-                    double angle = Math.random() * Math.PI * 2;
+                    double angle = random.nextDouble() * Math.PI * 2;
                     Beam beam = new Beam(x, y, screenWidth, screenHeight, angle);
                     beam.setRemoveAfterFade(true);
-                    beams.add(beam);
+                    addBeam(beam);
                 }
             }
 
@@ -248,7 +258,7 @@ public class PurpleBoss {
                 int shots = 6;
                 for (int i = 0; i < shots; i++) {
                     double a = beamRotationAngle + (i * Math.PI * 2 / shots);
-                    spiralBullets.add(new EnemyProjectile(x, y, a, 4, Color.MAGENTA, 1));
+                    projectiles.spawn(x, y, a, 4, EnemyProjectiles.MAGENTA, 1);
                 }
             }
         }
@@ -256,7 +266,7 @@ public class PurpleBoss {
         // End the beam-spin cleanly when duration is reached
         if (attackTimer >= BEAM_SPIN_DURATION) {
             System.out.println("PurpleBoss: beam spin complete, clearing beams and advancing state");
-            persistentBeams.clear();
+            clearPersistentBeams();
             shieldActive = false;
             // Advance to next state immediately
             attackState = (attackState + 1) % 4;
@@ -315,18 +325,18 @@ public class PurpleBoss {
                 y += Math.sin(dashAngle) * dashSpeed;
 
                 // Fire bullets occasionally while dashing
-                if (dashTimer % 20 == 0 && Math.random() > 0.3) {
+                if (dashTimer % 20 == 0 && random.nextDouble() > 0.3) {
                     // Random bullets or beams
-                    if (Math.random() > 0.6) {
+                    if (random.nextDouble() > 0.6) {
                         // Fire beam
-                        double beamAngle = Math.random() * Math.PI * 2;
+                        double beamAngle = random.nextDouble() * Math.PI * 2;
                         Beam beam = new Beam(x, y, screenWidth, screenHeight, beamAngle);
                         beam.setRemoveAfterFade(true);
-                        beams.add(beam);
+                        addBeam(beam);
                     } else {
                         // Fire bullets in spread
                         for (int i = -1; i <= 1; i++) {
-                            spiralBullets.add(new EnemyProjectile(x, y, dashAngle + i * 0.3, 5, Color.MAGENTA, 1));
+                            projectiles.spawn(x, y, dashAngle + i * 0.3, 5, EnemyProjectiles.MAGENTA, 1);
                         }
                     }
                 }
@@ -368,11 +378,11 @@ public class PurpleBoss {
                     wallHitX = x;
                     wallHitY = y;
                     for (int p = 0; p < 6; p++) {
-                        double pa = Math.random() * Math.PI * 2;
-                        int psz = 2 + (int)(Math.random() * 2);
-                        spiralBullets.add(new EnemyProjectile(x, y, pa, psz, Color.CYAN, 0));
+                        double pa = random.nextDouble() * Math.PI * 2;
+                        int psz = 2 + (int)(random.nextDouble() * 2);
+                        projectiles.spawn(x, y, pa, psz, EnemyProjectiles.CYAN, 0);
                     }
-                    try { java.awt.Toolkit.getDefaultToolkit().beep(); } catch (Exception ex) {}
+                    pendingBeeps++;
                     // If we've hit the allowed number of bounces for this dash, treat it as completed
                     if (dashBounces >= currentDashAllowedBounces) {
                         if (!dashAttackQueue.isEmpty()) dashAttackQueue.remove(0);
@@ -383,19 +393,19 @@ public class PurpleBoss {
                             // end of dash sequence: perform a short bullet/beam spam, then return to beam-spam state
                             dashHighlightTimer = 0;
                             dashTrail.clear();
-                            persistentBeams.clear();
+                            clearPersistentBeams();
                             dashFinishTimer = 20;
-                            try { java.awt.Toolkit.getDefaultToolkit().beep(); } catch (Exception ex) {}
+                            pendingBeeps++;
                             // spawn a short spam burst then go to spiral attack
                             for (int s = 0; s < 6; s++) {
-                                double a = Math.random() * Math.PI * 2;
+                                double a = random.nextDouble() * Math.PI * 2;
                                 Beam b = new Beam(x, y, screenWidth, screenHeight, a);
                                 b.setRemoveAfterFade(true);
-                                beams.add(b);
+                                addBeam(b);
                             }
                             for (int s = 0; s < 8; s++) {
-                                double a = Math.random() * Math.PI * 2;
-                                spiralBullets.add(new EnemyProjectile(x, y, a, 4, Color.MAGENTA, 1));
+                                double a = random.nextDouble() * Math.PI * 2;
+                                projectiles.spawn(x, y, a, 4, EnemyProjectiles.MAGENTA, 1);
                             }
                             // advance to spiral attack next
                             attackState = 3;
@@ -410,18 +420,18 @@ public class PurpleBoss {
                     dashTimer = 0;
                     dashHighlightTimer = 0;
                     dashTrail.clear();
-                    persistentBeams.clear();
+                    clearPersistentBeams();
                     dashFinishTimer = 20;
-                    try { java.awt.Toolkit.getDefaultToolkit().beep(); } catch (Exception ex) {}
+                    pendingBeeps++;
                     for (int s = 0; s < 4; s++) {
-                        double a = Math.random() * Math.PI * 2;
+                        double a = random.nextDouble() * Math.PI * 2;
                         Beam b = new Beam(x, y, screenWidth, screenHeight, a);
                         b.setRemoveAfterFade(true);
-                        beams.add(b);
+                        addBeam(b);
                     }
                     for (int s = 0; s < 6; s++) {
-                        double a = Math.random() * Math.PI * 2;
-                        spiralBullets.add(new EnemyProjectile(x, y, a, 4, Color.MAGENTA, 1));
+                        double a = random.nextDouble() * Math.PI * 2;
+                        projectiles.spawn(x, y, a, 4, EnemyProjectiles.MAGENTA, 1);
                     }
                     attackState = 3;
                     attackTimer = 0;
@@ -437,14 +447,14 @@ public class PurpleBoss {
             x = Math.max(60, Math.min(screenWidth - 60, x));
             y = Math.max(60, Math.min(screenHeight - 60, y));
             for (int s = 0; s < 4; s++) {
-                double a = Math.random() * Math.PI * 2;
+                double a = random.nextDouble() * Math.PI * 2;
                 Beam b = new Beam(x, y, screenWidth, screenHeight, a);
                 b.setRemoveAfterFade(true);
-                beams.add(b);
+                addBeam(b);
             }
             for (int s = 0; s < 6; s++) {
-                double a = Math.random() * Math.PI * 2;
-                spiralBullets.add(new EnemyProjectile(x, y, a, 4, Color.MAGENTA, 1));
+                double a = random.nextDouble() * Math.PI * 2;
+                projectiles.spawn(x, y, a, 4, EnemyProjectiles.MAGENTA, 1);
             }
             attackState = 0;
             attackTimer = 0;
@@ -459,7 +469,7 @@ public class PurpleBoss {
             int bulletCount = 8 + (attackTimer / 30);
             for (int i = 0; i < bulletCount; i++) {
                 double angle = spiralAngle + (i * Math.PI * 2 / bulletCount);
-                spiralBullets.add(new EnemyProjectile(x, y, angle, 4, Color.MAGENTA, 1));
+                projectiles.spawn(x, y, angle, 4, EnemyProjectiles.MAGENTA, 1);
             }
             spiralAngle += 0.2; // Rotate spiral
         }
@@ -468,7 +478,7 @@ public class PurpleBoss {
             // End spiral attack and transition immediately
             System.out.println("PurpleBoss: spiral complete, advancing state");
             spiralAngle = 0;
-            persistentBeams.clear();
+            clearPersistentBeams();
             // Advance to next state
             attackState = (attackState + 1) % 4;
             attackTimer = 0;
@@ -476,9 +486,11 @@ public class PurpleBoss {
         }
     }
 
-    public void spawnProjectiles(ArrayList<EnemyProjectile> projectiles) {
-        projectiles.addAll(spiralBullets);
-        spiralBullets.clear();
+    // GamePanel collects these each tick and plays the cue sound
+    public int collectBeeps() {
+        int out = pendingBeeps;
+        pendingBeeps = 0;
+        return out;
     }
 
     public void takeDamage(int damage) {
@@ -500,147 +512,182 @@ public class PurpleBoss {
         }
         // Then check regular timed beams
         for (Beam b : beams) {
-            try {
-                if (b.checkCollision(px, py)) return true;
-            } catch (Exception ex) {
-                // in case beam lacks method or errors, ignore
-            }
+            if (b.checkCollision(px, py)) return true;
         }
         return false;
     }
 
-    public int getHP() { return hp; }
-    public int getMaxHP() { return maxHp; }
+    // Body contact that follows the point and the boss over the whole tick. Beams
+    // are registered with BeamHazards and tested there instead.
+    public boolean sweptCollidesWith(int px0, int py0, int px1, int py1) {
+        return Collision.sweptPointInBox(px0, py0, px1, py1, prevX, prevY, x, y, 40, 40);
+    }
 
-    public void draw(Graphics2D g) {
-        
-        
+    private void addBeam(Beam beam) {
+        beams.add(beam);
+        hazards.register(beam);
+    }
 
-        // Draw regular beams (behind)
-        for (Beam beam : beams) {
-            beam.draw(g);
-        }
+    private void addPersistentBeam(RotatingBeam beam) {
+        persistentBeams.add(beam);
+        hazards.register(beam);
+    }
 
-        // Draw persistent rotating beams (spawned during beam spin)
+    private void clearPersistentBeams() {
         for (RotatingBeam beam : persistentBeams) {
-            try {
-                beam.draw(g);
-            } catch (Exception ex) {
-                // ignore drawing errors for safety
-            }
+            beam.retire();
         }
+        persistentBeams.clear();
+    }
 
-        // Draw dash trail (older positions = more faded and smaller)
-        if (!dashTrail.isEmpty()) {
-            for (int i = 0; i < dashTrail.size(); i++) {
-                int[] pos = dashTrail.get(i);
-                // Alpha increases toward end of trail (newer = brighter)
-                float alpha = (float) (i + 1) / (dashTrail.size() + 1) * 0.8f;
-                g.setColor(new Color(1f, 0f, 1f, alpha));
-                // Size matches boss body (80 pixel diameter), decreases toward start of trail
-                int size = 20 + (dashTrail.size() - i) * 2;
-                g.fillOval(pos[0] - size / 2, pos[1] - size / 2, size, size);
-            }
+    // Takes every beam out of the hazard checks, e.g. once the fight is over
+    public void retireBeams() {
+        for (Beam beam : beams) {
+            beam.retire();
         }
+        clearPersistentBeams();
+    }
 
-        // Draw shield if active (full semi-transparent circle)
-        if (shieldActive) {
-            float alpha = 0.4f;
-            g.setColor(new Color(0f, 0.6f, 1f, alpha));
-            g.fillOval(x - SHIELD_SIZE / 2, y - SHIELD_SIZE / 2, SHIELD_SIZE, SHIELD_SIZE);
-            g.setColor(new Color(0f, 0.8f, 1f, 0.7f));
-            g.setStroke(new BasicStroke(3));
-            g.drawOval(x - SHIELD_SIZE / 2, y - SHIELD_SIZE / 2, SHIELD_SIZE, SHIELD_SIZE);
+    // Re-adds the live beams after a keyframe load rebuilt the registry
+    public void registerBeams() {
+        for (int i = 0; i < beams.size(); i++) {
+            Beam b = beams.get(i);
+            if (!b.isRetired()) hazards.register(b);
         }
-
-        // Draw highlight effect during dash charge
-        if (attackState == 2 && dashHighlightTimer > 0) {
-            float progress = (float) dashHighlightTimer / DASH_HIGHLIGHT_DURATION;
-            g.setColor(new Color(1f, 1f, 0f, 0.3f * progress));
-            int highlightSize = 80 + (int)(progress * 20);
-            g.fillOval(x - highlightSize / 2, y - highlightSize / 2, highlightSize, highlightSize);
+        for (int i = 0; i < persistentBeams.size(); i++) {
+            RotatingBeam b = persistentBeams.get(i);
+            if (!b.isRetired()) hazards.register(b);
         }
+    }
 
-        // Draw main boss body with rotation if dashing
-        java.awt.geom.AffineTransform oldTransform = g.getTransform();
-        
-        if (Math.abs(bossRotation) > 0.01) {
-            // Apply rotation for dash attack
-            g.translate(x, y);
-            g.rotate(bossRotation);
-            g.translate(-x, -y);
+    // Binary state for replay keyframes
+    public void writeState(ByteBuffer out) {
+        out.putInt(x);
+        out.putInt(y);
+        out.putInt(prevX);
+        out.putInt(prevY);
+        out.putInt(hp);
+        out.putInt(maxHp);
+        out.putInt(attackState);
+        out.putInt(attackTimer);
+        out.putInt(stateTransitionTimer);
+        out.putInt(screenWidth);
+        out.putInt(screenHeight);
+        out.putInt(beams.size());
+        for (Beam b : beams) {
+            b.writeState(out);
         }
-
-        // Giant spiked purple circle
-        g.setColor(new Color(150, 0, 150));
-        g.fillOval(x - 40, y - 40, 80, 80);
-        g.setColor(Color.MAGENTA);
-        g.setStroke(new BasicStroke(3));
-        g.drawOval(x - 40, y - 40, 80, 80);
-
-        // Draw spikes around the circle (12 triangle spikes)
-        g.setColor(new Color(200, 50, 200));
-        for (int i = 0; i < 12; i++) {
-            double angle = (i * Math.PI * 2 / 12);
-            int centerX = x + (int) (Math.cos(angle) * 45);
-            int centerY = y + (int) (Math.sin(angle) * 45);
-            int tipX = x + (int) (Math.cos(angle) * 70);
-            int tipY = y + (int) (Math.sin(angle) * 70);
-            
-            // Calculate spike points (triangle)
-            double perpAngle = angle + Math.PI / 2;
-            int leftX = centerX + (int) (Math.cos(perpAngle) * 12);
-            int leftY = centerY + (int) (Math.sin(perpAngle) * 12);
-            int rightX = centerX - (int) (Math.cos(perpAngle) * 12);
-            int rightY = centerY - (int) (Math.sin(perpAngle) * 12);
-            
-            // Fill spike triangle
-            int[] xPoints = {leftX, rightX, tipX};
-            int[] yPoints = {leftY, rightY, tipY};
-            g.fillPolygon(xPoints, yPoints, 3);
-            g.setColor(Color.MAGENTA);
-            g.drawPolygon(xPoints, yPoints, 3);
-            g.setColor(new Color(200, 50, 200));
+        random.writeState(out);
+        out.putInt(dashAttackQueue.size());
+        for (int v : dashAttackQueue) {
+            out.putInt(v);
         }
-
-        g.setTransform(oldTransform);
-
-        // Dash finish visual cue
-        if (dashFinishTimer > 0) {
-            float progress = (20 - dashFinishTimer) / 20.0f;
-            int cueSize = 80 + (int)(progress * 80);
-            float alpha = 0.8f * (1.0f - progress);
-            g.setColor(new Color(1f, 0.9f, 0.4f, alpha));
-            g.fillOval(x - cueSize / 2, y - cueSize / 2, cueSize, cueSize);
-            g.setColor(new Color(1f, 0.9f, 0.4f, Math.min(0.9f, alpha + 0.2f)));
-            g.setStroke(new BasicStroke(3));
-            g.drawOval(x - cueSize / 2, y - cueSize / 2, cueSize, cueSize);
+        out.putInt(dashDashCount);
+        out.putInt(dashTimer);
+        out.putDouble(dashAngle);
+        out.putDouble(dashSpeed);
+        out.putInt(dashBounces);
+        out.putInt(wallHitTimer);
+        out.putInt(wallHitX);
+        out.putInt(wallHitY);
+        out.putInt(currentDashAllowedBounces);
+        out.putInt(currentDashMaxFrames);
+        out.putDouble(spiralAngle);
+        StateIO.putBoolean(out, shieldActive);
+        out.putInt(shieldTimer);
+        out.putInt(beamSpamCounter);
+        out.putDouble(beamSpamAngle);
+        out.putInt(dashHighlightTimer);
+        out.putDouble(beamRotationAngle);
+        out.putInt(activeBeamAngles.size());
+        for (double v : activeBeamAngles) {
+            out.putDouble(v);
         }
-
-        // Rotating-beam spawn visual cue (pulsing magenta ring)
-        if (rotatingBeamCueTimer > 0) {
-            float prog = rotatingBeamCueTimer / 60.0f;
-            float alpha = 0.7f * prog;
-            int cueSize = 120 + (int)((1.0f - prog) * 60);
-            g.setColor(new Color(1f, 0f, 1f, alpha));
-            g.fillOval(x - cueSize / 2, y - cueSize / 2, cueSize, cueSize);
-            g.setColor(new Color(1f, 0f, 1f, Math.min(0.95f, alpha + 0.2f)));
-            g.setStroke(new BasicStroke(3));
-            g.drawOval(x - cueSize / 2, y - cueSize / 2, cueSize, cueSize);
+        out.putInt(persistentBeams.size());
+        for (RotatingBeam b : persistentBeams) {
+            b.writeState(out);
         }
+        StateIO.putPoints(out, dashTrail);
+        out.putDouble(bossRotation);
+        out.putInt(dashFinishTimer);
+        out.putInt(rotatingBeamCueTimer);
+        out.putInt(pendingBeeps);
+    }
 
-        // Wall-hit flash effect
-        if (wallHitTimer > 0) {
-            float prog = (float) wallHitTimer / 12.0f;
-            float alpha = 0.9f * prog;
-            int size = 40 + (int) ((1.0f - prog) * 80);
-            g.setColor(new Color(0.4f, 0.9f, 1f, alpha));
-            g.fillOval(wallHitX - size / 2, wallHitY - size / 2, size, size);
+    public void readState(ByteBuffer in) {
+        x = in.getInt();
+        y = in.getInt();
+        prevX = in.getInt();
+        prevY = in.getInt();
+        hp = in.getInt();
+        maxHp = in.getInt();
+        attackState = in.getInt();
+        attackTimer = in.getInt();
+        stateTransitionTimer = in.getInt();
+        screenWidth = in.getInt();
+        screenHeight = in.getInt();
+        StateIO.getList(in, beams, spareBeams, Beam::blank, Beam::readState);
+        random.readState(in);
+        dashAttackQueue.clear();
+        int queued = in.getInt();
+        for (int i = 0; i < queued; i++) {
+            dashAttackQueue.add(in.getInt());
         }
+        dashDashCount = in.getInt();
+        dashTimer = in.getInt();
+        dashAngle = in.getDouble();
+        dashSpeed = in.getDouble();
+        dashBounces = in.getInt();
+        wallHitTimer = in.getInt();
+        wallHitX = in.getInt();
+        wallHitY = in.getInt();
+        currentDashAllowedBounces = in.getInt();
+        currentDashMaxFrames = in.getInt();
+        spiralAngle = in.getDouble();
+        shieldActive = StateIO.getBoolean(in);
+        shieldTimer = in.getInt();
+        beamSpamCounter = in.getInt();
+        beamSpamAngle = in.getDouble();
+        dashHighlightTimer = in.getInt();
+        beamRotationAngle = in.getDouble();
+        activeBeamAngles.clear();
+        int angleCount = in.getInt();
+        for (int i = 0; i < angleCount; i++) {
+            activeBeamAngles.add(in.getDouble());
+        }
+        StateIO.getList(in, persistentBeams, spareRotatingBeams, RotatingBeam::blank, RotatingBeam::readState);
+        StateIO.getPoints(in, dashTrail, spareTrail);
+        bossRotation = in.getDouble();
+        dashFinishTimer = in.getInt();
+        rotatingBeamCueTimer = in.getInt();
+        pendingBeeps = in.getInt();
+    }
 
-        // HP bar drawing is handled by GamePanel to avoid duplicate UI elements
+    public void storePreviousPosition() {
+        prevX = x;
+        prevY = y;
     }
 
+    public int getX() { return x; }
+    public int getY() { return y; }
+    public int getPrevX() { return prevX; }
+    public int getPrevY() { return prevY; }
+    public int getHP() { return hp; }
+    public int getMaxHP() { return maxHp; }
+    public ArrayList<Beam> getBeams() { return beams; }
+    public ArrayList<RotatingBeam> getPersistentBeams() { return persistentBeams; }
+    public ArrayList<int[]> getDashTrail() { return dashTrail; }
+    public boolean isShieldActive() { return shieldActive; }
+    public int getAttackState() { return attackState; }
+    public int getDashHighlightTimer() { return dashHighlightTimer; }
+    public float getDashHighlightProgress() { return (float) dashHighlightTimer / DASH_HIGHLIGHT_DURATION; }
+    public double getBossRotation() { return bossRotation; }
+    public int getDashFinishTimer() { return dashFinishTimer; }
+    public int getRotatingBeamCueTimer() { return rotatingBeamCueTimer; }
+    public int getWallHitTimer() { return wallHitTimer; }
+    public int getWallHitX() { return wallHitX; }
+    public int getWallHitY() { return wallHitY; }
+
     public void setRemoveAfterFade(boolean remove) {
         // This method exists for compatibility with Beam interface expectations
     }
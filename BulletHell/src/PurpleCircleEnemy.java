@@ -1,9 +1,7 @@
-import java.awt.*;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 
-public class PurpleCircleEnemy {
-    private int x, y;
-    private int hp = 5;
+public class PurpleCircleEnemy extends Entity {
     private int rotationState = 0; // 0 = spinning fast, 1 = spinning slow, 2 = firing
     private int rotationTimer = 0;
     private double beamRotation = 0;
@@ -11,7 +9,8 @@ public class PurpleCircleEnemy {
     private int fireTimer = 0;
     private ArrayList<int[]> beamPositions;
     private ArrayList<Beam> beams;
-    private ArrayList<EnemyProjectile> visualParticles;
+    private final ArrayList<Beam> spareBeams = new ArrayList<>(); // for readFields
+    private final ArrayList<int[]> sparePositions = new ArrayList<>();
     private int targetX, targetY;
     private int moveTimer = 0;
     private static final int MOVE_CHANGE_INTERVAL = 180; // change target every 3s
@@ -20,14 +19,12 @@ public class PurpleCircleEnemy {
     private static final int RADIUS = 60; // Distance of beams from center
     private int screenWidth, screenHeight;
 
-    public PurpleCircleEnemy(int x, int y, int screenWidth, int screenHeight) {
-        this.x = x;
-        this.y = y;
+    public PurpleCircleEnemy(int x, int y, int screenWidth, int screenHeight, RandomStream random) {
+        super(Archetype.PURPLE_CIRCLE, x, y, 5, random);
         this.screenWidth = screenWidth;
         this.screenHeight = screenHeight;
         this.beamPositions = new ArrayList<>();
         this.beams = new ArrayList<>();
-        this.visualParticles = new ArrayList<>();
         this.targetX = x;
         this.targetY = y;
         initializeBeamPositions();
@@ -40,11 +37,13 @@ public class PurpleCircleEnemy {
         }
     }
 
-    public void update(int width, int height) {
-        update(width, height, false);
+    @Override
+    public void update(GameWorld world, EnemyProjectiles projectiles, BeamHazards hazards) {
+        update(world.getWidth(), world.getHeight(), world.getPlayer().hasSlowField(), projectiles, hazards);
+        spawnProjectiles(projectiles);
     }
 
-    public void update(int width, int height, boolean isSlowed) {
+    public void update(int width, int height, boolean isSlowed, EnemyProjectiles projectiles, BeamHazards hazards) {
         // Update beam positions around the circle (more beams for better coverage)
         int beamCount = 8; // increase beams for wider coverage
         while (beamPositions.size() < beamCount) beamPositions.add(new int[]{0,0});
@@ -61,8 +60,8 @@ public class PurpleCircleEnemy {
         moveTimer++;
         if (moveTimer >= MOVE_CHANGE_INTERVAL) {
             moveTimer = 0;
-            targetX = 100 + (int)(Math.random() * (width - 200));
-            targetY = 100 + (int)(Math.random() * (height - 200));
+            targetX = 100 + (int)(random.nextDouble() * (width - 200));
+            targetY = 100 + (int)(random.nextDouble() * (height - 200));
         }
         double mdx = targetX - x;
         double mdy = targetY - y;
@@ -81,7 +80,7 @@ public class PurpleCircleEnemy {
                 rotationTimer = 0;
                 rotationSpeed = 0.02; // Slow down gradually
                 // Randomize rotation for next cycle so beams fire in different directions
-                beamRotation += Math.random() * Math.PI * 2;
+                beamRotation += random.nextDouble() * Math.PI * 2;
             }
         } else if (rotationState == 1) {
             // Slow spinning (always spin regardless of slowField)
@@ -92,7 +91,7 @@ public class PurpleCircleEnemy {
                 rotationState = 2;
                 rotationTimer = 0;
                 // Spawn beams at the current circle positions after spinning
-                beams.clear();
+                retireHazards();
                 beamCount = beamPositions.size();
                 for (int i = 0; i < beamCount; i++) {
                     int beamX = beamPositions.get(i)[0];
@@ -100,11 +99,12 @@ public class PurpleCircleEnemy {
                     double angle = beamRotation + (i * Math.PI * 2 / beamCount);
                     Beam beam = new Beam(beamX, beamY, screenWidth, screenHeight, angle);
                     beams.add(beam);
+                    hazards.register(beam);
                     // Add visual particle streaks for improved beam visuals
                     for (int p = 0; p < 6; p++) {
-                        double pa = angle + (Math.random() - 0.5) * 0.2;
-                        int psz = 2 + (int)(Math.random() * 3);
-                        visualParticles.add(new EnemyProjectile(beamX, beamY, pa, psz, new Color(200, 50, 200), 0));
+                        double pa = angle + (random.nextDouble() - 0.5) * 0.2;
+                        int psz = 2 + (int)(random.nextDouble() * 3);
+                        projectiles.spawn(beamX, beamY, pa, psz, EnemyProjectiles.PURPLE, 0);
                     }
                 }
             }
@@ -133,7 +133,7 @@ public class PurpleCircleEnemy {
         }
     }
 
-    public void spawnProjectiles(ArrayList<EnemyProjectile> projectiles) {
+    public void spawnProjectiles(EnemyProjectiles projectiles) {
         // Fire projectiles when beams finish flashing
         int beamCount = beamPositions.size();
         for (int i = 0; i < beams.size(); i++) {
@@ -144,64 +144,70 @@ public class PurpleCircleEnemy {
                 int beamX = beamPositions.get(i)[0];
                 int beamY = beamPositions.get(i)[1];
                 // Fire projectile in beam direction
-                projectiles.add(new EnemyProjectile(beamX, beamY, angle, 4, Color.MAGENTA, 1));
+                projectiles.spawn(beamX, beamY, angle, 4, EnemyProjectiles.MAGENTA, 1);
             }
         }
-        // Also add visual particles produced when beams spawned
-        if (visualParticles != null && !visualParticles.isEmpty()) {
-            projectiles.addAll(visualParticles);
-            visualParticles.clear();
-        }
     }
 
-    public void takeDamage(int damage) {
-        hp -= damage;
+    @Override
+    public void retireHazards() {
+        for (Beam b : beams) {
+            b.retire();
+        }
+        beams.clear();
     }
 
-    public boolean isDead() {
-        return hp <= 0;
+    public ArrayList<int[]> getBeamPositions() {
+        return beamPositions;
     }
 
-    public boolean collidesWith(int px, int py) {
-        return Math.abs(x - px) < 25 && Math.abs(y - py) < 25;
+    public ArrayList<Beam> getBeams() {
+        return beams;
     }
 
-    public void draw(Graphics2D g) {
-        // Draw beams first (behind the enemy)
-        for (Beam beam : beams) {
-            beam.draw(g);
-        }
-        
-        // Draw purple circle
-        g.setColor(new Color(128, 0, 128));
-        g.fillOval(x - 25, y - 25, 50, 50);
-        g.setColor(Color.MAGENTA);
-        g.setStroke(new BasicStroke(2));
-        g.drawOval(x - 25, y - 25, 50, 50);
+    public int getRotationState() { return rotationState; }
+    public int getRotationTimer() { return rotationTimer; }
 
-        // Draw beam warnings during spinning/slow phases (enhanced visuals)
-        if (rotationState < 2) {
-            for (int idx = 0; idx < beamPositions.size(); idx++) {
-                int[] pos = beamPositions.get(idx);
-                float alpha = 0.5f + (float)Math.abs(Math.sin(rotationTimer * 0.05)) * 0.4f;
-                g.setColor(new Color(1f, 0.4f, 1f, Math.min(0.9f, alpha)));
-                int size = 12 + (idx % 2) * 6;
-                g.fillOval(pos[0] - size/2, pos[1] - size/2, size, size);
-                g.setColor(new Color(1f, 0f, 1f, Math.min(0.95f, alpha + 0.1f)));
-                g.setStroke(new BasicStroke(1));
-                g.drawOval(pos[0] - size/2, pos[1] - size/2, size, size);
-            }
+    @Override
+    public void registerHazards(BeamHazards hazards) {
+        for (int i = 0; i < beams.size(); i++) {
+            Beam b = beams.get(i);
+            if (!b.isRetired()) hazards.register(b);
         }
     }
 
-    public ArrayList<int[]> getBeamPositions() {
-        return beamPositions;
+    @Override
+    protected void writeFields(ByteBuffer out) {
+        out.putInt(rotationState);
+        out.putInt(rotationTimer);
+        out.putDouble(beamRotation);
+        out.putDouble(rotationSpeed);
+        out.putInt(fireTimer);
+        StateIO.putPoints(out, beamPositions);
+        out.putInt(beams.size());
+        for (Beam b : beams) {
+            b.writeState(out);
+        }
+        out.putInt(targetX);
+        out.putInt(targetY);
+        out.putInt(moveTimer);
+        out.putInt(screenWidth);
+        out.putInt(screenHeight);
     }
 
-    public ArrayList<Beam> getBeams() {
-        return beams;
+    @Override
+    protected void readFields(ByteBuffer in) {
+        rotationState = in.getInt();
+        rotationTimer = in.getInt();
+        beamRotation = in.getDouble();
+        rotationSpeed = in.getDouble();
+        fireTimer = in.getInt();
+        StateIO.getPoints(in, beamPositions, sparePositions);
+        StateIO.getList(in, beams, spareBeams, Beam::blank, Beam::readState);
+        targetX = in.getInt();
+        targetY = in.getInt();
+        moveTimer = in.getInt();
+        screenWidth = in.getInt();
+        screenHeight = in.getInt();
     }
-
-    public int getX() { return x; }
-    public int getY() { return y; }
 }
@@ -1,10 +1,7 @@
-import java.awt.*;
-import java.awt.geom.AffineTransform;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 
-public class PurpleTriangleEnemy {
-    private int x, y;
-    private int hp = 2;
+public class PurpleTriangleEnemy extends Entity {
     private int spinTimer = 0;
     private int spinDuration;
     private int dashDuration = 0;
@@ -14,16 +11,22 @@ public class PurpleTriangleEnemy {
     private double dashAngle = 0;
     private double spinAngle = 0;
     private ArrayList<int[]> trailPositions;
+    private final ArrayList<int[]> spareTrail = new ArrayList<>(); // for readFields
     private static final int DASH_SPEED = 8; // Faster than green triangle
     private static final double SPIN_SPEED = 0.3;
     private int state = 0; // 0 = spinning, 1 = dashing, 2 = waiting
 
-    public PurpleTriangleEnemy(int x, int y) {
-        this.x = x;
-        this.y = y;
+    public PurpleTriangleEnemy(int x, int y, RandomStream random) {
+        super(Archetype.PURPLE_TRIANGLE, x, y, 2, random);
         this.trailPositions = new ArrayList<>();
         this.spinDuration = 60;
-        this.waitDuration = 180 + (int)(Math.random() * 120); // 3-5 seconds
+        this.waitDuration = 180 + (int)(random.nextDouble() * 120); // 3-5 seconds
+    }
+
+    @Override
+    public void update(GameWorld world, EnemyProjectiles projectiles, BeamHazards hazards) {
+        Player player = world.getPlayer();
+        update(world.getWidth(), world.getHeight(), player.getX(), player.getY(), player.hasSlowField());
     }
 
     public void update(int width, int height, int playerX, int playerY) {
@@ -107,56 +110,39 @@ public class PurpleTriangleEnemy {
         }
     }
 
-    public void takeDamage(int damage) {
-        hp -= damage;
-    }
-
-    public boolean isDead() {
-        return hp <= 0;
+    public ArrayList<int[]> getTrailPositions() {
+        return trailPositions;
     }
 
-    public boolean collidesWith(int px, int py) {
-        return Math.abs(x - px) < 20 && Math.abs(y - py) < 20;
-    }
+    public int getState() { return state; }
+    public double getSpinAngle() { return spinAngle; }
+    public double getDashAngle() { return dashAngle; }
 
-    public void draw(Graphics2D g) {
-        // Draw trail
-        for (int i = 0; i < trailPositions.size(); i++) {
-            int[] pos = trailPositions.get(i);
-            float alpha = (float) i / trailPositions.size();
-            g.setColor(new Color(180, 100, 200, (int)(alpha * 100)));
-            g.fillRect(pos[0] - 5, pos[1] - 5, 10, 10);
-        }
-        
-        // Draw sprite with rotation (same size as green triangles)
-        var sprite = SpriteLoader.getSprite("purple_triangle");
-        if (sprite != null) {
-            // Calculate rotation angle
-            double rotationAngle;
-            if (state == 0) {
-                rotationAngle = spinAngle;
-            } else {
-                // Add π/2 because sprite point faces up, but dashAngle is measured from right
-                rotationAngle = dashAngle + Math.PI / 2;
-            }
-            
-            // Save graphics transform
-            AffineTransform originalTransform = g.getTransform();
-            
-            // Translate to position, rotate around center, then draw (40x40 like green triangle)
-            g.translate(x, y);
-            g.rotate(rotationAngle);
-            g.drawImage(sprite, -20, -20, 40, 40, null);
-            
-            // Restore transform
-            g.setTransform(originalTransform);
-        }
+    @Override
+    protected void writeFields(ByteBuffer out) {
+        out.putInt(spinTimer);
+        out.putInt(spinDuration);
+        out.putInt(dashDuration);
+        out.putInt(dashTimer);
+        out.putInt(waitTimer);
+        out.putInt(waitDuration);
+        out.putDouble(dashAngle);
+        out.putDouble(spinAngle);
+        StateIO.putPoints(out, trailPositions);
+        out.putInt(state);
     }
 
-    public ArrayList<int[]> getTrailPositions() {
-        return trailPositions;
+    @Override
+    protected void readFields(ByteBuffer in) {
+        spinTimer = in.getInt();
+        spinDuration = in.getInt();
+        dashDuration = in.getInt();
+        dashTimer = in.getInt();
+        waitTimer = in.getInt();
+        waitDuration = in.getInt();
+        dashAngle = in.getDouble();
+        spinAngle = in.getDouble();
+        StateIO.getPoints(in, trailPositions, spareTrail);
+        state = in.getInt();
     }
-
-    public int getX() { return x; }
-    public int getY() { return y; }
 }
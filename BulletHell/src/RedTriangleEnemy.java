@@ -1,10 +1,8 @@
-import java.awt.*;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 
-public class RedTriangleEnemy {
-    private int x, y;
+public class RedTriangleEnemy extends Entity {
     private double posX, posY;
-    private int hp = 2;
     private int state = 0; // 0=spinning,1=vanished+warning,2=dashing
     private double spinAngle = 0;
     private int spinTimer = 0;
@@ -18,6 +16,7 @@ public class RedTriangleEnemy {
     private int bounceCount = 0;
     private static final int MAX_BOUNCES = 2;
     private ArrayList<int[]> trailPositions;
+    private final ArrayList<int[]> spareTrail = new ArrayList<>(); // for readFields
     private static final int TRAIL_MAX = 30;
     private int trailFade = 0;
     // vanish-circle visual
@@ -27,9 +26,8 @@ public class RedTriangleEnemy {
     private int deathTimer = 0;
     private static final int DEATH_CIRCLE_DURATION = 24;
 
-    public RedTriangleEnemy(int x, int y) {
-        this.x = x;
-        this.y = y;
+    public RedTriangleEnemy(int x, int y, RandomStream random) {
+        super(Archetype.RED_TRIANGLE, x, y, 2, random);
         this.posX = x;
         this.posY = y;
         this.trailPositions = new ArrayList<>();
@@ -38,9 +36,16 @@ public class RedTriangleEnemy {
 
     private void randomizeTimings() {
         // spinDuration: base 50-90 frames
-        this.spinDuration = 50 + (int)(Math.random() * 40);
+        this.spinDuration = 50 + (int)(random.nextDouble() * 40);
         // vanishDuration: base 30-60 frames
-        this.vanishDuration = 30 + (int)(Math.random() * 30);
+        this.vanishDuration = 30 + (int)(random.nextDouble() * 30);
+    }
+
+    @Override
+    public void update(GameWorld world, EnemyProjectiles projectiles, BeamHazards hazards) {
+        Player player = world.getPlayer();
+        update(world.getWidth(), world.getHeight(), player.getX(), player.getY(), player.hasSlowField());
+        spawnProjectiles(projectiles, player.getX(), player.getY());
     }
 
     // update with player coordinates to pick respawn near player
@@ -60,8 +65,8 @@ public class RedTriangleEnemy {
                 state = 1;
                 vanishTimer = 0;
                 // respawn location near player
-                respawnX = playerX + (int)(Math.random() * 160 - 80);
-                respawnY = playerY + (int)(Math.random() * 120 - 60);
+                respawnX = playerX + (int)(random.nextDouble() * 160 - 80);
+                respawnY = playerY + (int)(random.nextDouble() * 120 - 60);
                 // record vanish location for a circle visual
                 vanishCircleX = x;
                 vanishCircleY = y;
@@ -73,6 +78,9 @@ public class RedTriangleEnemy {
                 // reappear and dash toward player
                 x = respawnX;
                 y = respawnY;
+                // Teleport: nothing was crossed on the way, so don't sweep or interpolate it
+                prevX = x;
+                prevY = y;
                 // initialize precise position used by dash physics
                 posX = x;
                 posY = y;
@@ -136,103 +144,72 @@ public class RedTriangleEnemy {
     }
 
     // Spawn local projectiles/particles to global list
-    public void spawnProjectiles(ArrayList<EnemyProjectile> projectiles, int playerX, int playerY) {
+    public void spawnProjectiles(EnemyProjectiles projectiles, int playerX, int playerY) {
         // Red triangle no longer spawns flying particles; visual circle is drawn directly in draw().
     }
 
-    public boolean collidesWith(int px, int py) {
-        return Math.abs(x - px) < 18 && Math.abs(y - py) < 18;
-    }
-
-    public void takeDamage(int d) { hp -= d; }
+    @Override
     public boolean isDead() { return hp <= 0 && state == 3 ? (deathTimer <= 0) : (state == 3 && deathTimer <= 0); }
-    public int getX() { return x; }
-    public int getY() { return y; }
 
-    public void draw(Graphics2D g) {
-        if (state == 0) {
-            // spinning sprite (use triangle sprite if available)
-            // use the red triangle sprite for visibility
-            var sprite = SpriteLoader.getSprite("red_triangle");
-            if (sprite != null) {
-                java.awt.geom.AffineTransform t = g.getTransform();
-                g.translate(x, y);
-                g.rotate(spinAngle);
-                g.drawImage(sprite, -20, -20, 40, 40, null);
-                g.setTransform(t);
-            } else {
-                // fallback: draw a red triangle so enemy is always visible
-                java.awt.geom.AffineTransform t = g.getTransform();
-                g.translate(x, y);
-                g.rotate(spinAngle);
-                int[] xp = {0, -12, 12};
-                int[] yp = {-14, 12, 12};
-                g.setColor(new Color(200, 40, 40));
-                g.fillPolygon(xp, yp, 3);
-                g.setColor(new Color(120, 20, 20));
-                g.setStroke(new BasicStroke(2));
-                g.drawPolygon(xp, yp, 3);
-                g.setTransform(t);
-            }
-        } else if (state == 1) {
-            // draw nothing at original spot; draw warning at respawn
-            float alpha = (float)(vanishTimer) / vanishDuration;
-            g.setColor(new Color(1f, 0.3f, 0.3f, Math.min(0.9f, alpha)));
-            int size = 20 + (int)(alpha * 30);
-            g.fillOval(respawnX - size/2, respawnY - size/2, size, size);
-            // draw a short vanish-circle at the original vanish location
-            if (vanishTimer <= vanishCircleDuration) {
-                float vprog = (float)vanishTimer / (float)Math.max(1, vanishCircleDuration);
-                float valpha = Math.max(0f, 1f - vprog);
-                int vr = 12 + (int)(vprog * 36);
-                g.setColor(new Color(1f, 0.2f, 0.2f, valpha * 0.9f));
-                g.fillOval(vanishCircleX - vr/2, vanishCircleY - vr/2, vr, vr);
-                g.setColor(new Color(0.6f, 0.1f, 0.1f, valpha));
-                g.setStroke(new BasicStroke(2));
-                g.drawOval(vanishCircleX - vr/2, vanishCircleY - vr/2, vr, vr);
-            }
-        } else if (state == 3) {
-            // draw death vanish circle at last position
-            int v = (DEATH_CIRCLE_DURATION - deathTimer);
-            float vprog = (float)v / (float)Math.max(1, DEATH_CIRCLE_DURATION);
-            float valpha = Math.max(0f, 1f - vprog);
-            int vr = 12 + (int)(vprog * 36);
-            g.setColor(new Color(1f, 0.2f, 0.2f, valpha * 0.95f));
-            g.fillOval(vanishCircleX - vr/2, vanishCircleY - vr/2, vr, vr);
-            g.setColor(new Color(0.6f, 0.1f, 0.1f, valpha));
-            g.setStroke(new BasicStroke(2));
-            g.drawOval(vanishCircleX - vr/2, vanishCircleY - vr/2, vr, vr);
-        } else if (state == 2) {
-            // draw trail
-            for (int i = 0; i < trailPositions.size(); i++) {
-                int[] pos = trailPositions.get(i);
-                float a = (float)i / trailPositions.size();
-                g.setColor(new Color(1f, 0.2f, 0.2f, a));
-                int s = 12 - (i * 10 / Math.max(1, trailPositions.size()));
-                g.fillRect(pos[0] - s/2, pos[1] - s/2, s, s);
-            }
-            var sprite = SpriteLoader.getSprite("red_triangle");
-            if (sprite != null) {
-                java.awt.geom.AffineTransform t = g.getTransform();
-                // draw using rounded pos for smoother rotation when dashing
-                g.translate((int)Math.round(posX), (int)Math.round(posY));
-                g.rotate(dashAngle + Math.PI/2);
-                g.drawImage(sprite, -20, -20, 40, 40, null);
-                g.setTransform(t);
-            } else {
-                // fallback red triangle when no sprite loaded
-                java.awt.geom.AffineTransform t = g.getTransform();
-                g.translate((int)Math.round(posX), (int)Math.round(posY));
-                g.rotate(dashAngle + Math.PI/2);
-                int[] xp = {0, -12, 12};
-                int[] yp = {-14, 12, 12};
-                g.setColor(new Color(220, 60, 60));
-                g.fillPolygon(xp, yp, 3);
-                g.setColor(new Color(140, 30, 30));
-                g.setStroke(new BasicStroke(2));
-                g.drawPolygon(xp, yp, 3);
-                g.setTransform(t);
-            }
-        }
+    public int getState() { return state; }
+    public double getSpinAngle() { return spinAngle; }
+    public double getDashAngle() { return dashAngle; }
+    public double getPosX() { return posX; }
+    public double getPosY() { return posY; }
+    public int getRespawnX() { return respawnX; }
+    public int getRespawnY() { return respawnY; }
+    public int getVanishTimer() { return vanishTimer; }
+    public int getVanishDuration() { return vanishDuration; }
+    public int getVanishCircleX() { return vanishCircleX; }
+    public int getVanishCircleY() { return vanishCircleY; }
+    public int getVanishCircleDuration() { return vanishCircleDuration; }
+    public int getDeathTimer() { return deathTimer; }
+    public int getDeathCircleDuration() { return DEATH_CIRCLE_DURATION; }
+    public ArrayList<int[]> getTrailPositions() { return trailPositions; }
+
+    @Override
+    protected void writeFields(ByteBuffer out) {
+        out.putDouble(posX);
+        out.putDouble(posY);
+        out.putInt(state);
+        out.putDouble(spinAngle);
+        out.putInt(spinTimer);
+        out.putInt(spinDuration);
+        out.putInt(vanishTimer);
+        out.putInt(vanishDuration);
+        out.putInt(respawnX);
+        out.putInt(respawnY);
+        out.putDouble(dashAngle);
+        out.putDouble(currentSpeed);
+        out.putInt(bounceCount);
+        StateIO.putPoints(out, trailPositions);
+        out.putInt(trailFade);
+        out.putInt(vanishCircleX);
+        out.putInt(vanishCircleY);
+        out.putInt(vanishCircleDuration);
+        out.putInt(deathTimer);
+    }
+
+    @Override
+    protected void readFields(ByteBuffer in) {
+        posX = in.getDouble();
+        posY = in.getDouble();
+        state = in.getInt();
+        spinAngle = in.getDouble();
+        spinTimer = in.getInt();
+        spinDuration = in.getInt();
+        vanishTimer = in.getInt();
+        vanishDuration = in.getInt();
+        respawnX = in.getInt();
+        respawnY = in.getInt();
+        dashAngle = in.getDouble();
+        currentSpeed = in.getDouble();
+        bounceCount = in.getInt();
+        StateIO.getPoints(in, trailPositions, spareTrail);
+        trailFade = in.getInt();
+        vanishCircleX = in.getInt();
+        vanishCircleY = in.getInt();
+        vanishCircleDuration = in.getInt();
+        deathTimer = in.getInt();
     }
 }
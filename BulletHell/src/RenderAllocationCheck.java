@@ -0,0 +1,130 @@
+// Checks that drawing a frame allocates nothing. Plays a few waves with the
+// headless bot and paints every tick into an offscreen image the way GamePanel
+// does: the tick's snapshot loaded into a separate render world, then the
+// world, HUD and an achievement popup drawn from it. Counts the bytes the load
+// and paint allocated on this thread. Every wave is played once from its seed to warm
+// the JIT and build each cached sprite, oval size and rotation the frames
+// need, then all of them are played again from the same seeds and measured
+// once past the warmup ticks.
+// Usage: java RenderAllocationCheck [--ticks N] [--seed S] [--blitter]
+// --blitter paints the enemy bullets with ProjectileBlitter, as --software-bullets does in the game.
+// Exits 1 if any measured frame allocated. Run from the BulletHell folder so sprites load.
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+
+public class RenderAllocationCheck {
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 700;
+    private static final int[] WAVES = {1, 5, 10, 15, 20, 25};
+    private static final int WARMUP_TICKS = 1200; // per run, before any frame is counted
+
+    private static com.sun.management.ThreadMXBean threads;
+    private static BufferedImage image;
+    private static Graphics2D g2d;
+    private static boolean blitter = false;
+    // Loaded from every run's snapshots in turn, as GamePanel's is for a whole game, so the
+    // warmup runs also grow the lists and spare objects it reads into
+    private static GameWorld renderWorld;
+    private static final StateIO snapshots = new StateIO();
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        int ticks = 1800;
+        long seed = 1;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--ticks":
+                    ticks = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--blitter":
+                    blitter = true;
+                    break;
+                default:
+                    System.err.println("Unknown argument: " + args[i]);
+                    System.err.println("Usage: RenderAllocationCheck [--ticks N] [--seed S] [--blitter]");
+                    System.exit(2);
+            }
+        }
+
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.err.println("This JVM can't count allocated bytes per thread");
+            System.exit(2);
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        SpriteLoader.loadSprites();
+        image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        renderWorld = new GameWorld(null, 1, WIDTH, HEIGHT, seed);
+
+        long failedFrames = 0;
+        for (int wave : WAVES) {
+            run(wave, seed, ticks, false);
+        }
+        for (int wave : WAVES) {
+            failedFrames += run(wave, seed, ticks, true);
+        }
+
+        System.out.println("frames that allocated: " + failedFrames);
+        if (failedFrames > 0) {
+            System.exit(1);
+        }
+    }
+
+    // Plays one run from the start of the wave; when measured, prints and
+    // returns how many of the frames after the warmup allocated
+    private static long run(int wave, long seed, int ticks, boolean measured) {
+        GameWorld world = new GameWorld(null, wave, WIDTH, HEIGHT, seed);
+        InputState input = new InputState();
+        AchievementPopup popup = new AchievementPopup("Allocation Check", WIDTH);
+        HudLayer hud = new HudLayer();
+        long frames = 0, allocatingFrames = 0, totalBytes = 0, maxBytes = 0;
+
+        for (int tick = 0; tick < WARMUP_TICKS + ticks; tick++) {
+            if (world.isAwaitingUpgrade()) {
+                world.chooseUpgrade(world.getOfferedUpgrades()[0]);
+            }
+            HeadlessRunner.scriptInput(world, input, tick);
+            world.update(input);
+            input.clearEvents();
+            world.getPlayer().heal(5); // keep the bot alive so the wave's own enemies and beams stay on screen
+            popup.update();
+            if (popup.isFinished()) {
+                popup = new AchievementPopup("Allocation Check", WIDTH);
+            }
+
+            ByteBuffer snapshot = snapshots.save(world); // on the simulation thread in the game
+
+            long before = threads.getCurrentThreadAllocatedBytes();
+            renderWorld.readState(snapshot);
+            g2d.setColor(Color.BLACK);
+            g2d.fillRect(0, 0, WIDTH, HEIGHT);
+            WorldRenderer.draw(g2d, blitter ? image : null, renderWorld, 0.5);
+            hud.draw(g2d, renderWorld, WIDTH);
+            popup.draw(g2d);
+            long bytes = threads.getCurrentThreadAllocatedBytes() - before;
+
+            if (measured && tick >= WARMUP_TICKS) {
+                frames++;
+                totalBytes += bytes;
+                maxBytes = Math.max(maxBytes, bytes);
+                if (bytes > 0) allocatingFrames++;
+            }
+        }
+
+        if (measured) {
+            System.out.printf("wave %2d (reached %2d): %d frames, %d allocated (%d bytes total, %d max, %.1f per frame)%n",
+                    wave, world.getWaveNumber(), frames, allocatingFrames, totalBytes, maxBytes,
+                    (double) totalBytes / frames);
+        }
+        return allocatingFrames;
+    }
+}
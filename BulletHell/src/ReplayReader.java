@@ -0,0 +1,258 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Plays back a file written by ReplayRecorder. nextFrame feeds one recorded
+// frame into an InputState (and applies that frame's resize and upgrade pick
+// to the world), so the caller runs world.update exactly as it would live.
+// seek jumps to any frame by loading the nearest earlier keyframe and only
+// simulating the frames after it.
+public class ReplayReader {
+    private final FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private final StateIO state = new StateIO();
+    private final long seed;
+    private final int startingWave;
+    private final int width, height;
+    private final int keyframeInterval;
+    private long[] keyframeFrames = new long[64];
+    private long[] keyframeOffsets = new long[64];
+    private int keyframeCount = 0;
+    private long frameIndex = 0; // next frame nextFrame will return
+    private boolean verifyKeyframes = false; // compare the live world against keyframes played through
+    private int keyframesChecked = 0;
+    private int desyncs = 0;
+
+    public ReplayReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        buffer.limit(0);
+        if (!fill(ReplayRecorder.HEADER_SIZE) || buffer.getInt() != ReplayRecorder.MAGIC) {
+            throw new IOException("Not a replay file: " + path);
+        }
+        int version = buffer.getInt();
+        if (version != ReplayRecorder.VERSION) {
+            throw new IOException("Unsupported replay version " + version + ": " + path);
+        }
+        seed = buffer.getLong();
+        startingWave = buffer.getInt();
+        width = buffer.getInt();
+        height = buffer.getInt();
+        keyframeInterval = buffer.getInt();
+
+        if (!readIndex()) {
+            // Recording was cut short, rebuild the index from the records themselves
+            scanForKeyframes();
+        }
+        moveTo(ReplayRecorder.HEADER_SIZE);
+    }
+
+    // A fresh world in the state the recording started from
+    public GameWorld createWorld() {
+        return new GameWorld(null, startingWave, width, height, seed);
+    }
+
+    // Reads the next frame into input and applies its world-side effects.
+    // Returns false once the recording is exhausted.
+    public boolean nextFrame(GameWorld world, InputState input) throws IOException {
+        while (fill(1)) {
+            byte tag = buffer.get();
+            if (tag == ReplayRecorder.TAG_KEYFRAME) {
+                if (!fill(12)) return false;
+                buffer.getLong(); // frame number, already known from the index
+                int length = buffer.getInt();
+                if (!fill(length)) return false;
+                if (verifyKeyframes) {
+                    checkKeyframe(world, length);
+                } else {
+                    buffer.position(buffer.position() + length);
+                }
+            } else if (tag == ReplayRecorder.TAG_FRAME) {
+                return readFrame(world, input);
+            } else {
+                return false; // index record: end of the frames
+            }
+        }
+        return false;
+    }
+
+    // Leaves the world at the start of the given frame, as if every earlier
+    // frame had been played
+    public void seek(GameWorld world, long targetFrame) throws IOException {
+        int k = -1;
+        for (int i = 0; i < keyframeCount && keyframeFrames[i] <= targetFrame; i++) {
+            k = i;
+        }
+        boolean rewind = targetFrame < frameIndex;
+        boolean skipAhead = k >= 0 && keyframeFrames[k] > frameIndex;
+        if (rewind || skipAhead) {
+            if (k < 0) throw new IOException("No keyframe at or before frame " + targetFrame);
+            moveTo(keyframeOffsets[k]);
+            fill(13);
+            buffer.get(); // tag
+            frameIndex = buffer.getLong();
+            int length = buffer.getInt();
+            fill(length);
+            ByteBuffer snapshot = buffer.slice();
+            snapshot.limit(length);
+            world.readState(snapshot);
+            buffer.position(buffer.position() + length);
+        }
+
+        // Simulate the rest of the way from the keyframe
+        InputState input = new InputState();
+        while (frameIndex < targetFrame && nextFrame(world, input)) {
+            world.update(input);
+            input.clearEvents();
+        }
+    }
+
+    public void setVerifyKeyframes(boolean verify) {
+        this.verifyKeyframes = verify;
+    }
+
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public long getSeed() { return seed; }
+    public int getStartingWave() { return startingWave; }
+    public int getKeyframeInterval() { return keyframeInterval; }
+    public int getKeyframeCount() { return keyframeCount; }
+    public long getFrameIndex() { return frameIndex; }
+    public int getKeyframesChecked() { return keyframesChecked; }
+    public int getDesyncs() { return desyncs; }
+
+    private boolean readFrame(GameWorld world, InputState input) throws IOException {
+        if (!fill(5)) return false;
+        int flags = buffer.get() & 0xFF;
+        int extra = ((flags & ReplayRecorder.FIRE) != 0 ? 4 : 0)
+                + ((flags & ReplayRecorder.RESIZED) != 0 ? 4 : 0)
+                + ((flags & ReplayRecorder.UPGRADE) != 0 ? 1 : 0);
+        if (!fill(4 + extra)) return false;
+
+        input.up = (flags & ReplayRecorder.UP) != 0;
+        input.down = (flags & ReplayRecorder.DOWN) != 0;
+        input.left = (flags & ReplayRecorder.LEFT) != 0;
+        input.right = (flags & ReplayRecorder.RIGHT) != 0;
+        input.dash = (flags & ReplayRecorder.DASH) != 0;
+        input.fire = (flags & ReplayRecorder.FIRE) != 0;
+        input.mouseX = buffer.getShort();
+        input.mouseY = buffer.getShort();
+        if (input.fire) {
+            input.aimX = buffer.getShort();
+            input.aimY = buffer.getShort();
+        }
+        if ((flags & ReplayRecorder.RESIZED) != 0) {
+            world.setScreenSize(buffer.getShort(), buffer.getShort());
+        }
+        if ((flags & ReplayRecorder.UPGRADE) != 0) {
+            int choice = buffer.get();
+            // Already applied when playback started from the keyframe before this frame
+            if (world.isAwaitingUpgrade()) {
+                world.chooseUpgrade(world.getOfferedUpgrades()[choice]);
+            }
+        }
+        frameIndex++;
+        return true;
+    }
+
+    private void checkKeyframe(GameWorld world, int length) {
+        ByteBuffer recorded = buffer.slice();
+        recorded.limit(length);
+        buffer.position(buffer.position() + length);
+        keyframesChecked++;
+        if (!state.save(world).equals(recorded)) {
+            desyncs++;
+            System.out.println("ReplayReader: world differs from keyframe at frame " + frameIndex);
+        }
+    }
+
+    private boolean readIndex() throws IOException {
+        long size = channel.size();
+        if (size < ReplayRecorder.HEADER_SIZE + ReplayRecorder.FOOTER_SIZE) return false;
+        moveTo(size - ReplayRecorder.FOOTER_SIZE);
+        if (!fill(ReplayRecorder.FOOTER_SIZE)) return false;
+        long indexOffset = buffer.getLong();
+        if (buffer.getInt() != ReplayRecorder.INDEX_MAGIC) return false;
+
+        moveTo(indexOffset);
+        if (!fill(5) || buffer.get() != ReplayRecorder.TAG_INDEX) return false;
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            if (!fill(16)) return false;
+            addKeyframe(buffer.getLong(), buffer.getLong());
+        }
+        return true;
+    }
+
+    private void scanForKeyframes() throws IOException {
+        keyframeCount = 0;
+        moveTo(ReplayRecorder.HEADER_SIZE);
+        while (fill(1)) {
+            long offset = position();
+            byte tag = buffer.get();
+            if (tag == ReplayRecorder.TAG_KEYFRAME) {
+                if (!fill(12)) break;
+                long frame = buffer.getLong();
+                int length = buffer.getInt();
+                if (!fill(length)) break; // keyframe cut off mid-write
+                buffer.position(buffer.position() + length);
+                addKeyframe(frame, offset);
+            } else if (tag == ReplayRecorder.TAG_FRAME) {
+                if (!fill(5)) break;
+                int flags = buffer.get() & 0xFF;
+                int length = 4 + ((flags & ReplayRecorder.FIRE) != 0 ? 4 : 0)
+                        + ((flags & ReplayRecorder.RESIZED) != 0 ? 4 : 0)
+                        + ((flags & ReplayRecorder.UPGRADE) != 0 ? 1 : 0);
+                if (!fill(length)) break;
+                buffer.position(buffer.position() + length);
+            } else {
+                break;
+            }
+        }
+    }
+
+    private void addKeyframe(long frame, long offset) {
+        if (keyframeCount == keyframeFrames.length) {
+            keyframeFrames = Arrays.copyOf(keyframeFrames, keyframeCount * 2);
+            keyframeOffsets = Arrays.copyOf(keyframeOffsets, keyframeCount * 2);
+        }
+        keyframeFrames[keyframeCount] = frame;
+        keyframeOffsets[keyframeCount] = offset;
+        keyframeCount++;
+    }
+
+    // File offset of the next unread byte
+    private long position() throws IOException {
+        return channel.position() - buffer.remaining();
+    }
+
+    private void moveTo(long offset) throws IOException {
+        channel.position(offset);
+        buffer.clear();
+        buffer.limit(0);
+    }
+
+    // Makes sure at least n unread bytes are buffered; false at end of file
+    private boolean fill(int n) throws IOException {
+        if (buffer.remaining() >= n) return true;
+        if (n > buffer.capacity()) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(n, buffer.capacity() * 2));
+            bigger.put(buffer);
+            bigger.flip();
+            buffer = bigger;
+        }
+        buffer.compact();
+        while (buffer.position() < n) {
+            if (channel.read(buffer) < 0) {
+                buffer.flip();
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+}
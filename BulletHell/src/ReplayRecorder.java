@@ -0,0 +1,161 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Records a run as the input that drove it, so it can be replayed exactly.
+// File layout (all big-endian):
+//   header   magic, version, seed, starting wave, width, height, keyframe interval
+//   records  one FRAME per world.update call, plus a KEYFRAME (full world
+//            state) every keyframeInterval frames, written before that frame
+//   index    INDEX record listing every keyframe's frame number and file offset
+//   footer   offset of the index record, then INDEX_MAGIC
+// A file cut off before close() has no index; ReplayReader rebuilds it by scanning.
+public class ReplayRecorder {
+    static final int MAGIC = 0x42485250; // "BHRP"
+    static final int INDEX_MAGIC = 0x42484958; // "BHIX"
+    static final int VERSION = 2; // 2: the world state has where the current run started
+    static final int HEADER_SIZE = 32;
+    static final int FOOTER_SIZE = 12;
+    static final byte TAG_FRAME = 1;
+    static final byte TAG_KEYFRAME = 2;
+    static final byte TAG_INDEX = 3;
+
+    // Frame flag bits
+    static final int UP = 1, DOWN = 2, LEFT = 4, RIGHT = 8, DASH = 16, FIRE = 32;
+    static final int RESIZED = 64; // followed by the new width and height
+    static final int UPGRADE = 128; // followed by the index of the chosen upgrade
+
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 600; // ten seconds at 60 Hz
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private final StateIO state = new StateIO();
+    private final int keyframeInterval;
+    private long frameIndex = 0;
+    private long[] keyframeFrames = new long[64];
+    private long[] keyframeOffsets = new long[64];
+    private int keyframeCount = 0;
+    private int lastWidth, lastHeight;
+    private int pendingUpgrade = -1; // chosen since the last frame, -1 if none
+
+    // Call right after the world is created, before its first update
+    public ReplayRecorder(Path path, GameWorld world, int startingWave, int keyframeInterval) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.keyframeInterval = keyframeInterval;
+        this.lastWidth = world.getWidth();
+        this.lastHeight = world.getHeight();
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(world.getSeed());
+        buffer.putInt(startingWave);
+        buffer.putInt(lastWidth);
+        buffer.putInt(lastHeight);
+        buffer.putInt(keyframeInterval);
+    }
+
+    // Index into world.getOfferedUpgrades() of the upgrade the player just picked
+    public void recordUpgradeChoice(int index) {
+        pendingUpgrade = index;
+    }
+
+    // Call right before world.update(input), after any upgrade choice and resize
+    public void recordFrame(InputState input, GameWorld world) throws IOException {
+        if (frameIndex % keyframeInterval == 0) {
+            writeKeyframe(world);
+        }
+
+        int flags = 0;
+        if (input.up) flags |= UP;
+        if (input.down) flags |= DOWN;
+        if (input.left) flags |= LEFT;
+        if (input.right) flags |= RIGHT;
+        if (input.dash) flags |= DASH;
+        if (input.fire) flags |= FIRE;
+        boolean resized = world.getWidth() != lastWidth || world.getHeight() != lastHeight;
+        if (resized) flags |= RESIZED;
+        if (pendingUpgrade >= 0) flags |= UPGRADE;
+
+        ensureRoom(16);
+        buffer.put(TAG_FRAME);
+        buffer.put((byte) flags);
+        buffer.putShort((short) input.mouseX);
+        buffer.putShort((short) input.mouseY);
+        if (input.fire) {
+            buffer.putShort((short) input.aimX);
+            buffer.putShort((short) input.aimY);
+        }
+        if (resized) {
+            lastWidth = world.getWidth();
+            lastHeight = world.getHeight();
+            buffer.putShort((short) lastWidth);
+            buffer.putShort((short) lastHeight);
+        }
+        if (pendingUpgrade >= 0) {
+            buffer.put((byte) pendingUpgrade);
+            pendingUpgrade = -1;
+        }
+        frameIndex++;
+    }
+
+    private void writeKeyframe(GameWorld world) throws IOException {
+        ByteBuffer snapshot = state.save(world);
+        ensureRoom(13);
+        long offset = position();
+        buffer.put(TAG_KEYFRAME);
+        buffer.putLong(frameIndex);
+        buffer.putInt(snapshot.remaining());
+        flush();
+        while (snapshot.hasRemaining()) {
+            channel.write(snapshot);
+        }
+
+        if (keyframeCount == keyframeFrames.length) {
+            keyframeFrames = Arrays.copyOf(keyframeFrames, keyframeCount * 2);
+            keyframeOffsets = Arrays.copyOf(keyframeOffsets, keyframeCount * 2);
+        }
+        keyframeFrames[keyframeCount] = frameIndex;
+        keyframeOffsets[keyframeCount] = offset;
+        keyframeCount++;
+    }
+
+    // Writes the keyframe index and footer, then closes the file
+    public void close() throws IOException {
+        ensureRoom(5);
+        long indexOffset = position();
+        buffer.put(TAG_INDEX);
+        buffer.putInt(keyframeCount);
+        for (int i = 0; i < keyframeCount; i++) {
+            ensureRoom(16);
+            buffer.putLong(keyframeFrames[i]);
+            buffer.putLong(keyframeOffsets[i]);
+        }
+        ensureRoom(FOOTER_SIZE);
+        buffer.putLong(indexOffset);
+        buffer.putInt(INDEX_MAGIC);
+        flush();
+        channel.close();
+    }
+
+    public long getFrameCount() { return frameIndex; }
+
+    // File offset the next byte put into the buffer will land at
+    private long position() throws IOException {
+        return channel.position() + buffer.position();
+    }
+
+    private void ensureRoom(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) flush();
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
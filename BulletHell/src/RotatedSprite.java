@@ -0,0 +1,63 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.function.Supplier;
+
+// A sprite pre-rotated around its centre to STEPS evenly spaced angles. Drawing
+// it picks the nearest angle and blits that frame 1:1, where rotating the
+// Graphics and drawing the sprite would resample it and allocate every time.
+// The frames are made together by makeFrames while sprites load, into the
+// SpriteAtlas, or, for a sprite too big to be worth the room there, as images
+// of their own the first time it's drawn.
+public class RotatedSprite {
+    private static final int STEPS = 128; // under 3 degrees apart, a pixel at the tips of a 40px sprite
+
+    private final Supplier<BufferedImage> source;
+    private final boolean inAtlas;
+    private AtlasRegion[] frames;
+    private int half; // frames are square, 2 * half across, with the sprite's centre in the middle
+
+    public RotatedSprite(Supplier<BufferedImage> source) {
+        this(source, true);
+    }
+
+    // With inAtlas false the frames are kept as images of their own
+    public RotatedSprite(Supplier<BufferedImage> source, boolean inAtlas) {
+        this.source = source;
+        this.inAtlas = inAtlas;
+    }
+
+    // Draws the sprite centred on x, y and turned by angle radians, as
+    // translate(x, y), rotate(angle) and drawing it at minus half its size would.
+    // Returns false, drawing nothing, if the source wasn't available.
+    public boolean draw(Graphics2D g, int x, int y, double angle) {
+        if (frames == null && (inAtlas || !makeFrames())) return false;
+        int step = (int) (Math.round(angle * STEPS / (Math.PI * 2)) % STEPS);
+        if (step < 0) step += STEPS;
+        frames[step].draw(g, x - half, y - half);
+        return true;
+    }
+
+    // Makes the frames now; for an atlas sprite, before the SpriteAtlas is packed
+    public boolean makeFrames() {
+        BufferedImage sprite = source.get();
+        if (sprite == null) return false;
+
+        int w = sprite.getWidth();
+        int h = sprite.getHeight();
+        half = (int) Math.ceil(Math.sqrt(w * w + h * h) / 2) + 1;
+        AtlasRegion[] made = new AtlasRegion[STEPS];
+        for (int i = 0; i < STEPS; i++) {
+            BufferedImage frame = SpriteLoader.createCompatible(half * 2, half * 2);
+            Graphics2D g = frame.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.translate(half, half);
+            g.rotate(i * Math.PI * 2 / STEPS);
+            g.drawImage(sprite, -w / 2, -h / 2, null);
+            g.dispose();
+            made[i] = inAtlas ? SpriteAtlas.add(frame) : AtlasRegion.standalone(frame);
+        }
+        frames = made;
+        return true;
+    }
+}
@@ -1,11 +1,17 @@
-import java.awt.*;
+import java.nio.ByteBuffer;
 
-public class RotatingBeam {
+public class RotatingBeam implements BeamHazard {
     private int centerX, centerY;
     private double baseAngle; // starting angle
     private double rotationOffset = 0;
     private int screenWidth, screenHeight;
     private static final int BEAM_WIDTH = 80;
+    private static final int MIN_HIT_RADIUS = 20; // no hits this close to the boss
+
+    // Oriented hitbox, refreshed only when the rotation or screen size changes
+    private double cos, sin;
+    private int length;
+    private boolean retired = false;
 
     public RotatingBeam(int bossX, int bossY, double angle, int screenWidth, int screenHeight) {
         this.centerX = bossX;
@@ -13,6 +19,9 @@ public class RotatingBeam {
         this.baseAngle = angle;
         this.screenWidth = screenWidth;
         this.screenHeight = screenHeight;
+        this.cos = Math.cos(angle);
+        this.sin = Math.sin(angle);
+        this.length = (int) Math.sqrt(screenWidth * screenWidth + screenHeight * screenHeight);
     }
 
     public void setCenter(int x, int y) {
@@ -21,7 +30,11 @@ public class RotatingBeam {
     }
 
     public void setRotation(double offset) {
+        if (offset == rotationOffset) return;
         this.rotationOffset = offset;
+        double finalAngle = baseAngle + offset;
+        cos = Math.cos(finalAngle);
+        sin = Math.sin(finalAngle);
     }
 
     public void update(int bossX, int bossY, double rotationOffset) {
@@ -30,47 +43,61 @@ public class RotatingBeam {
     }
 
     public void setScreenSize(int w, int h) {
+        if (w == screenWidth && h == screenHeight) return;
         this.screenWidth = w;
         this.screenHeight = h;
+        this.length = (int) Math.sqrt(w * w + h * h);
     }
 
-    public void draw(Graphics2D g) {
-        double finalAngle = baseAngle + rotationOffset;
-        java.awt.geom.AffineTransform old = g.getTransform();
-        g.translate(centerX, centerY);
-        g.rotate(finalAngle);
-
-        int beamLength = (int) Math.sqrt(screenWidth * screenWidth + screenHeight * screenHeight);
+    public boolean checkCollision(int px, int py) {
+        // Beam drawn at x=0..beamLength, y=-BEAM_WIDTH/2..BEAM_WIDTH/2 in its own frame
+        return Collision.pointInOrientedBox(px, py, centerX, centerY, cos, sin,
+                0, length, BEAM_WIDTH / 2, MIN_HIT_RADIUS);
+    }
 
-        // Glow
-        g.setColor(new Color(1f, 1f, 0.6f, 0.6f));
-        g.fillRect(0, -BEAM_WIDTH / 2, beamLength, BEAM_WIDTH);
+    public void retire() {
+        retired = true;
+    }
 
-        // Core
-        g.setColor(new Color(1f, 1f, 0.2f, 1f));
-        g.fillRect(0, -BEAM_WIDTH / 4, beamLength, BEAM_WIDTH / 2);
+    public boolean isRetired() {
+        return retired;
+    }
 
-        g.setTransform(old);
+    public void writeState(ByteBuffer out) {
+        out.putInt(centerX);
+        out.putInt(centerY);
+        out.putDouble(baseAngle);
+        out.putDouble(rotationOffset);
+        out.putInt(screenWidth);
+        out.putInt(screenHeight);
+        StateIO.putBoolean(out, retired);
     }
 
-    public boolean checkCollision(int px, int py) {
-        // Transform point into beam-local coordinates (beam drawn at x=0..beamLength, y=-BEAM_WIDTH/2..BEAM_WIDTH/2)
+    public void readState(ByteBuffer in) {
+        centerX = in.getInt();
+        centerY = in.getInt();
+        baseAngle = in.getDouble();
+        rotationOffset = in.getDouble();
+        screenWidth = in.getInt();
+        screenHeight = in.getInt();
+        retired = StateIO.getBoolean(in);
         double finalAngle = baseAngle + rotationOffset;
-        double dx = px - centerX;
-        double dy = py - centerY;
-        double c = Math.cos(finalAngle);
-        double s = Math.sin(finalAngle);
-        // rotate point by -finalAngle
-        double localX = c * dx + s * dy;
-        double localY = -s * dx + c * dy;
+        cos = Math.cos(finalAngle);
+        sin = Math.sin(finalAngle);
+        length = (int) Math.sqrt(screenWidth * screenWidth + screenHeight * screenHeight);
+    }
 
-        int beamLength = (int) Math.sqrt(screenWidth * screenWidth + screenHeight * screenHeight);
-        int halfH = BEAM_WIDTH / 2;
+    // A beam for readState to fill in
+    public static RotatingBeam blank() {
+        return new RotatingBeam(0, 0, 0, 0, 0);
+    }
 
-        // Beam rectangle spans from localX in [0, beamLength]
-        if (localX >= 0 && localX <= beamLength && localY >= -halfH && localY <= halfH) {
-            if (Math.hypot(localX, localY) > 20) return true;
-        }
-        return false;
+    public int getLength() {
+        return length;
     }
+
+    public double getAngle() { return baseAngle + rotationOffset; }
+    public int getCenterX() { return centerX; }
+    public int getCenterY() { return centerY; }
+    public int getWidth() { return BEAM_WIDTH; }
 }
@@ -0,0 +1,29 @@
+// One finished run, as RunStats stores it: from the player's spawn to their
+// death, or to quitting to the menu.
+public class RunRecord {
+    private final long endedAt; // System.currentTimeMillis()
+    private final long seed;
+    private final int startingWave;
+    private final int wave; // highest reached
+    private final int kills;
+    private final int ticks; // alive, at 60 per second
+    private final boolean died; // false if the player quit
+
+    public RunRecord(long endedAt, long seed, int startingWave, int wave, int kills, int ticks, boolean died) {
+        this.endedAt = endedAt;
+        this.seed = seed;
+        this.startingWave = startingWave;
+        this.wave = wave;
+        this.kills = kills;
+        this.ticks = ticks;
+        this.died = died;
+    }
+
+    public long getEndedAt() { return endedAt; }
+    public long getSeed() { return seed; }
+    public int getStartingWave() { return startingWave; }
+    public int getWave() { return wave; }
+    public int getKills() { return kills; }
+    public int getTicks() { return ticks; }
+    public boolean isDied() { return died; }
+}
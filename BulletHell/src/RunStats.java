@@ -0,0 +1,222 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Every finished run, kept in a memory-mapped file of fixed-size records so
+// the menu can show the best ones without reading the rest. The header holds
+// the run count and two small indexes, the record numbers of the TOP_COUNT best
+// runs by wave and by kills, updated as each run is appended. Opening the file
+// maps it and reads the header and the records it points at, however many runs
+// there are. Appends happen on a background thread, which forces each step to
+// disk before the next: the record, then the count, then the indexes and how
+// many runs they cover. A run cut off by a crash before its count is never
+// counted, and indexes cut off are rebuilt from the records on the next open.
+//
+// Header (HEADER_BYTES): magic, version, count, then TOP_COUNT record numbers
+// by wave and TOP_COUNT by kills, best first, -1 past the end, then the count
+// the indexes were last brought up to.
+// Record (RECORD_BYTES): ended at, seed, starting wave (short), died (byte),
+// one spare byte, wave, kills, ticks alive.
+public class RunStats {
+    public static final int TOP_COUNT = 10;
+    private static final int MAGIC = 0x42485253; // "BHRS"
+    private static final int VERSION = 1;
+    private static final int COUNT_AT = 8;
+    private static final int BY_WAVE_AT = 12;
+    private static final int BY_KILLS_AT = BY_WAVE_AT + TOP_COUNT * 4;
+    private static final int INDEXED_AT = BY_KILLS_AT + TOP_COUNT * 4;
+    private static final int HEADER_BYTES = 128; // 96 used
+    private static final int RECORD_BYTES = 32;
+    private static final int INITIAL_CAPACITY = 1024; // records mapped at first; doubled when full
+
+    private final Path path;
+    private FileChannel channel;
+    private MappedByteBuffer map; // null if the file couldn't be opened; guarded by this
+    private int capacity; // records the mapping has room for
+    private final ExecutorService writer;
+
+    public RunStats() {
+        this(Paths.get("runs.dat"));
+    }
+
+    public RunStats(Path path) {
+        this.path = path;
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "Run stats writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "Run stats flush"));
+        open();
+    }
+
+    private synchronized void open() {
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            boolean fresh = channel.size() < HEADER_BYTES;
+            long size = Math.max(channel.size(), HEADER_BYTES + (long) INITIAL_CAPACITY * RECORD_BYTES);
+            mapTo(size);
+            if (fresh) {
+                map.putInt(0, MAGIC);
+                map.putInt(4, VERSION);
+                map.putInt(COUNT_AT, 0);
+                clearIndexes();
+            } else if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                System.err.println("RunStats: " + path + " is not a version " + VERSION + " run file, not using it");
+                map = null;
+                channel.close();
+            } else if (map.getInt(INDEXED_AT) != map.getInt(COUNT_AT)) {
+                rebuildIndexes();
+            }
+        } catch (IOException ex) {
+            System.err.println("RunStats: could not open " + path + ": " + ex.getMessage());
+            map = null;
+        }
+    }
+
+    private void clearIndexes() {
+        for (int i = 0; i < TOP_COUNT; i++) {
+            map.putInt(BY_WAVE_AT + i * 4, -1);
+            map.putInt(BY_KILLS_AT + i * 4, -1);
+        }
+        map.putInt(INDEXED_AT, 0);
+    }
+
+    // After a crash part way through an index update; reads every record
+    private void rebuildIndexes() {
+        int count = map.getInt(COUNT_AT);
+        System.out.println("RunStats: rebuilding the best-run indexes of " + path + " from " + count + " runs");
+        clearIndexes();
+        for (int n = 0; n < count; n++) {
+            insertTop(BY_WAVE_AT, n, true);
+            insertTop(BY_KILLS_AT, n, false);
+        }
+        map.putInt(INDEXED_AT, count);
+        map.force();
+    }
+
+    private void mapTo(long size) throws IOException {
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        capacity = (int) Math.min(Integer.MAX_VALUE, (size - HEADER_BYTES) / RECORD_BYTES);
+    }
+
+    // Appends the run on the background thread
+    public void record(RunRecord run) {
+        writer.execute(() -> append(run));
+    }
+
+    // Only this thread writes the map, so between the steps it needn't hold the
+    // lock, which readers take, while waiting for the disk
+    private void append(RunRecord run) {
+        MappedByteBuffer written;
+        int count, at;
+        synchronized (this) {
+            if (map == null) return;
+            count = map.getInt(COUNT_AT);
+            try {
+                if (count == capacity) {
+                    mapTo(HEADER_BYTES + (long) capacity * 2 * RECORD_BYTES);
+                }
+            } catch (IOException ex) {
+                System.err.println("RunStats: could not grow " + path + ": " + ex.getMessage());
+                return;
+            }
+            at = HEADER_BYTES + count * RECORD_BYTES;
+            map.putLong(at, run.getEndedAt());
+            map.putLong(at + 8, run.getSeed());
+            map.putShort(at + 16, (short) run.getStartingWave());
+            map.put(at + 18, (byte) (run.isDied() ? 1 : 0));
+            map.putInt(at + 20, run.getWave());
+            map.putInt(at + 24, run.getKills());
+            map.putInt(at + 28, run.getTicks());
+            written = map;
+        }
+        written.force(at, RECORD_BYTES);
+        synchronized (this) {
+            map.putInt(COUNT_AT, count + 1);
+        }
+        written.force(COUNT_AT, 4);
+        synchronized (this) {
+            insertTop(BY_WAVE_AT, count, true);
+            insertTop(BY_KILLS_AT, count, false);
+            map.putInt(INDEXED_AT, count + 1);
+        }
+        written.force(0, HEADER_BYTES);
+    }
+
+    // Puts record n into the index at indexAt if it's among the best
+    private void insertTop(int indexAt, int n, boolean byWave) {
+        for (int i = 0; i < TOP_COUNT; i++) {
+            int other = map.getInt(indexAt + i * 4);
+            if (other < 0 || other >= n || isBetter(n, other, byWave)) {
+                for (int j = TOP_COUNT - 1; j > i; j--) {
+                    map.putInt(indexAt + j * 4, map.getInt(indexAt + (j - 1) * 4));
+                }
+                map.putInt(indexAt + i * 4, n);
+                return;
+            }
+        }
+    }
+
+    // Strictly better, so an earlier run keeps its place over a later tie
+    private boolean isBetter(int a, int b, boolean byWave) {
+        int waveA = map.getInt(HEADER_BYTES + a * RECORD_BYTES + 20);
+        int waveB = map.getInt(HEADER_BYTES + b * RECORD_BYTES + 20);
+        int killsA = map.getInt(HEADER_BYTES + a * RECORD_BYTES + 24);
+        int killsB = map.getInt(HEADER_BYTES + b * RECORD_BYTES + 24);
+        if (byWave) {
+            return waveA != waveB ? waveA > waveB : killsA > killsB;
+        }
+        return killsA != killsB ? killsA > killsB : waveA > waveB;
+    }
+
+    public synchronized int getRunCount() {
+        return map == null ? 0 : map.getInt(COUNT_AT);
+    }
+
+    // The best runs by highest wave, then kills, best first
+    public List<RunRecord> getTopByWave() {
+        return getTop(BY_WAVE_AT);
+    }
+
+    // The best runs by kills, then highest wave, best first
+    public List<RunRecord> getTopByKills() {
+        return getTop(BY_KILLS_AT);
+    }
+
+    private synchronized List<RunRecord> getTop(int indexAt) {
+        List<RunRecord> top = new ArrayList<>();
+        if (map == null) return top;
+        int count = map.getInt(COUNT_AT);
+        for (int i = 0; i < TOP_COUNT; i++) {
+            int n = map.getInt(indexAt + i * 4);
+            if (n < 0 || n >= count) break;
+            top.add(read(n));
+        }
+        return top;
+    }
+
+    private RunRecord read(int n) {
+        int at = HEADER_BYTES + n * RECORD_BYTES;
+        return new RunRecord(map.getLong(at), map.getLong(at + 8), map.getShort(at + 16), map.getInt(at + 20),
+            map.getInt(at + 24), map.getInt(at + 28), map.get(at + 18) != 0);
+    }
+
+    // Waits for queued runs to be written
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
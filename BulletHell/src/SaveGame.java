@@ -0,0 +1,134 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+// The whole world saved to disk, so a run can be picked up where it was left.
+// GamePanel saves at the start of every wave and on F5; F9 and the menu's
+// Continue load it back. Saving writes the world with StateIO on the
+// simulation thread, into one of two reused buffers, and leaves the disk to a
+// background thread, which writes it with AtomicFile. A save is the same state
+// a replay keyframe holds, so loading it carries on exactly as the saved world
+// would have.
+//
+// File: magic, version, StateIO.VERSION, seed, state length, the state, then
+// a CRC of the state.
+public class SaveGame {
+    public static final Path DEFAULT_PATH = Paths.get("save.dat");
+    private static final int MAGIC = 0x42485356; // "BHSV"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+
+    private final Path path;
+    private final StateIO[] states = {new StateIO(), new StateIO()};
+    private final AtomicBoolean[] writing = {new AtomicBoolean(), new AtomicBoolean()}; // states[i] is being written out
+    private int next = 0; // simulation thread only
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES); // writer thread only
+    private final ByteBuffer footer = ByteBuffer.allocate(4);
+    private final CRC32 crc = new CRC32();
+    private final ExecutorService writer;
+
+    public SaveGame(Path path) {
+        this.path = path;
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "Save writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "Save flush"));
+    }
+
+    // Takes the world as it is now and writes it out in the background. On the
+    // thread that owns the world, between ticks. Returns false, saving nothing,
+    // if both buffers are still being written.
+    public boolean save(GameWorld world) {
+        int i = next;
+        if (writing[i].get()) {
+            System.err.println("SaveGame: still writing the last two saves, skipping this one");
+            return false;
+        }
+        next = 1 - i;
+        ByteBuffer state = states[i].save(world);
+        long seed = world.getSeed();
+        writing[i].set(true);
+        writer.execute(() -> {
+            try {
+                write(state, seed);
+            } finally {
+                writing[i].set(false);
+            }
+        });
+        return true;
+    }
+
+    private void write(ByteBuffer state, long seed) {
+        crc.reset();
+        crc.update(state.duplicate());
+        header.clear();
+        header.putInt(MAGIC).putInt(VERSION).putInt(StateIO.VERSION).putLong(seed).putInt(state.remaining());
+        header.flip();
+        footer.clear();
+        footer.putInt((int) crc.getValue()).flip();
+        try {
+            AtomicFile.replace(path, header, state.duplicate(), footer);
+        } catch (IOException ex) {
+            System.err.println("SaveGame: could not write " + path + ": " + ex.getMessage());
+        }
+    }
+
+    public boolean exists() {
+        return Files.exists(path);
+    }
+
+    // The saved state, ready for GameWorld.readState, or null if there's no
+    // save this build can read
+    public ByteBuffer read() {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(path));
+            if (in.remaining() < HEADER_BYTES + 4 || in.getInt() != MAGIC || in.getInt() != VERSION) {
+                System.err.println("SaveGame: " + path + " is not a save file");
+                return null;
+            }
+            int stateVersion = in.getInt();
+            if (stateVersion != StateIO.VERSION) {
+                System.err.println("SaveGame: " + path + " is from another version of the game (state "
+                    + stateVersion + ", this build reads " + StateIO.VERSION + ")");
+                return null;
+            }
+            in.getLong(); // seed, for tools; the state has the random streams themselves
+            int length = in.getInt();
+            if (length != in.remaining() - 4) {
+                System.err.println("SaveGame: " + path + " is cut short");
+                return null;
+            }
+            ByteBuffer state = in.slice();
+            state.limit(length);
+            CRC32 check = new CRC32();
+            check.update(state.duplicate());
+            if (in.getInt(HEADER_BYTES + length) != (int) check.getValue()) {
+                System.err.println("SaveGame: " + path + " is damaged");
+                return null;
+            }
+            return state;
+        } catch (IOException ex) {
+            System.err.println("SaveGame: could not read " + path + ": " + ex.getMessage());
+            return null;
+        }
+    }
+
+    // Waits for queued saves to reach the disk
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+// Runs the simulation at the fixed tick rate on a thread of its own, so a slow
+// paint can't hold up a tick and a slow tick can't hold up painting. After
+// every tick the world is written out in the replay keyframe format, and the
+// painting side loads the newest one into a GameWorld of its own to draw.
+// There are three snapshot buffers: one being written, the newest finished
+// one, and the one the painter last loaded. Handing one over is a swap of two
+// indices under a lock, so neither side ever waits for the other to copy.
+// Anything else the Swing side wants done to the world goes through post and
+// runs on this thread before the next tick.
+public class SimulationThread {
+    public static final int TICKS_PER_SECOND = 60;
+    public static final long TICK_NANOS = 1_000_000_000L / TICKS_PER_SECOND;
+    private static final int MAX_BEHIND_TICKS = 5; // further behind than this (stall, debugger), drop the backlog
+
+    private final GameWorld world;
+    private final LongConsumer tick; // one tick, given when it was due: input, replay and recording around world.update
+    private final Thread thread;
+    private volatile boolean running;
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+
+    private final Object swapLock = new Object();
+    private final StateIO[] writers = {new StateIO(), new StateIO(), new StateIO()};
+    private final ByteBuffer[] snapshots = new ByteBuffer[3];
+    private final long[] tickTimes = new long[3]; // when each snapshot's tick was due, System.nanoTime()
+    private int writing = 0, newest = 1, reading = 2; // buffer indices, swapped under swapLock
+    private boolean fresh = false; // newest holds a tick the painter hasn't loaded
+
+    public SimulationThread(GameWorld world, LongConsumer tick) {
+        this.world = world;
+        this.tick = tick;
+        thread = new Thread(this::run, "Simulation");
+        thread.setDaemon(true);
+
+        // The painter has something to load before the first tick
+        snapshots[newest] = writers[newest].save(world);
+        tickTimes[newest] = System.nanoTime();
+        fresh = true;
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    // Stops ticking and waits for the tick in progress, if any, to finish
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        if (Thread.currentThread() == thread) return;
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Runs the command on the simulation thread before the next tick
+    public void post(Runnable command) {
+        commands.add(command);
+    }
+
+    // Loads the newest published tick into target, unless it already holds it.
+    // Returns the time that tick was due, for interpolating toward the next one.
+    public long read(GameWorld target) {
+        boolean load;
+        synchronized (swapLock) {
+            load = fresh;
+            if (fresh) {
+                int swap = reading;
+                reading = newest;
+                newest = swap;
+                fresh = false;
+            }
+        }
+        // The simulation never writes into the reading buffer, so this needs no lock
+        if (load) {
+            target.readState(snapshots[reading].rewind());
+        }
+        return tickTimes[reading];
+    }
+
+    private void run() {
+        long due = System.nanoTime();
+        while (running) {
+            long now = System.nanoTime();
+            if (now < due) {
+                LockSupport.parkNanos(due - now);
+                continue;
+            }
+            if (now - due > MAX_BEHIND_TICKS * TICK_NANOS) {
+                due = now;
+            }
+
+            Runnable command;
+            while ((command = commands.poll()) != null) {
+                command.run();
+            }
+            tick.accept(due);
+            publish(due);
+            due += TICK_NANOS;
+        }
+    }
+
+    private void publish(long tickTime) {
+        ByteBuffer snapshot = writers[writing].save(world);
+        synchronized (swapLock) {
+            snapshots[writing] = snapshot;
+            tickTimes[writing] = tickTime;
+            int swap = newest;
+            newest = writing;
+            writing = swap;
+            fresh = true;
+        }
+    }
+}
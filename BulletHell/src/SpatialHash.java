@@ -0,0 +1,73 @@
+import java.util.Arrays;
+
+// Uniform grid of points hashed into buckets, rebuilt every tick. Used as the
+// broadphase for player projectiles so each enemy only tests nearby shots.
+// Entries are identified by the index they were inserted with.
+public class SpatialHash {
+    private static final int BUCKET_COUNT = 1024; // power of two
+
+    private final int cellSize;
+    private int[] head = new int[BUCKET_COUNT]; // first entry in each bucket, -1 if empty
+    private int[] next = new int[256]; // next entry in the same bucket
+    private int[] cellX = new int[256];
+    private int[] cellY = new int[256];
+    private int[] results = new int[64];
+    private int resultCount = 0;
+
+    public SpatialHash(int cellSize) {
+        this.cellSize = cellSize;
+        Arrays.fill(head, -1);
+    }
+
+    // Start a new build for entries 0 .. count-1
+    public void clear(int count) {
+        Arrays.fill(head, -1);
+        if (next.length < count) {
+            int capacity = Math.max(count, next.length * 2);
+            next = new int[capacity];
+            cellX = new int[capacity];
+            cellY = new int[capacity];
+        }
+    }
+
+    public void insert(int index, int x, int y) {
+        int cx = Math.floorDiv(x, cellSize);
+        int cy = Math.floorDiv(y, cellSize);
+        int bucket = bucket(cx, cy);
+        cellX[index] = cx;
+        cellY[index] = cy;
+        next[index] = head[bucket];
+        head[bucket] = index;
+    }
+
+    // Collects every entry whose cell overlaps the box; returns how many were found
+    public int query(int minX, int minY, int maxX, int maxY) {
+        resultCount = 0;
+        int cx0 = Math.floorDiv(minX, cellSize);
+        int cy0 = Math.floorDiv(minY, cellSize);
+        int cx1 = Math.floorDiv(maxX, cellSize);
+        int cy1 = Math.floorDiv(maxY, cellSize);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                for (int i = head[bucket(cx, cy)]; i != -1; i = next[i]) {
+                    // Different cells can share a bucket
+                    if (cellX[i] == cx && cellY[i] == cy) {
+                        if (resultCount == results.length) {
+                            results = Arrays.copyOf(results, resultCount * 2);
+                        }
+                        results[resultCount++] = i;
+                    }
+                }
+            }
+        }
+        return resultCount;
+    }
+
+    public int getResult(int k) {
+        return results[k];
+    }
+
+    private static int bucket(int cx, int cy) {
+        return (cx * 73856093 ^ cy * 19349663) & (BUCKET_COUNT - 1);
+    }
+}
@@ -0,0 +1,81 @@
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+// Every sprite the world is drawn with, packed into one image, so a frame full
+// of enemies and bullets is drawn from a single source: on the accelerated
+// pipelines every change of source image is a texture bind. SpriteLoader fills
+// it once while sprites load: add hands back where each sprite will go, and
+// pack then makes the image at exactly the height they need and copies them
+// in. Nothing is added after that, so the image and its regions never change.
+// Packing is in shelves, left to right then a new row below, with a clear
+// gutter around each sprite so a scaled or filtered draw can't bleed in its
+// neighbours.
+public class SpriteAtlas {
+    private static final int WIDTH = 2048; // well inside the texture size limit of any pipeline
+    private static final int MAX_HEIGHT = 4096;
+    private static final int GUTTER = 1;
+
+    private static BufferedImage image;
+    private static List<Placed> pending = new ArrayList<>(); // added but not yet copied in
+    private static int shelfX, shelfY, shelfHeight; // the row being filled and how tall it's got
+
+    private static class Placed {
+        final BufferedImage source;
+        final int x, y;
+
+        Placed(BufferedImage source, int x, int y) {
+            this.source = source;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    // Where source will be once the atlas is packed. A sprite there's no room
+    // for is handed back as an image of its own.
+    public static AtlasRegion add(BufferedImage source) {
+        if (pending == null) {
+            throw new IllegalStateException("SpriteAtlas: already packed");
+        }
+        int w = source.getWidth() + GUTTER * 2;
+        int h = source.getHeight() + GUTTER * 2;
+        int rowY = shelfX + w > WIDTH ? shelfY + shelfHeight : shelfY;
+        if (w > WIDTH || rowY + h > MAX_HEIGHT) {
+            return AtlasRegion.standalone(source);
+        }
+        if (rowY != shelfY) {
+            shelfY = rowY;
+            shelfX = 0;
+            shelfHeight = 0;
+        }
+
+        int x = shelfX + GUTTER;
+        int y = shelfY + GUTTER;
+        pending.add(new Placed(source, x, y));
+        shelfX += w;
+        shelfHeight = Math.max(shelfHeight, h);
+        return new AtlasRegion(x, y, source.getWidth(), source.getHeight());
+    }
+
+    // Makes the image and copies everything added into it
+    public static void pack() {
+        if (pending == null) {
+            throw new IllegalStateException("SpriteAtlas: already packed");
+        }
+        image = SpriteLoader.createCompatible(WIDTH, Math.max(1, shelfY + shelfHeight));
+        Graphics2D g = image.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        for (Placed placed : pending) {
+            g.drawImage(placed.source, placed.x, placed.y, null);
+        }
+        g.dispose();
+        pending = null;
+    }
+
+    // The image every atlas region is drawn from, null until packed
+    public static BufferedImage getImage() {
+        return image;
+    }
+}
@@ -1,32 +1,47 @@
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import javax.imageio.ImageIO;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+// Draws every sprite the game uses, in memory, as TYPE_INT_ARGB images keyed
+// by the names SpriteLoader knows them by. SpriteLoader caches the result on
+// disk under versionHash and only calls this again when the hash changes.
 public class SpriteGenerator {
-    private static final String SPRITES_DIR = "sprites";
+    public static Map<String, BufferedImage> generateAllSprites() {
+        Map<String, BufferedImage> sprites = new LinkedHashMap<>();
+        sprites.put("player", generatePlayerSprite());
+        sprites.put("enemy", generateEnemySprite());
+        sprites.put("triangle_enemy", generateTriangleEnemySprite());
+        sprites.put("green_triangle_enemy", generateGreenTriangleEnemySprite());
+        sprites.put("purple_triangle", generatePurpleTriangleEnemySprite());
+        sprites.put("boss", generateBossSprite());
+        sprites.put("player_projectile", generatePlayerProjectileSprite());
+        sprites.put("enemy_projectile", generateEnemyProjectileSprite());
+        sprites.put("healing_item", generateHealingItemSprite());
+        return sprites;
+    }
 
-    public static void generateAllSprites() {
-        new File(SPRITES_DIR).mkdirs();
-        
-        try {
-            generatePlayerSprite();
-            generateEnemySprite();
-            generateTriangleEnemySprite();
-            generateGreenTriangleEnemySprite();
-            generatePurpleTriangleEnemySprite();
-            generateBossSprite();
-            generatePlayerProjectileSprite();
-            generateEnemyProjectileSprite();
-            generateHealingItemSprite();
-            System.out.println("Sprites generated successfully!");
-        } catch (IOException e) {
-            e.printStackTrace();
+    // A hash of this class's bytecode, so changing how any sprite is drawn
+    // changes it. 0 if the class file can't be read, and nothing is cached.
+    public static long versionHash() {
+        try (InputStream in = SpriteGenerator.class.getResourceAsStream("SpriteGenerator.class")) {
+            if (in == null) return 0;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(in.readAllBytes());
+            long hash = 0;
+            for (int i = 0; i < 8; i++) {
+                hash = (hash << 8) | (digest[i] & 0xFF);
+            }
+            return hash == 0 ? 1 : hash;
+        } catch (IOException | NoSuchAlgorithmException ex) {
+            return 0;
         }
     }
 
-    private static void generatePlayerSprite() throws IOException {
+    private static BufferedImage generatePlayerSprite() {
         BufferedImage img = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
         Graphics2D g = img.createGraphics();
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -39,10 +54,10 @@ public class SpriteGenerator {
         g.drawRect(5, 5, 30, 30);
         
         g.dispose();
-        ImageIO.write(img, "PNG", new File(SPRITES_DIR + "/player.png"));
+        return img;
     }
 
-    private static void generateEnemySprite() throws IOException {
+    private static BufferedImage generateEnemySprite() {
         BufferedImage img = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
         Graphics2D g = img.createGraphics();
         
@@ -54,10 +69,10 @@ public class SpriteGenerator {
         g.drawRect(5, 5, 30, 30);
         
         g.dispose();
-        ImageIO.write(img, "PNG", new File(SPRITES_DIR + "/enemy.png"));
+        return img;
     }
 
-    private static void generateTriangleEnemySprite() throws IOException {
+    private static BufferedImage generateTriangleEnemySprite() {
         BufferedImage img = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
         Graphics2D g = img.createGraphics();
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -72,10 +87,10 @@ public class SpriteGenerator {
         g.drawPolygon(xPoints, yPoints, 3);
         
         g.dispose();
-        ImageIO.write(img, "PNG", new File(SPRITES_DIR + "/triangle_enemy.png"));
+        return img;
     }
 
-    private static void generateGreenTriangleEnemySprite() throws IOException {
+    private static BufferedImage generateGreenTriangleEnemySprite() {
         BufferedImage img = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
         Graphics2D g = img.createGraphics();
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -90,10 +105,10 @@ public class SpriteGenerator {
         g.drawPolygon(xPoints, yPoints, 3);
         
         g.dispose();
-        ImageIO.write(img, "PNG", new File(SPRITES_DIR + "/green_triangle_enemy.png"));
+        return img;
     }
 
-    private static void generatePurpleTriangleEnemySprite() throws IOException {
+    private static BufferedImage generatePurpleTriangleEnemySprite() {
         BufferedImage img = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
         Graphics2D g = img.createGraphics();
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -108,10 +123,10 @@ public class SpriteGenerator {
         g.drawPolygon(xPoints, yPoints, 3);
         
         g.dispose();
-        ImageIO.write(img, "PNG", new File(SPRITES_DIR + "/purple_triangle_enemy.png"));
+        return img;
     }
 
-    private static void generateBossSprite() throws IOException {
+    private static BufferedImage generateBossSprite() {
         BufferedImage img = new BufferedImage(120, 120, BufferedImage.TYPE_INT_ARGB);
         Graphics2D g = img.createGraphics();
         
@@ -129,10 +144,10 @@ public class SpriteGenerator {
         g.fillRect(50, 70, 20, 20);
         
         g.dispose();
-        ImageIO.write(img, "PNG", new File(SPRITES_DIR + "/boss.png"));
+        return img;
     }
 
-    private static void generatePlayerProjectileSprite() throws IOException {
+    private static BufferedImage generatePlayerProjectileSprite() {
         BufferedImage img = new BufferedImage(12, 12, BufferedImage.TYPE_INT_ARGB);
         Graphics2D g = img.createGraphics();
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -145,10 +160,10 @@ public class SpriteGenerator {
         g.drawOval(2, 2, 8, 8);
         
         g.dispose();
-        ImageIO.write(img, "PNG", new File(SPRITES_DIR + "/player_projectile.png"));
+        return img;
     }
 
-    private static void generateEnemyProjectileSprite() throws IOException {
+    private static BufferedImage generateEnemyProjectileSprite() {
         BufferedImage img = new BufferedImage(12, 12, BufferedImage.TYPE_INT_ARGB);
         Graphics2D g = img.createGraphics();
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -161,10 +176,10 @@ public class SpriteGenerator {
         g.drawOval(2, 2, 8, 8);
         
         g.dispose();
-        ImageIO.write(img, "PNG", new File(SPRITES_DIR + "/enemy_projectile.png"));
+        return img;
     }
 
-    private static void generateHealingItemSprite() throws IOException {
+    private static BufferedImage generateHealingItemSprite() {
         BufferedImage img = new BufferedImage(24, 24, BufferedImage.TYPE_INT_ARGB);
         Graphics2D g = img.createGraphics();
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -179,10 +194,6 @@ public class SpriteGenerator {
         g.drawLine(8, 12, 16, 12);
         
         g.dispose();
-        ImageIO.write(img, "PNG", new File(SPRITES_DIR + "/healing_item.png"));
-    }
-
-    public static void main(String[] args) {
-        generateAllSprites();
+        return img;
     }
 }
@@ -1,31 +1,144 @@
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import javax.imageio.ImageIO;
 
+// Sprites converted to the screen's own pixel format, so Java2D can keep them
+// in video memory and blit them without converting. Every size a sprite is drawn
+// at gets its own pre-scaled copy, made the first time it's asked for, and the
+// per-frame drawImage is a straight 1:1 copy instead of a scale. The sizes the
+// world is drawn at, every enemy bullet and the renderers' rotated frames are
+// packed into the SpriteAtlas as sprites load; getRegion and
+// getProjectileRegion hand out where, and the images stay available for
+// anything that needs their pixels.
+//
+// The sprites come from SpriteGenerator. What it drew is kept in the sprites
+// folder as raw ARGB, tagged with SpriteGenerator.versionHash, and read
+// straight back into images on later launches; the generator only runs again
+// when its code changes. Cache: magic, version, hash, count, then per sprite
+// its name (short byte length, UTF-8), width, height and width * height ARGB ints.
 public class SpriteLoader {
+    private static final String CACHE_FILE = "generated.argb";
+    private static final int CACHE_MAGIC = 0x42485343; // "BHSC"
+    private static final int CACHE_VERSION = 1;
+    // The sprites the world is drawn with and the size each is drawn at
+    private static final String[] WORLD_SPRITES = {"player", "player_projectile", "enemy", "triangle_enemy", "boss", "healing_item"};
+    private static final int[] WORLD_SPRITE_SIZES = {40, 12, 40, 40, 120, 24};
+    private static final int MAX_PROJECTILE_SIZE = 8; // the biggest enemy bullet spawned, Boss's beam sparks
+
     private static final Map<String, BufferedImage> sprites = new HashMap<>();
+    private static final Map<String, BufferedImage[]> scaled = new HashMap<>(); // every size made so far, per sprite
+    private static final BufferedImage[][] projectiles = new BufferedImage[EnemyProjectiles.COLORS.length][]; // [style][size]
+    private static final Map<String, AtlasRegion[]> regions = new HashMap<>(); // atlas copies of the scaled sprites
+    private static final AtlasRegion[][] projectileRegions = new AtlasRegion[EnemyProjectiles.COLORS.length][];
     private static boolean loaded = false;
 
     public static void loadSprites() {
+        loadSprites(new File("sprites"));
+    }
+
+    // With the cache in a sprites folder other than the one in the working directory
+    public static void loadSprites(File folder) {
         if (loaded) return;
-        
+
+        File cache = new File(folder, CACHE_FILE);
+        long hash = SpriteGenerator.versionHash();
+        Map<String, BufferedImage> generated = hash != 0 ? readCache(cache, hash) : null;
+        if (generated == null) {
+            generated = SpriteGenerator.generateAllSprites();
+            if (hash != 0) writeCache(cache, hash, generated);
+        }
+        for (Map.Entry<String, BufferedImage> entry : generated.entrySet()) {
+            BufferedImage image = entry.getValue();
+            sprites.put(entry.getKey(), scale(image, image.getWidth(), image.getHeight()));
+        }
+        packAtlas();
+        loaded = true;
+    }
+
+    // Puts everything the world draws into the SpriteAtlas and packs it, so
+    // drawing never has to add to it
+    private static void packAtlas() {
+        for (int i = 0; i < WORLD_SPRITES.length; i++) {
+            int size = WORLD_SPRITE_SIZES[i];
+            BufferedImage image = getSprite(WORLD_SPRITES[i], size, size);
+            if (image != null) addRegion(WORLD_SPRITES[i], SpriteAtlas.add(image));
+        }
+        for (byte style = 0; style < projectileRegions.length; style++) {
+            AtlasRegion[] sizes = new AtlasRegion[MAX_PROJECTILE_SIZE + 1];
+            for (int size = 1; size < sizes.length; size++) {
+                BufferedImage image = getProjectileSprite(size, style);
+                if (image != null) sizes[size] = SpriteAtlas.add(image);
+            }
+            projectileRegions[style] = sizes;
+        }
+        EntityRenderer.makeSprites();
+        SpriteAtlas.pack();
+    }
+
+    // The sprites in the cache, or null if it's missing, unreadable or from
+    // another version of the generator
+    private static Map<String, BufferedImage> readCache(File file, long hash) {
+        if (!file.isFile()) return null;
         try {
-            sprites.put("player", ImageIO.read(new File("sprites/player.png")));
-            sprites.put("enemy", ImageIO.read(new File("sprites/enemy.png")));
-            sprites.put("triangle_enemy", ImageIO.read(new File("sprites/triangle_enemy.png")));
-            sprites.put("green_triangle_enemy", ImageIO.read(new File("sprites/green_triangle_enemy.png")));
-            sprites.put("purple_triangle", ImageIO.read(new File("sprites/purple_triangle_enemy.png")));
-            sprites.put("boss", ImageIO.read(new File("sprites/boss.png")));
-            sprites.put("player_projectile", ImageIO.read(new File("sprites/player_projectile.png")));
-            sprites.put("enemy_projectile", ImageIO.read(new File("sprites/enemy_projectile.png")));
-            sprites.put("healing_item", ImageIO.read(new File("sprites/healing_item.png")));
-            loaded = true;
-        } catch (IOException e) {
-            System.err.println("Error loading sprites: " + e.getMessage());
-            e.printStackTrace();
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            if (in.getInt() != CACHE_MAGIC || in.getInt() != CACHE_VERSION || in.getLong() != hash) return null;
+            Map<String, BufferedImage> images = new LinkedHashMap<>();
+            int count = in.getInt();
+            for (int i = 0; i < count; i++) {
+                byte[] name = new byte[in.getShort() & 0xFFFF];
+                in.get(name);
+                BufferedImage image = new BufferedImage(in.getInt(), in.getInt(), BufferedImage.TYPE_INT_ARGB);
+                int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+                in.asIntBuffer().get(pixels);
+                in.position(in.position() + pixels.length * 4);
+                images.put(new String(name, StandardCharsets.UTF_8), image);
+            }
+            return images;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException ex) {
+            System.err.println("SpriteLoader: ignoring sprite cache " + file + ": " + ex);
+            return null;
+        }
+    }
+
+    private static void writeCache(File file, long hash, Map<String, BufferedImage> images) {
+        int size = 20;
+        for (Map.Entry<String, BufferedImage> entry : images.entrySet()) {
+            BufferedImage image = entry.getValue();
+            size += 2 + entry.getKey().getBytes(StandardCharsets.UTF_8).length + 8 + image.getWidth() * image.getHeight() * 4;
+        }
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putInt(CACHE_MAGIC).putInt(CACHE_VERSION).putLong(hash).putInt(images.size());
+        for (Map.Entry<String, BufferedImage> entry : images.entrySet()) {
+            BufferedImage image = entry.getValue();
+            byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            out.putShort((short) name.length);
+            out.put(name);
+            out.putInt(image.getWidth());
+            out.putInt(image.getHeight());
+            int[] pixels = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+            out.asIntBuffer().put(pixels);
+            out.position(out.position() + pixels.length * 4);
+        }
+        out.flip();
+        try {
+            file.getParentFile().mkdirs();
+            AtomicFile.replace(file.toPath(), out);
+        } catch (IOException ex) {
+            System.err.println("SpriteLoader: could not write sprite cache " + file + ": " + ex.getMessage());
         }
     }
 
@@ -33,7 +146,128 @@ public class SpriteLoader {
         return sprites.get(name);
     }
 
+    // The sprite pre-scaled to width x height, to draw without a size
+    public static BufferedImage getSprite(String name, int width, int height) {
+        BufferedImage[] sizes = scaled.get(name);
+        if (sizes != null) {
+            for (BufferedImage image : sizes) {
+                if (image.getWidth() == width && image.getHeight() == height) return image;
+            }
+        }
+        BufferedImage source = sprites.get(name);
+        if (source == null) return null;
+
+        BufferedImage image = scale(source, width, height);
+        if (sizes == null) {
+            sizes = new BufferedImage[]{image};
+        } else {
+            sizes = Arrays.copyOf(sizes, sizes.length + 1);
+            sizes[sizes.length - 1] = image;
+        }
+        scaled.put(name, sizes);
+        return image;
+    }
+
+    // Where getSprite(name, width, height) is in the SpriteAtlas. A size that
+    // wasn't packed when sprites loaded is drawn from an image of its own.
+    public static AtlasRegion getRegion(String name, int width, int height) {
+        AtlasRegion[] sizes = regions.get(name);
+        if (sizes != null) {
+            for (AtlasRegion region : sizes) {
+                if (region.getWidth() == width && region.getHeight() == height) return region;
+            }
+        }
+        BufferedImage image = getSprite(name, width, height);
+        if (image == null) return null;
+        return addRegion(name, AtlasRegion.standalone(image));
+    }
+
+    private static AtlasRegion addRegion(String name, AtlasRegion region) {
+        AtlasRegion[] sizes = regions.get(name);
+        if (sizes == null) {
+            sizes = new AtlasRegion[]{region};
+        } else {
+            sizes = Arrays.copyOf(sizes, sizes.length + 1);
+            sizes[sizes.length - 1] = region;
+        }
+        regions.put(name, sizes);
+        return region;
+    }
+
+    // Where getProjectileSprite(size, style) is in the SpriteAtlas. Bullets
+    // bigger than any spawned are drawn from an image of their own.
+    public static AtlasRegion getProjectileRegion(int size, byte style) {
+        AtlasRegion[] sizes = projectileRegions[style];
+        if (sizes == null || size >= sizes.length) {
+            sizes = Arrays.copyOf(sizes == null ? new AtlasRegion[0] : sizes, size + 1);
+            projectileRegions[style] = sizes;
+        }
+        if (sizes[size] == null) {
+            BufferedImage image = getProjectileSprite(size, style);
+            if (image == null) return null;
+            sizes[size] = AtlasRegion.standalone(image);
+        }
+        return sizes[size];
+    }
+
+    // The enemy bullet sprite recoloured to an EnemyProjectiles style and
+    // scaled to 2 * size across, as bullets are drawn
+    public static BufferedImage getProjectileSprite(int size, byte style) {
+        BufferedImage[] sizes = projectiles[style];
+        if (sizes == null || size >= sizes.length) {
+            sizes = Arrays.copyOf(sizes == null ? new BufferedImage[0] : sizes, Math.max(size + 1, 16));
+            projectiles[style] = sizes;
+        }
+        if (sizes[size] == null) {
+            BufferedImage source = sprites.get("enemy_projectile");
+            if (source == null) return null;
+            sizes[size] = scale(tint(source, EnemyProjectiles.COLORS[style]), size * 2, size * 2);
+        }
+        return sizes[size];
+    }
+
     public static boolean isLoaded() {
         return loaded;
     }
+
+    // A blank translucent image in the screen's format, or a plain premultiplied
+    // one when there's no screen (headless runs). OvalSprite, RotatedSprite and
+    // SpriteAtlas make their images with it too.
+    static BufferedImage createCompatible(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+
+    // Draws source into a new compatible image, so the result is never touched
+    // pixel by pixel and Java2D stays free to accelerate it
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage image = createCompatible(Math.max(1, width), Math.max(1, height));
+        Graphics2D g = image.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(source, 0, 0, image.getWidth(), image.getHeight(), null);
+        g.dispose();
+        return image;
+    }
+
+    // Keeps each pixel's alpha and brightness but swaps its hue for the tint
+    private static BufferedImage tint(BufferedImage source, int rgb) {
+        int w = source.getWidth();
+        int h = source.getHeight();
+        BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        int tr = (rgb >> 16) & 0xFF, tg = (rgb >> 8) & 0xFF, tb = rgb & 0xFF;
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int argb = source.getRGB(x, y);
+                int brightness = Math.max((argb >> 16) & 0xFF, Math.max((argb >> 8) & 0xFF, argb & 0xFF));
+                image.setRGB(x, y, (argb & 0xFF000000)
+                        | (tr * brightness / 255) << 16 | (tg * brightness / 255) << 8 | (tb * brightness / 255));
+            }
+        }
+        return image;
+    }
 }
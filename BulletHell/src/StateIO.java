@@ -0,0 +1,75 @@
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+// Binary world state, as stored in replay keyframes. Every simulated object
+// writes its own fields with writeState and reads them back in the same
+// order with readState; these are the shared bits. Reading into a world that
+// already exists reuses its objects, since GamePanel loads one every frame.
+public class StateIO {
+    // Goes up whenever any writeState changes, so saves from another build are
+    // turned away instead of misread. Replays have their own version.
+    public static final int VERSION = 1;
+
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024); // reused between saves
+
+    // The whole world, flipped and ready to read. Valid until the next call.
+    public ByteBuffer save(GameWorld world) {
+        while (true) {
+            buffer.clear();
+            try {
+                world.writeState(buffer);
+                buffer.flip();
+                return buffer;
+            } catch (BufferOverflowException ex) {
+                // Rare: the world outgrew the buffer, retry with twice the room
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+            }
+        }
+    }
+
+    public static void putBoolean(ByteBuffer out, boolean value) {
+        out.put((byte) (value ? 1 : 0));
+    }
+
+    public static boolean getBoolean(ByteBuffer in) {
+        return in.get() != 0;
+    }
+
+    // Lists of {x, y} pairs: trails and beam anchor points
+    public static void putPoints(ByteBuffer out, ArrayList<int[]> points) {
+        out.putInt(points.size());
+        for (int[] p : points) {
+            out.putInt(p[0]);
+            out.putInt(p[1]);
+        }
+    }
+
+    public static void getPoints(ByteBuffer in, ArrayList<int[]> points, ArrayList<int[]> spare) {
+        getList(in, points, spare, () -> new int[2], StateIO::getPoint);
+    }
+
+    private static void getPoint(int[] point, ByteBuffer in) {
+        point[0] = in.getInt();
+        point[1] = in.getInt();
+    }
+
+    // A count and then each element's state, read into list. The elements
+    // already in it are read into again, then ones an earlier, shorter read put
+    // in spare, and only after those are new ones made with create.
+    public static <T> void getList(ByteBuffer in, ArrayList<T> list, ArrayList<T> spare,
+                                   Supplier<T> create, BiConsumer<T, ByteBuffer> read) {
+        int count = in.getInt();
+        while (list.size() > count) {
+            spare.add(list.remove(list.size() - 1));
+        }
+        while (list.size() < count) {
+            list.add(spare.isEmpty() ? create.get() : spare.remove(spare.size() - 1));
+        }
+        for (int i = 0; i < count; i++) {
+            read.accept(list.get(i), in);
+        }
+    }
+}
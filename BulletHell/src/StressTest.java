@@ -0,0 +1,267 @@
+// Builds synthetic worlds out of the real archetypes and times them, to find
+// where ticks and frames stop scaling and how much fits in one 60 Hz frame.
+// A scenario is N enemies of one archetype, M enemy projectiles and K beams
+// added to a wave 5 world. Each sample restores the same snapshot, times one
+// headless world.update, then times painting the result into an offscreen image.
+// Usage: java StressTest [--archetype NAME] [--enemies N] [--bullets M] [--beams K]
+//        [--sweep enemies|bullets|beams|all|none] [--max P] [--samples S] [--seed S] [--no-paint] [--blitter]
+//        [--parallel-enemies]
+// A sweep doubles one count from 1 up to its max (the other two stay as given);
+// the default sweeps all three in turn. --blitter paints the enemy bullets with
+// ProjectileBlitter, as --software-bullets does in the game. Run from the
+// BulletHell folder so sprites load. --parallel-enemies moves the enemies on the
+// ForkJoinPool's threads; compare its enemy sweep with a serial one.
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class StressTest {
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 700;
+    private static final int BASE_WAVE = 5; // no boss, a handful of wave enemies keep the wave from ending
+    private static final int SETTLE_TICKS = 180; // let the enemies start shooting before the snapshot
+    private static final int WARMUP_SAMPLES = 20;
+    private static final int PLAYER_CLEARANCE = 120; // synthetic bullets don't start this close to the player
+    private static final double FRAME_MS = 1000.0 / 60;
+
+    private static Archetype archetype = Archetype.PURPLE_CIRCLE;
+    private static int samples = 60;
+    private static long seed = 1;
+    private static boolean paint = true;
+    private static boolean blitter = false;
+    private static boolean parallelEnemies = false;
+
+    private static BufferedImage image;
+    private static Graphics2D imageGraphics;
+    private static final HudLayer hud = new HudLayer();
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        int enemies = 0, bullets = 0, beams = 0;
+        String sweep = "all";
+        int max = -1;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--archetype":
+                    archetype = Archetype.valueOf(args[++i].toUpperCase());
+                    break;
+                case "--enemies":
+                    enemies = Integer.parseInt(args[++i]);
+                    break;
+                case "--bullets":
+                    bullets = Integer.parseInt(args[++i]);
+                    break;
+                case "--beams":
+                    beams = Integer.parseInt(args[++i]);
+                    break;
+                case "--sweep":
+                    sweep = args[++i];
+                    break;
+                case "--max":
+                    max = Integer.parseInt(args[++i]);
+                    break;
+                case "--samples":
+                    samples = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--no-paint":
+                    paint = false;
+                    break;
+                case "--blitter":
+                    blitter = true;
+                    break;
+                case "--parallel-enemies":
+                    parallelEnemies = true;
+                    break;
+                default:
+                    System.err.println("Unknown argument: " + args[i]);
+                    System.err.println("Usage: StressTest [--archetype NAME] [--enemies N] [--bullets M] [--beams K]"
+                            + " [--sweep enemies|bullets|beams|all|none] [--max P] [--samples S] [--seed S] [--no-paint] [--blitter]"
+                            + " [--parallel-enemies]");
+                    System.exit(2);
+            }
+        }
+
+        if (paint) {
+            SpriteLoader.loadSprites();
+            image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+            imageGraphics = image.createGraphics();
+            imageGraphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        }
+        System.out.println("archetype: " + archetype + ", seed: " + seed + ", samples per point: " + samples);
+
+        switch (sweep) {
+            case "enemies":
+                sweep("enemies", enemies, bullets, beams, 0, max > 0 ? max : 1024);
+                break;
+            case "bullets":
+                sweep("bullets", enemies, bullets, beams, 1, max > 0 ? max : 65536);
+                break;
+            case "beams":
+                sweep("beams", enemies, bullets, beams, 2, max > 0 ? max : 256);
+                break;
+            case "all":
+                sweep("enemies", enemies, bullets, beams, 0, max > 0 ? max : 1024);
+                sweep("bullets", enemies, bullets, beams, 1, max > 0 ? max : 65536);
+                sweep("beams", enemies, bullets, beams, 2, max > 0 ? max : 256);
+                break;
+            case "none":
+                printHeader();
+                printResult(measure(enemies, bullets, beams));
+                break;
+            default:
+                System.err.println("Unknown sweep: " + sweep);
+                System.exit(2);
+        }
+    }
+
+    // Doubles counts[axis] from 1 to max (after a 0 point) and reports the
+    // largest value whose slowest frame still fit in the budget
+    private static void sweep(String name, int enemies, int bullets, int beams, int axis, int max) {
+        System.out.println();
+        System.out.println("sweeping " + name + " up to " + max);
+        printHeader();
+        int[] counts = {enemies, bullets, beams};
+        int capacity = -1;
+        for (int value = 0; value <= max; value = value == 0 ? 1 : value * 2) {
+            counts[axis] = value;
+            Result result = measure(counts[0], counts[1], counts[2]);
+            printResult(result);
+            if (result.fitsFrame()) {
+                capacity = value;
+            }
+        }
+        if (capacity < 0) {
+            System.out.println("capacity: no point fits in a " + String.format("%.1f", FRAME_MS) + " ms frame");
+        } else {
+            System.out.printf("capacity: %d %s fit in a %.1f ms frame (p99 tick + paint)%n", capacity, name, FRAME_MS);
+        }
+    }
+
+    private static Result measure(int enemies, int bullets, int beams) {
+        RandomStream random = new RandomStream(seed);
+        GameWorld world = new GameWorld(null, BASE_WAVE, WIDTH, HEIGHT, seed);
+        world.setParallelEnemies(parallelEnemies);
+        Player player = world.getPlayer();
+        for (int i = 0; i < enemies; i++) {
+            int x = 50 + (int) (random.nextDouble() * (WIDTH - 100));
+            int y = 50 + (int) (random.nextDouble() * (HEIGHT - 100));
+            world.getEntities().add(archetype.create(x, y, WIDTH, HEIGHT, random.split()));
+        }
+
+        // Let the enemies get going, keeping the player alive so the wave doesn't reset
+        InputState idle = new InputState();
+        for (int tick = 0; tick < SETTLE_TICKS; tick++) {
+            world.update(idle);
+            player.heal(5);
+        }
+
+        for (int i = 0; i < bullets; i++) {
+            int x, y;
+            do {
+                x = (int) (random.nextDouble() * WIDTH);
+                y = (int) (random.nextDouble() * HEIGHT);
+            } while (Math.abs(x - player.getX()) < PLAYER_CLEARANCE && Math.abs(y - player.getY()) < PLAYER_CLEARANCE);
+            world.getEnemyProjectiles().spawn(x, y, random.nextDouble() * Math.PI * 2);
+        }
+        ArrayList<Beam> beamList = new ArrayList<>();
+        for (int i = 0; i < beams; i++) {
+            int x = (int) (random.nextDouble() * WIDTH);
+            int y = (int) (random.nextDouble() * HEIGHT);
+            Beam beam = new Beam(x, y, WIDTH, HEIGHT, random.nextDouble() * Math.PI * 2);
+            while (beam.getState() != 1) {
+                beam.update(); // straight to the flash, where it hurts and draws the most
+            }
+            beamList.add(beam);
+        }
+
+        ByteBuffer saved = new StateIO().save(world);
+        ByteBuffer snapshot = ByteBuffer.allocate(saved.remaining()).put(saved).flip();
+
+        long[] tickNanos = new long[samples];
+        long[] paintNanos = new long[samples];
+        long[] frameNanos = new long[samples];
+        for (int s = -WARMUP_SAMPLES; s < samples; s++) {
+            // Snapshots carry the owners' beams; the synthetic ones go back in by hand
+            world.readState(snapshot.rewind());
+            for (Beam beam : beamList) {
+                world.getBeamHazards().register(beam);
+            }
+
+            long start = System.nanoTime();
+            world.update(idle);
+            long tickTime = System.nanoTime() - start;
+
+            long paintTime = 0;
+            if (paint) {
+                start = System.nanoTime();
+                imageGraphics.setColor(Color.BLACK);
+                imageGraphics.fillRect(0, 0, WIDTH, HEIGHT);
+                WorldRenderer.draw(imageGraphics, blitter ? image : null, world, 1.0);
+                for (Beam beam : beamList) {
+                    EntityRenderer.draw(imageGraphics, beam);
+                }
+                hud.draw(imageGraphics, world, WIDTH);
+                paintTime = System.nanoTime() - start;
+            }
+
+            if (s >= 0) {
+                tickNanos[s] = tickTime;
+                paintNanos[s] = paintTime;
+                frameNanos[s] = tickTime + paintTime;
+            }
+        }
+
+        Arrays.sort(tickNanos);
+        Arrays.sort(paintNanos);
+        Arrays.sort(frameNanos);
+        return new Result(enemies, bullets, beams, world.getEntities().size(),
+                world.getEnemyProjectiles().size(), world.getBeamHazards().size(),
+                percentile(tickNanos, 0.5), percentile(paintNanos, 0.5), percentile(frameNanos, 0.99));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))] / 1e6;
+    }
+
+    private static void printHeader() {
+        System.out.printf("%8s %8s %6s | %8s %8s %6s | %9s %9s %9s%n",
+                "enemies", "bullets", "beams", "entities", "shots", "beams", "tick p50", "paint p50", "frame p99");
+    }
+
+    private static void printResult(Result r) {
+        System.out.printf("%8d %8d %6d | %8d %8d %6d | %7.3fms %7.3fms %7.3fms%s%n",
+                r.enemies, r.bullets, r.beams, r.liveEntities, r.liveShots, r.liveBeams,
+                r.tickMs, r.paintMs, r.frameP99Ms, r.fitsFrame() ? "" : "  over budget");
+    }
+
+    // One sweep point. The live counts are what the world held after the timed
+    // tick: the wave's own enemies, the archetype's own shots and beams included.
+    private static class Result {
+        final int enemies, bullets, beams;
+        final int liveEntities, liveShots, liveBeams;
+        final double tickMs, paintMs, frameP99Ms;
+
+        Result(int enemies, int bullets, int beams, int liveEntities, int liveShots, int liveBeams,
+               double tickMs, double paintMs, double frameP99Ms) {
+            this.enemies = enemies;
+            this.bullets = bullets;
+            this.beams = beams;
+            this.liveEntities = liveEntities;
+            this.liveShots = liveShots;
+            this.liveBeams = liveBeams;
+            this.tickMs = tickMs;
+            this.paintMs = paintMs;
+            this.frameP99Ms = frameP99Ms;
+        }
+
+        boolean fitsFrame() {
+            return frameP99Ms <= FRAME_MS;
+        }
+    }
+}
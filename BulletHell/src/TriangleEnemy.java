@@ -1,21 +1,24 @@
-import java.awt.*;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
 
-public class TriangleEnemy {
-    private int x, y;
-    private int hp = 1;
+public class TriangleEnemy extends Entity {
     private int shootCooldown = 30;
     private int velocityX;
     private int velocityY;
     private static final int MOVE_SPEED = 1;
 
-    public TriangleEnemy(int x, int y) {
-        this.x = x;
-        this.y = y;
-        this.velocityX = (int)((Math.random() - 0.5) * 2);
+    public TriangleEnemy(int x, int y, RandomStream random) {
+        super(Archetype.TRIANGLE, x, y, 1, random);
+        this.velocityX = (int)((random.nextDouble() - 0.5) * 2);
         this.velocityY = 1;
     }
 
+    @Override
+    public void update(GameWorld world, EnemyProjectiles projectiles, BeamHazards hazards) {
+        Player player = world.getPlayer();
+        update(world.getWidth(), world.getHeight(), player.hasSlowField());
+        spawnProjectiles(projectiles, player.getX(), player.getY());
+    }
+
     public void update(int width, int height) {
         update(width, height, false);
     }
@@ -48,39 +51,31 @@ public class TriangleEnemy {
         if (shootCooldown > 0) shootCooldown--;
     }
 
-    public void spawnProjectiles(ArrayList<EnemyProjectile> projectiles, int playerX, int playerY) {
+    public void spawnProjectiles(EnemyProjectiles projectiles, int playerX, int playerY) {
         if (shootCooldown <= 0) {
             // Shotgun pattern: 3 bullets spread
             double baseAngle = Math.atan2(playerY - y, playerX - x);
             
             for (int i = -1; i <= 1; i++) {
                 double angle = baseAngle + (i * 0.35);
-                projectiles.add(new EnemyProjectile(x, y, angle));
+                projectiles.spawn(x, y, angle);
             }
             
             shootCooldown = 60;
         }
     }
 
-    public void takeDamage(int damage) {
-        hp -= damage;
-    }
-
-    public boolean isDead() {
-        return hp <= 0;
+    @Override
+    protected void writeFields(ByteBuffer out) {
+        out.putInt(shootCooldown);
+        out.putInt(velocityX);
+        out.putInt(velocityY);
     }
 
-    public boolean collidesWith(int px, int py) {
-        return Math.abs(x - px) < 15 && Math.abs(y - py) < 15;
+    @Override
+    protected void readFields(ByteBuffer in) {
+        shootCooldown = in.getInt();
+        velocityX = in.getInt();
+        velocityY = in.getInt();
     }
-
-    public void draw(Graphics2D g) {
-        var sprite = SpriteLoader.getSprite("triangle_enemy");
-        if (sprite != null) {
-            g.drawImage(sprite, x - 20, y - 20, 40, 40, null);
-        }
-    }
-
-    public int getX() { return x; }
-    public int getY() { return y; }
 }
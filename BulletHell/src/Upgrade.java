@@ -50,15 +50,15 @@ public class Upgrade {
         }
     }
     
-    public static Upgrade getRandomUpgrade() {
+    public static Upgrade getRandomUpgrade(RandomStream random) {
         UpgradeType[] types = UpgradeType.values();
-        return new Upgrade(types[(int)(Math.random() * types.length)]);
+        return new Upgrade(types[(int)(random.nextDouble() * types.length)]);
     }
     
-    public static Upgrade[] getRandomUpgrades(int count) {
+    public static Upgrade[] getRandomUpgrades(int count, RandomStream random) {
         Upgrade[] upgrades = new Upgrade[count];
         for (int i = 0; i < count; i++) {
-            upgrades[i] = getRandomUpgrade();
+            upgrades[i] = getRandomUpgrade(random);
         }
         return upgrades;
     }
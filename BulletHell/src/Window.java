@@ -2,14 +2,34 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 public class Window extends JFrame {
     private GamePanel gamePanel;
     private MainMenu mainMenu;
     private Achievements achievements;
+    private RunStats runStats;
+    private SaveGame saveGame;
+    private final GamePanel.GamePanelListener panelListener = new GamePanel.GamePanelListener() {
+        @Override
+        public void onReturnToMenu() {
+            returnToMenu();
+        }
+
+        @Override
+        public void onRunEnded(RunRecord run) {
+            runStats.record(run);
+        }
+    };
     private boolean isFullscreen = false;
     private GraphicsDevice gd;
     private JPanel currentPanel;
+    private static Path recordPath; // --record FILE: write each run to a replay file
+    private static Path replayPath; // --replay FILE: play a recording instead of the menu's game
+    private static long replaySeek = 0; // --seek FRAME: start the replay at this frame
 
     public Window() {
         setTitle("Bullet Hell");
@@ -17,7 +37,9 @@ public class Window extends JFrame {
         setResizable(false);
         
         achievements = new Achievements();
-        mainMenu = new MainMenu(achievements);
+        runStats = new RunStats();
+        saveGame = new SaveGame(SaveGame.DEFAULT_PATH);
+        mainMenu = new MainMenu(achievements, runStats, saveGame);
         mainMenu.setListener(new MainMenu.MainMenuListener() {
             @Override
             public void onPlayClicked() {
@@ -28,6 +50,11 @@ public class Window extends JFrame {
             public void onDebugWaveSelected(int wave) {
                 startGameAtWave(wave);
             }
+
+            @Override
+            public void onContinueClicked() {
+                continueGame();
+            }
         });
         
         currentPanel = mainMenu;
@@ -66,30 +93,44 @@ public class Window extends JFrame {
     }
 
     private void startGame() {
-        remove(currentPanel);
-        gamePanel = new GamePanel(achievements);
-        gamePanel.setGamePanelListener(new GamePanel.GamePanelListener() {
-            @Override
-            public void onReturnToMenu() {
-                returnToMenu();
-            }
-        });
-        currentPanel = gamePanel;
-        add(gamePanel);
-        setVisible(true);
-        gamePanel.requestFocus();
-        toggleFullscreen();
+        if (replayPath != null) {
+            startReplay();
+            return;
+        }
+        showGame(new GamePanel(achievements, 1, recordPath));
     }
 
     private void startGameAtWave(int wave) {
+        showGame(new GamePanel(achievements, wave, recordPath));
+    }
+
+    private void continueGame() {
+        ByteBuffer saved = saveGame.read();
+        if (saved == null) return;
+        if (recordPath != null) {
+            // A replay starts from a seed, not from a saved world
+            System.err.println("Window: not recording, replays can't start from a save");
+        }
+        showGame(new GamePanel(achievements, saved));
+    }
+
+    private void startReplay() {
+        GamePanel replayPanel;
+        try {
+            replayPanel = new GamePanel(new ReplayReader(replayPath), replaySeek);
+        } catch (IOException ex) {
+            System.err.println("Window: could not open replay: " + ex.getMessage());
+            return;
+        }
+        showGame(replayPanel);
+    }
+
+    // Swaps the current screen for the game and goes fullscreen
+    private void showGame(GamePanel panel) {
         remove(currentPanel);
-        gamePanel = new GamePanel(achievements, wave);
-        gamePanel.setGamePanelListener(new GamePanel.GamePanelListener() {
-            @Override
-            public void onReturnToMenu() {
-                returnToMenu();
-            }
-        });
+        gamePanel = panel;
+        gamePanel.setGamePanelListener(panelListener);
+        gamePanel.setSaveGame(saveGame);
         currentPanel = gamePanel;
         add(gamePanel);
         setVisible(true);
@@ -125,9 +166,24 @@ public class Window extends JFrame {
         currentPanel.requestFocus();
     }
 
+    // Options: --record FILE, or --replay FILE [--seek FRAME] to play a recording when Play is clicked.
+    // --swing-render draws through Swing's repaint() instead of the default BufferStrategy.
+    // --software-bullets writes enemy bullets straight into a software back buffer's pixels.
+    // --parallel-enemies moves the enemies on the ForkJoinPool's threads.
     public static void main(String[] args) {
-        // Generate sprites if they don't exist
-        SpriteGenerator.generateAllSprites();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--record": recordPath = Paths.get(args[++i]); break;
+                case "--replay": replayPath = Paths.get(args[++i]); break;
+                case "--seek": replaySeek = Long.parseLong(args[++i]); break;
+                case "--swing-render": GamePanel.setActiveRendering(false); break;
+                case "--software-bullets": GamePanel.setSoftwareBullets(true); break;
+                case "--parallel-enemies": GamePanel.setParallelEnemies(true); break;
+                default: System.err.println("Unknown argument: " + args[i]); break;
+            }
+        }
+        // From the cache, unless SpriteGenerator changed since it was written
+        SpriteLoader.loadSprites();
         SwingUtilities.invokeLater(() -> new Window());
     }
 }
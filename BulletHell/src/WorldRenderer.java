@@ -0,0 +1,192 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+
+// Draws a GameWorld: the player, enemies or boss, pickups and projectiles,
+// then the HUD. GamePanel paints with it every frame and StressTest paints
+// into an offscreen image with it, so both measure the same drawing code.
+// Like EntityRenderer it allocates nothing per frame; the HUD text is blitted
+// from pre-drawn glyphs.
+public class WorldRenderer {
+    private static final int MAX_INTERPOLATION_DISTANCE = 64; // bigger jumps are teleports, draw them snapped
+    private static final Color[] DASH_TRAIL = Palette.ramp(0f, 0.5f, 1f);
+    private static final int BOSS_BAR_WIDTH = 300;
+    private static final int BOSS_BAR_HEIGHT = 20;
+    static final int HUD_TOP = 10, HUD_BOTTOM = 74; // everything drawHud draws is between these rows
+    private static final BitmapText HUD_TEXT = new BitmapText(new Font("Arial", Font.BOLD, 16), Color.WHITE);
+
+    // renderAlpha is how far this frame is between the last two ticks, 0 to 1
+    public static void draw(Graphics2D g2d, GameWorld world, double renderAlpha) {
+        draw(g2d, null, world, renderAlpha);
+    }
+
+    // Same, where target is the image g2d draws into (with no transform), or
+    // null. Enemy bullets are written straight into its pixels by
+    // ProjectileBlitter when it's a TYPE_INT_RGB image.
+    public static void draw(Graphics2D g2d, BufferedImage target, GameWorld world, double renderAlpha) {
+        Player player = world.getPlayer();
+        int waveNumber = world.getWaveNumber();
+        boolean bossFight = world.isBossFight();
+        Boss boss = world.getBoss();
+        PurpleBoss purpleBoss = world.getPurpleBoss();
+        FrameProfiler profiler = world.getProfiler();
+        long phaseStart = profiler.start();
+
+        // Draw dash trail
+        ArrayList<int[]> trail = player.getTrailPositions();
+        for (int i = 0; i < trail.size(); i++) {
+            int[] pos = trail.get(i);
+            float alpha = (float) i / trail.size();
+            g2d.setColor(Palette.alpha(DASH_TRAIL, alpha * 0.5f));
+            g2d.fillRect(pos[0] - 20, pos[1] - 20, 40, 40);
+        }
+
+        // Draw player
+        int playerX = lerp(renderAlpha, player.getPrevX(), player.getX());
+        int playerY = lerp(renderAlpha, player.getPrevY(), player.getY());
+        var playerSprite = SpriteLoader.getRegion("player", 40, 40);
+        if (playerSprite != null) {
+            playerSprite.draw(g2d, playerX - 20, playerY - 20);
+        }
+
+        // Draw dash cooldown meter below player (only show when cooling down)
+        if (player.getDashCooldown() > 0) {
+            int meterWidth = 30;
+            int meterHeight = 4;
+            int meterX = playerX - meterWidth / 2;
+            int meterY = playerY + 15;
+            g2d.setColor(Color.DARK_GRAY);
+            g2d.fillRect(meterX, meterY, meterWidth, meterHeight);
+            g2d.setColor(Color.GREEN);
+            int fillWidth = (int) (meterWidth * (1.0 - (double) player.getDashCooldown() / player.getMaxDashCooldown()));
+            g2d.fillRect(meterX, meterY, fillWidth, meterHeight);
+            g2d.setColor(Color.WHITE);
+            g2d.drawRect(meterX, meterY, meterWidth, meterHeight);
+        }
+
+        // Draw player projectiles
+        var playerProjSprite = SpriteLoader.getRegion("player_projectile", 12, 12);
+        ArrayList<PlayerProjectile> playerProjectiles = world.getPlayerProjectiles();
+        for (int i = 0; i < playerProjectiles.size(); i++) {
+            PlayerProjectile proj = playerProjectiles.get(i);
+            if (playerProjSprite != null) {
+                int projX = lerp(renderAlpha, proj.getPrevX(), proj.getX());
+                int projY = lerp(renderAlpha, proj.getPrevY(), proj.getY());
+                playerProjSprite.draw(g2d, projX - 6, projY - 6);
+            }
+        }
+        profiler.stop(FrameProfiler.Phase.DRAW_PLAYER, phaseStart);
+
+        // Draw enemies and boss. Entities that draw themselves are shifted back to
+        // their interpolated position with a translate around the draw call, in
+        // whole pixels so undoing it leaves the transform exactly as it was and
+        // sprites keep taking Java2D's plain, allocation-free blit.
+        phaseStart = profiler.start();
+        if (!bossFight) {
+            EntityStore entities = world.getEntities();
+            for (int i = 0; i < entities.size(); i++) {
+                Entity enemy = entities.get(i);
+                int ox = (int) Math.round(lerpOffset(renderAlpha, enemy.getPrevX(), enemy.getX()));
+                int oy = (int) Math.round(lerpOffset(renderAlpha, enemy.getPrevY(), enemy.getY()));
+                g2d.translate(ox, oy);
+                EntityRenderer.draw(g2d, enemy);
+                g2d.translate(-ox, -oy);
+            }
+            profiler.stop(FrameProfiler.Phase.DRAW_ENEMIES, phaseStart);
+        } else {
+            if (waveNumber == 20 && purpleBoss != null) {
+                int ox = (int) Math.round(lerpOffset(renderAlpha, purpleBoss.getPrevX(), purpleBoss.getX()));
+                int oy = (int) Math.round(lerpOffset(renderAlpha, purpleBoss.getPrevY(), purpleBoss.getY()));
+                g2d.translate(ox, oy);
+                EntityRenderer.draw(g2d, purpleBoss);
+                g2d.translate(-ox, -oy);
+            } else {
+                int ox = (int) Math.round(lerpOffset(renderAlpha, boss.getPrevX(), boss.getX()));
+                int oy = (int) Math.round(lerpOffset(renderAlpha, boss.getPrevY(), boss.getY()));
+                g2d.translate(ox, oy);
+                EntityRenderer.draw(g2d, boss);
+                g2d.translate(-ox, -oy);
+            }
+            profiler.stop(FrameProfiler.Phase.DRAW_BOSS, phaseStart);
+        }
+
+        // Draw healing items
+        phaseStart = profiler.start();
+        ArrayList<HealingItem> healingItems = world.getHealingItems();
+        for (int i = 0; i < healingItems.size(); i++) {
+            EntityRenderer.draw(g2d, healingItems.get(i));
+        }
+
+        // Draw enemy projectiles
+        if (ProjectileBlitter.canDraw(target)) {
+            ProjectileBlitter.draw(target, world.getEnemyProjectiles(), renderAlpha);
+        } else {
+            drawEnemyProjectiles(g2d, world.getEnemyProjectiles(), renderAlpha);
+        }
+        profiler.stop(FrameProfiler.Phase.DRAW_SHOTS, phaseStart);
+    }
+
+    // Each bullet in its own tint from a sprite already at its size
+    static void drawEnemyProjectiles(Graphics2D g2d, EnemyProjectiles enemyProjectiles, double renderAlpha) {
+        for (int i = 0; i < enemyProjectiles.size(); i++) {
+            int size = enemyProjectiles.getSize(i);
+            var enemyProjSprite = SpriteLoader.getProjectileRegion(size, enemyProjectiles.getStyle(i));
+            if (enemyProjSprite != null) {
+                int projX = lerp(renderAlpha, enemyProjectiles.getPrevX(i), enemyProjectiles.getX(i));
+                int projY = lerp(renderAlpha, enemyProjectiles.getPrevY(i), enemyProjectiles.getY(i));
+                enemyProjSprite.draw(g2d, projX - size, projY - size);
+            }
+        }
+    }
+
+    // HP, wave number and the boss health bar, laid out for a screen this wide.
+    // GamePanel draws it through a HudLayer, which only calls this when one of them changed.
+    public static void drawHud(Graphics2D g2d, GameWorld world, int width) {
+        Player player = world.getPlayer();
+        int waveNumber = world.getWaveNumber();
+
+        int textX = HUD_TEXT.draw(g2d, "HP: ", 20, 30);
+        HUD_TEXT.draw(g2d, player.getHP(), textX, 30);
+        textX = HUD_TEXT.draw(g2d, "Wave: ", width - 150, 30);
+        HUD_TEXT.draw(g2d, waveNumber, textX, 30);
+
+        if (world.isBossFight()) {
+            HUD_TEXT.draw(g2d, "BOSS", width / 2 - 30, 30);
+
+            // Draw boss health bar
+            int barX = (width - BOSS_BAR_WIDTH) / 2;
+            int barY = 50;
+            g2d.setColor(Color.DARK_GRAY);
+            g2d.fillRect(barX, barY, BOSS_BAR_WIDTH, BOSS_BAR_HEIGHT);
+            g2d.setColor(Color.RED);
+            g2d.fillRect(barX, barY, bossHealthWidth(world), BOSS_BAR_HEIGHT);
+            g2d.setColor(Color.WHITE);
+            g2d.drawRect(barX, barY, BOSS_BAR_WIDTH, BOSS_BAR_HEIGHT);
+        }
+    }
+
+    // How much of the boss health bar is filled, in pixels; 0 with no boss
+    static int bossHealthWidth(GameWorld world) {
+        PurpleBoss purpleBoss = world.getPurpleBoss();
+        Boss boss = world.getBoss();
+        if (world.getWaveNumber() == 20 && purpleBoss != null) {
+            return (int) (BOSS_BAR_WIDTH * ((float) purpleBoss.getHP() / purpleBoss.getMaxHP()));
+        } else if (boss != null) {
+            return (int) (BOSS_BAR_WIDTH * boss.getHealthPercent());
+        }
+        return 0;
+    }
+
+    // Offset from the current tick position back toward the previous one for this frame
+    private static double lerpOffset(double renderAlpha, int prev, int current) {
+        int delta = current - prev;
+        if (Math.abs(delta) > MAX_INTERPOLATION_DISTANCE) {
+            return 0;
+        }
+        return (renderAlpha - 1.0) * delta;
+    }
+
+    static int lerp(double renderAlpha, int prev, int current) {
+        return current + (int) Math.round(lerpOffset(renderAlpha, prev, current));
+    }
+}